@@ -0,0 +1,98 @@
+package com.kds.mock.benchmark;
+
+import com.kds.mock.MockServiceApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the service for a benchmark run on an in-memory H2 database and a random port, and
+ * configures endpoints through its API.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    /**
+     * Starts the application with its own database. The extra properties are given as
+     * {@code --name=value} arguments and override the defaults below.
+     */
+    static BenchmarkApplication start(String databaseName, ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+                                      String... extraProperties) {
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.sql.init.mode=never",
+            "--server.port=0",
+            "--logging.level.root=WARN",
+            "--logging.level.org.hibernate=ERROR",
+            "--logging.level.com.kds.mock=WARN"));
+        args.addAll(List.of(extraProperties));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MockServiceApplication.class)
+            .bannerMode(Banner.Mode.OFF)
+            .initializers(initializer)
+            // Passed as command line arguments so they take precedence over application.properties
+            .run(args.toArray(String[]::new));
+        return new BenchmarkApplication(context);
+    }
+
+    static BenchmarkApplication start(String databaseName, String... extraProperties) {
+        return start(databaseName, context -> { }, extraProperties);
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Configures an endpoint through {@code POST /endpoints}
+     *
+     * @param loadTestConfig JSON load test configuration, or null for none
+     */
+    void configureEndpoint(HttpClient client, String path, String body, String loadTestConfig) throws Exception {
+        String request = """
+            {
+              "path": "%s",
+              "method": "GET",
+              "statusCode": 200,
+              "contentType": "application/json",
+              "body": "%s"%s
+            }
+            """.formatted(path, body.replace("\\", "\\\\").replace("\"", "\\\""),
+            loadTestConfig != null ? ",\n  \"loadTestConfig\": " + loadTestConfig : "");
+        HttpResponse<String> response = client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/endpoints"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(request))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201 && response.statusCode() != 200) {
+            throw new IllegalStateException("Failed to configure benchmark endpoint " + path + ": "
+                + response.statusCode() + " " + response.body());
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
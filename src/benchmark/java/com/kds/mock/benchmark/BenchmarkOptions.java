@@ -0,0 +1,38 @@
+package com.kds.mock.benchmark;
+
+/**
+ * Reads {@code --name=value} options from a benchmark's command line
+ */
+final class BenchmarkOptions {
+
+    private final String[] args;
+
+    BenchmarkOptions(String[] args) {
+        this.args = args;
+    }
+
+    int intOption(String name, int defaultValue) {
+        String value = stringOption(name, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    double doubleOption(String name, double defaultValue) {
+        String value = stringOption(name, null);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    boolean booleanOption(String name, boolean defaultValue) {
+        String value = stringOption(name, null);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+
+    String stringOption(String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,162 @@
+package com.kds.mock.benchmark;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the platform-thread and virtual-thread serving modes for delayed mock responses.
+ * <p>
+ * For each mode the application is started on an in-memory H2 database, an endpoint with a fixed
+ * latency is configured through the API, and a burst of concurrent requests is sent to it. The
+ * report shows how many delayed requests the server held in flight at the same time and how much
+ * time each request spent on top of the configured latency.
+ * <p>
+ * Usage: {@code gradle servingModeBenchmark --args="--requests=2000 --delay-ms=500 --modes=platform,virtual"}
+ */
+public class ServingModeBenchmark {
+
+    private static final String BENCHMARK_PATH = "/api/benchmark/delayed";
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        int requests = options.intOption("requests", 1000);
+        long delayMs = options.intOption("delay-ms", 500);
+        List<String> modes = Arrays.asList(options.stringOption("modes", "platform,virtual").split(","));
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            results.add(run(mode.trim(), requests, delayMs));
+        }
+
+        System.out.printf(Locale.ROOT, "%n%-10s %9s %9s %13s %12s %12s %12s %8s%n",
+            "mode", "requests", "delay ms", "max in-flight", "p50 over ms", "p99 over ms", "max over ms", "wall s");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-10s %9d %9d %13d %12.1f %12.1f %12.1f %8.2f%n",
+                result.mode, result.requests, result.delayMs, result.maxInFlight,
+                result.p50OverheadMs, result.p99OverheadMs, result.maxOverheadMs, result.wallSeconds);
+        }
+    }
+
+    private static Result run(String mode, int requests, long delayMs) throws Exception {
+        boolean virtual = switch (mode) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+
+        InFlightFilter inFlight = new InFlightFilter();
+        try (BenchmarkApplication application = BenchmarkApplication.start("benchmark-" + mode,
+                ctx -> ctx.getBeanFactory().registerSingleton("inFlightFilter", inFlight),
+                "--server.tomcat.max-connections=" + Math.max(8192, requests * 2),
+                "--server.tomcat.accept-count=" + requests,
+                "--mock.serving.async-enabled=false",
+                "--spring.threads.virtual.enabled=" + virtual)) {
+            String baseUrl = application.baseUrl();
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+            application.configureEndpoint(client, BENCHMARK_PATH, "{\"status\": \"ok\"}",
+                "{\"latencyConfig\": {\"type\": \"FIXED\", \"fixedLatencyMs\": " + delayMs + "}}");
+
+            // Warm up the request path before measuring
+            send(client, baseUrl, 50, 0);
+            inFlight.reset();
+
+            long start = System.nanoTime();
+            long[] latenciesNanos = send(client, baseUrl, requests, delayMs);
+            double wallSeconds = (System.nanoTime() - start) / 1e9;
+
+            double[] overheadsMs = Arrays.stream(latenciesNanos).mapToDouble(n -> n / 1e6 - delayMs).sorted().toArray();
+            return new Result(mode, requests, delayMs, inFlight.maxInFlight(),
+                percentile(overheadsMs, 50), percentile(overheadsMs, 99), overheadsMs[overheadsMs.length - 1], wallSeconds);
+        }
+    }
+
+    /**
+     * Sends all requests at once, each from its own virtual thread, and returns their latencies
+     */
+    private static long[] send(HttpClient client, String baseUrl, int requests, long delayMs) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + BENCHMARK_PATH))
+            .timeout(Duration.ofMinutes(5))
+            .GET()
+            .build();
+
+        long[] latencies = new long[requests];
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                futures.add(clients.submit(() -> {
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies[index] = System.nanoTime() - start;
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Unexpected status " + response.statusCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return latencies;
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private record Result(String mode, int requests, long delayMs, int maxInFlight,
+                          double p50OverheadMs, double p99OverheadMs, double maxOverheadMs, double wallSeconds) {
+    }
+
+    /**
+     * Counts requests that are being handled by the server at the same time
+     */
+    static class InFlightFilter extends OncePerRequestFilter {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        int maxInFlight() {
+            return maxInFlight.get();
+        }
+
+        void reset() {
+            maxInFlight.set(inFlight.get());
+        }
+    }
+}
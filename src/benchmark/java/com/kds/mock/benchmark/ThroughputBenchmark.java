@@ -0,0 +1,358 @@
+package com.kds.mock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the throughput and latency of mock requests end to end, from an HTTP client to the
+ * running service.
+ * <p>
+ * The application is started on an in-memory H2 database, the requested number of endpoints is
+ * configured through the API and {@code /api/**} is driven by a built-in load generator whose
+ * clients run on virtual threads:
+ * <ul>
+ *     <li>{@code closed}: a fixed number of clients each send their next request as soon as the
+ *     previous one completes, so the offered load adapts to the service</li>
+ *     <li>{@code open}: requests are started at a fixed rate whether or not earlier ones have
+ *     completed. Latency is measured from the time each request was scheduled to start, so a
+ *     stalled service shows up in the percentiles instead of silently lowering the load.</li>
+ * </ul>
+ * Requests go round-robin over the endpoints. After a warmup phase, the report gives the request
+ * rate, latency percentiles and a breakdown of errors by status code or client failure, per
+ * endpoint and overall. It is printed and written as JSON together with the commit, JVM and
+ * machine it was measured on, so runs on the same box can be compared across commits.
+ * <p>
+ * Usage: {@code gradle throughputBenchmark --args="--endpoints=100 --mode=open --rate=5000 --duration-s=30"}
+ */
+public class ThroughputBenchmark {
+
+    private static final String PATH_PREFIX = "/api/benchmark/throughput/resource-";
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        Settings settings = new Settings(
+            options.intOption("endpoints", 50),
+            options.stringOption("mode", "closed"),
+            options.intOption("concurrency", 64),
+            options.intOption("rate", 2000),
+            options.intOption("max-in-flight", 10_000),
+            options.intOption("warmup-s", 5),
+            options.intOption("duration-s", 30),
+            options.intOption("timeout-ms", 10_000),
+            options.intOption("latency-ms", 0),
+            options.doubleOption("error-rate", 0.0),
+            options.intOption("body-bytes", 256),
+            options.booleanOption("virtual-threads", false),
+            options.booleanOption("async", false)
+        );
+        if (!settings.mode().equals("closed") && !settings.mode().equals("open")) {
+            throw new IllegalArgumentException("Unknown mode: " + settings.mode());
+        }
+        Path output = Path.of(options.stringOption("output", "build/reports/benchmark/throughput.json"));
+
+        try (BenchmarkApplication application = BenchmarkApplication.start("throughput-benchmark",
+                "--server.tomcat.max-connections=" + Math.max(8192, settings.maxInFlight() * 2),
+                "--server.tomcat.accept-count=" + settings.maxInFlight(),
+                "--mock.serving.async-enabled=" + settings.async(),
+                "--spring.threads.virtual.enabled=" + settings.virtualThreads())) {
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+            List<Target> targets = seedEndpoints(application, client, settings);
+
+            run(client, targets, settings, Duration.ofSeconds(settings.warmupSeconds()));
+            Report report = run(client, targets, settings, Duration.ofSeconds(settings.durationSeconds()));
+
+            print(report);
+            write(output, settings, report);
+        }
+    }
+
+    private static List<Target> seedEndpoints(BenchmarkApplication application, HttpClient client, Settings settings)
+            throws Exception {
+        String loadTestConfig = loadTestConfig(settings);
+        String body = "{\"data\": \"" + "x".repeat(Math.max(0, settings.bodyBytes() - 12)) + "\"}";
+        List<Target> targets = new ArrayList<>(settings.endpoints());
+        for (int i = 0; i < settings.endpoints(); i++) {
+            String path = PATH_PREFIX + i;
+            application.configureEndpoint(client, path, body, loadTestConfig);
+            targets.add(new Target(path, HttpRequest.newBuilder(URI.create(application.baseUrl() + path))
+                .timeout(Duration.ofMillis(settings.timeoutMs()))
+                .GET()
+                .build()));
+        }
+        return targets;
+    }
+
+    private static String loadTestConfig(Settings settings) {
+        List<String> parts = new ArrayList<>();
+        if (settings.latencyMs() > 0) {
+            parts.add("\"latencyConfig\": {\"type\": \"FIXED\", \"fixedLatencyMs\": " + settings.latencyMs() + "}");
+        }
+        if (settings.errorRate() > 0) {
+            parts.add(String.format(Locale.ROOT, "\"errorConfig\": {\"enabled\": true, \"errorRate\": %s}", settings.errorRate()));
+        }
+        return parts.isEmpty() ? null : "{" + String.join(", ", parts) + "}";
+    }
+
+    /**
+     * Runs one phase of the configured mode against fresh statistics and reports on it
+     */
+    private static Report run(HttpClient client, List<Target> targets, Settings settings, Duration duration)
+            throws InterruptedException {
+        for (Target target : targets) {
+            target.reset();
+        }
+        long startNanos = System.nanoTime();
+        if (settings.mode().equals("open")) {
+            runOpenLoop(client, targets, settings, startNanos + duration.toNanos());
+        } else {
+            runClosedLoop(client, targets, settings, startNanos + duration.toNanos());
+        }
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        Map<String, Result> endpoints = new TreeMap<>();
+        Histogram allLatencies = new Histogram(3);
+        Map<String, Long> allErrors = new TreeMap<>();
+        for (Target target : targets) {
+            Histogram latencies = target.latencies.getIntervalHistogram();
+            Map<String, Long> errors = target.errors();
+            endpoints.put(target.path, Result.of(latencies, errors, elapsedSeconds));
+            allLatencies.add(latencies);
+            errors.forEach((kind, count) -> allErrors.merge(kind, count, Long::sum));
+        }
+        return new Report(elapsedSeconds, Result.of(allLatencies, allErrors, elapsedSeconds), endpoints);
+    }
+
+    private static void runClosedLoop(HttpClient client, List<Target> targets, Settings settings, long endNanos)
+            throws InterruptedException {
+        AtomicLong sequence = new AtomicLong();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.concurrency(); i++) {
+                clients.execute(() -> {
+                    while (System.nanoTime() - endNanos < 0 && !Thread.currentThread().isInterrupted()) {
+                        Target target = targets.get((int) (sequence.getAndIncrement() % targets.size()));
+                        send(client, target, System.nanoTime());
+                    }
+                });
+            }
+            clients.shutdown();
+            awaitTermination(clients, settings);
+        }
+    }
+
+    private static void runOpenLoop(HttpClient client, List<Target> targets, Settings settings, long endNanos)
+            throws InterruptedException {
+        double intervalNanos = 1e9 / settings.rate();
+        AtomicInteger inFlight = new AtomicInteger();
+        long startNanos = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduledNanos = startNanos + (long) (i * intervalNanos);
+                if (scheduledNanos - endNanos >= 0) {
+                    break;
+                }
+                long waitNanos = scheduledNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                Target target = targets.get((int) (i % targets.size()));
+                if (inFlight.incrementAndGet() > settings.maxInFlight()) {
+                    // The generator does not queue without bound, a request it cannot start is counted as failed
+                    inFlight.decrementAndGet();
+                    target.recordError("client_max_in_flight");
+                    continue;
+                }
+                clients.execute(() -> {
+                    try {
+                        send(client, target, scheduledNanos);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+            clients.shutdown();
+            awaitTermination(clients, settings);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService clients, Settings settings) throws InterruptedException {
+        if (!clients.awaitTermination(settings.timeoutMs() + 30_000L, TimeUnit.MILLISECONDS)) {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends one request and records its latency since {@code startNanos}, or the kind of failure
+     */
+    private static void send(HttpClient client, Target target, long startNanos) {
+        try {
+            HttpResponse<Void> response = client.send(target.request, HttpResponse.BodyHandlers.discarding());
+            target.recordResponse(response.statusCode(), (System.nanoTime() - startNanos) / 1_000);
+        } catch (HttpTimeoutException e) {
+            target.recordError("client_timeout");
+        } catch (IOException e) {
+            target.recordError("client_" + e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void print(Report report) {
+        System.out.printf(Locale.ROOT, "%n%-48s %10s %10s %9s %9s %9s %9s  %s%n",
+            "endpoint", "requests", "rps", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        report.endpoints().forEach((path, result) -> printRow(path, result));
+        printRow("overall", report.overall());
+        System.out.printf(Locale.ROOT, "%nMeasured for %.1f s%n", report.elapsedSeconds());
+    }
+
+    private static void printRow(String name, Result result) {
+        System.out.printf(Locale.ROOT, "%-48s %10d %10.1f %9.2f %9.2f %9.2f %9.2f  %s%n",
+            name, result.requests(), result.rps(), result.latencyMs().p50(), result.latencyMs().p99(),
+            result.latencyMs().p999(), result.latencyMs().max(), result.errors().isEmpty() ? "-" : result.errors());
+    }
+
+    private static void write(Path output, Settings settings, Report report) throws IOException {
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("timestamp", Instant.now().toString());
+        environment.put("commit", gitCommit());
+        environment.put("javaVersion", System.getProperty("java.version"));
+        environment.put("javaVm", System.getProperty("java.vm.name"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version") + " " + System.getProperty("os.arch"));
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environment.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("environment", environment);
+        document.put("settings", settings);
+        document.put("report", report);
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), document);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static String gitCommit() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "HEAD").redirectErrorStream(true).start();
+            String commit = new String(process.getInputStream().readAllBytes()).trim();
+            return process.waitFor() == 0 ? commit : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+
+    private record Settings(int endpoints, String mode, int concurrency, int rate, int maxInFlight,
+                            int warmupSeconds, int durationSeconds, int timeoutMs, int latencyMs,
+                            double errorRate, int bodyBytes, boolean virtualThreads, boolean async) {
+    }
+
+    private record Report(double elapsedSeconds, Result overall, Map<String, Result> endpoints) {
+    }
+
+    /**
+     * Requests counts every request sent, including failed ones; latencies cover every request
+     * that got a response, whatever its status
+     */
+    private record Result(long requests, long successful, double rps, Latency latencyMs, Map<String, Long> errors) {
+
+        static Result of(Histogram latencies, Map<String, Long> errors, double elapsedSeconds) {
+            long clientErrors = errors.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("client_"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+            long statusErrors = errors.values().stream().mapToLong(Long::longValue).sum() - clientErrors;
+            long requests = latencies.getTotalCount() + clientErrors;
+            return new Result(requests, latencies.getTotalCount() - statusErrors, requests / elapsedSeconds,
+                Latency.of(latencies), errors);
+        }
+    }
+
+    private record Latency(double mean, double p50, double p99, double p999, double max) {
+
+        static Latency of(Histogram micros) {
+            if (micros.getTotalCount() == 0) {
+                return new Latency(0, 0, 0, 0, 0);
+            }
+            return new Latency(
+                micros.getMean() / 1000.0,
+                micros.getValueAtPercentile(50) / 1000.0,
+                micros.getValueAtPercentile(99) / 1000.0,
+                micros.getValueAtPercentile(99.9) / 1000.0,
+                micros.getMaxValue() / 1000.0);
+        }
+    }
+
+    /**
+     * An endpoint under load and what happened to the requests sent to it in the current phase
+     */
+    private static final class Target {
+
+        private final String path;
+        private final HttpRequest request;
+        private final Recorder latencies = new Recorder(3);
+        private volatile ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        Target(String path, HttpRequest request) {
+            this.path = path;
+            this.request = request;
+        }
+
+        void recordResponse(int statusCode, long latencyMicros) {
+            latencies.recordValue(Math.max(0, latencyMicros));
+            if (statusCode < 200 || statusCode >= 300) {
+                recordError(String.valueOf(statusCode));
+            }
+        }
+
+        void recordError(String kind) {
+            errors.computeIfAbsent(kind, k -> new LongAdder()).increment();
+        }
+
+        Map<String, Long> errors() {
+            Map<String, Long> counts = new TreeMap<>();
+            errors.forEach((kind, count) -> counts.put(kind, count.sum()));
+            return counts;
+        }
+
+        void reset() {
+            latencies.reset();
+            errors = new ConcurrentHashMap<>();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.kds.mock.benchmark;
+
+import com.kds.mock.entity.Endpoints;
+import com.kds.mock.entity.Headers;
+import com.kds.mock.entity.Responses;
+import com.kds.mock.repository.EndpointsRepository;
+import com.kds.mock.repository.HeadersRepository;
+import com.kds.mock.repository.ResponsesRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed in-memory contents for the repositories the route table is loaded from, so the serving
+ * path can be benchmarked without a database.
+ * <p>
+ * Only {@code findAll} is answered, which is all {@link com.kds.mock.service.RouteTableService}
+ * needs to build its table; any other repository call fails.
+ */
+final class InMemoryRepositories {
+
+    private final List<Endpoints> endpoints = new ArrayList<>();
+    private final List<Headers> headers = new ArrayList<>();
+    private final List<Responses> responses = new ArrayList<>();
+
+    /**
+     * Adds an endpoint with a JSON response for the given method and an optional load test configuration
+     */
+    Endpoints addEndpoint(String path, String method, String body, String loadTestConfig) {
+        Endpoints endpoint = new Endpoints(path, 200, "Benchmark endpoint");
+        endpoint.setId((long) endpoints.size() + 1);
+        endpoint.setLoadTestConfig(loadTestConfig);
+        endpoints.add(endpoint);
+        headers.add(new Headers(endpoint, "Content-Type", "application/json"));
+        responses.add(new Responses(endpoint, method, "application/json", body));
+        return endpoint;
+    }
+
+    EndpointsRepository endpointsRepository() {
+        return findAllOnly(EndpointsRepository.class, endpoints);
+    }
+
+    HeadersRepository headersRepository() {
+        return findAllOnly(HeadersRepository.class, headers);
+    }
+
+    ResponsesRepository responsesRepository() {
+        return findAllOnly(ResponsesRepository.class, responses);
+    }
+
+    private static <R> R findAllOnly(Class<R> repositoryType, List<?> rows) {
+        Object repository = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findAll" -> {
+                    if (args != null && args.length > 0) {
+                        throw new UnsupportedOperationException("findAll with arguments");
+                    }
+                    yield List.copyOf(rows);
+                }
+                case "toString" -> "InMemory" + repositoryType.getSimpleName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+        return repositoryType.cast(repository);
+    }
+}
@@ -0,0 +1,81 @@
+package com.kds.mock.benchmark;
+
+import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.service.LoadTestService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of drawing a latency with each of the latency calculators, from the thread's own
+ * generator and from a seeded per-request generator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyCalculatorBenchmark {
+
+    @Param({"FIXED", "RANDOM", "NORMAL_DISTRIBUTION", "PERCENTILE", "HISTOGRAM", "LOG_NORMAL", "PARETO", "EXPONENTIAL", "GAMMA"})
+    private String latencyType;
+
+    private LoadTestService loadTestService;
+    private LoadTestConfig latencyConfig;
+    private LoadTestConfig seededLatencyConfig;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        loadTestService = new LoadTestService();
+
+        LoadTestConfig.LatencyConfig latency = new LoadTestConfig.LatencyConfig();
+        latency.setType(latencyType);
+        latency.setFixedLatencyMs(100L);
+        latency.setMinLatencyMs(50L);
+        latency.setMaxLatencyMs(500L);
+        latency.setMeanLatencyMs(200.0);
+        latency.setStdDeviationMs(50.0);
+        latency.setShape(2.0);
+        latency.setP50(50L);
+        latency.setP95(200L);
+        latency.setP99(500L);
+        latency.setP999(1500L);
+        latency.setHistogramCsv("20,700\n200,299\n3000,1");
+
+        latencyConfig = new LoadTestConfig();
+        latencyConfig.setLatencyConfig(latency);
+        seededLatencyConfig = new LoadTestConfig();
+        seededLatencyConfig.setLatencyConfig(latency);
+        seededLatencyConfig.setSeed(42L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loadTestService.shutdown();
+    }
+
+    @Benchmark
+    public long calculateLatency() {
+        return loadTestService.calculateLatencyMs(latencyConfig, ThreadLocalRandom.current());
+    }
+
+    @Benchmark
+    public long calculateSeededLatency() {
+        return loadTestService.calculateLatencyMs(seededLatencyConfig,
+            loadTestService.newRequestRandom("/api/benchmark/seeded", seededLatencyConfig));
+    }
+}
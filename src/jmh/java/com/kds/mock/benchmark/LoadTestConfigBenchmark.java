@@ -0,0 +1,72 @@
+package com.kds.mock.benchmark;
+
+import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.service.LoadTestService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of parsing a stored load test configuration, which happens for every endpoint each
+ * time the route table is rebuilt.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadTestConfigBenchmark {
+
+    private static final String MINIMAL_CONFIG = """
+        {"latencyConfig": {"type": "FIXED", "fixedLatencyMs": 100}}
+        """;
+
+    private static final String FULL_CONFIG = """
+        {
+          "latencyConfig": {"type": "PERCENTILE", "p50": 50, "p95": 200, "p99": 500, "p999": 1500},
+          "timeoutConfig": {"enabled": true, "timeoutMs": 5000, "timeoutProbability": 0.01},
+          "errorConfig": {
+            "enabled": true,
+            "errorRate": 0.05,
+            "errorStatusCodes": [500, 502, 503],
+            "errorMessages": {"500": "Internal error", "502": "Bad gateway", "503": "Unavailable"}
+          },
+          "rateLimitConfig": {"enabled": true, "requestsPerSecond": 100, "burstSize": 10, "rateLimitStatusCode": 429},
+          "seed": 42
+        }
+        """;
+
+    private LoadTestService loadTestService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        loadTestService = new LoadTestService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loadTestService.shutdown();
+    }
+
+    @Benchmark
+    public LoadTestConfig parseMinimalConfig() {
+        return loadTestService.parseLoadTestConfig(MINIMAL_CONFIG);
+    }
+
+    @Benchmark
+    public LoadTestConfig parseFullConfig() {
+        return loadTestService.parseLoadTestConfig(FULL_CONFIG);
+    }
+}
@@ -0,0 +1,124 @@
+package com.kds.mock.benchmark;
+
+import com.kds.mock.dto.MockResponse;
+import com.kds.mock.metrics.RequestMetrics;
+import com.kds.mock.service.LoadTestService;
+import com.kds.mock.service.RouteTableService;
+import com.kds.mock.service.impl.MockServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link MockServiceImpl#getMockResponseByPathAndMethod} from route lookup to the
+ * planned response, with the route table loaded from in-memory repositories.
+ * <p>
+ * The {@code profile} parameter selects the endpoint configuration: {@code plain} has no load test
+ * configuration, {@code faults} enables the rate limit, timeout, error and latency checks and
+ * {@code seeded} adds a seed so every request derives its own generator. Latencies and timeouts are
+ * configured so they are always drawn as 0 and never fire, so no request sleeps.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MockServiceBenchmark {
+
+    private static final String FAULTS = """
+        {
+          "latencyConfig": {"type": "RANDOM", "minLatencyMs": 0, "maxLatencyMs": 1},
+          "timeoutConfig": {"enabled": true, "timeoutProbability": 0.0},
+          "errorConfig": {"enabled": true, "errorRate": 0.1},
+          "rateLimitConfig": {"enabled": true, "requestsPerSecond": 1000000000, "burstSize": 1000000}
+        }
+        """;
+
+    private static final String SEEDED = FAULTS.replaceFirst("\\{", "{\"seed\": 42,");
+
+    @Param({"10", "1000"})
+    private int endpointCount;
+
+    @Param({"plain", "faults", "seeded"})
+    private String profile;
+
+    private MockServiceImpl mockService;
+    private LoadTestService loadTestService;
+    private String[] paths;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String loadTestConfig = switch (profile) {
+            case "plain" -> null;
+            case "faults" -> FAULTS;
+            case "seeded" -> SEEDED;
+            default -> throw new IllegalArgumentException("Unknown profile: " + profile);
+        };
+
+        InMemoryRepositories repositories = new InMemoryRepositories();
+        paths = new String[endpointCount];
+        for (int i = 0; i < endpointCount; i++) {
+            paths[i] = "/api/benchmark/resource-" + i;
+            repositories.addEndpoint(paths[i], "GET", "{\"id\": " + i + ", \"name\": \"resource\"}", loadTestConfig);
+        }
+
+        loadTestService = new LoadTestService();
+        RequestMetrics requestMetrics = new RequestMetrics(new SimpleMeterRegistry());
+        RouteTableService routeTableService = new RouteTableService(repositories.endpointsRepository(),
+            repositories.headersRepository(), repositories.responsesRepository(), loadTestService, requestMetrics);
+        routeTableService.reload();
+        mockService = new MockServiceImpl(routeTableService, loadTestService, requestMetrics);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loadTestService.shutdown();
+    }
+
+    /**
+     * Walks through the configured paths so lookups are not always served from the same cache lines
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String path(String[] paths) {
+            String path = paths[next];
+            next = next + 1 == paths.length ? 0 : next + 1;
+            return path;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MockResponse matched(Cursor cursor) {
+        return mockService.getMockResponseByPathAndMethod(cursor.path(paths), "GET");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public MockResponse matchedConcurrent(Cursor cursor) {
+        return mockService.getMockResponseByPathAndMethod(cursor.path(paths), "GET");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MockResponse unmatched() {
+        return mockService.getMockResponseByPathAndMethod("/api/benchmark/missing", "GET");
+    }
+}
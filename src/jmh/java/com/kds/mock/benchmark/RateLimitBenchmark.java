@@ -0,0 +1,108 @@
+package com.kds.mock.benchmark;
+
+import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.service.LoadTestService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link LoadTestService#isRateLimitExceeded} from 1 to 64 threads.
+ * <p>
+ * With {@code limit=open} nearly every request is admitted, so every call competes for the
+ * compare-and-set on the limiter; with {@code limit=exhausted} nearly every request is rejected
+ * after a read. {@code sharing=shared} sends every thread to the same endpoint, {@code perThread}
+ * gives each thread its own.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+
+    @Param({"open", "exhausted"})
+    private String limit;
+
+    @Param({"shared", "perThread"})
+    private String sharing;
+
+    private LoadTestService loadTestService;
+    private LoadTestConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoadTestConfig.RateLimitConfig rateLimitConfig = new LoadTestConfig.RateLimitConfig();
+        rateLimitConfig.setEnabled(true);
+        switch (limit) {
+            case "open" -> {
+                rateLimitConfig.setRequestsPerSecond(Integer.MAX_VALUE);
+                rateLimitConfig.setBurstSize(Integer.MAX_VALUE);
+            }
+            case "exhausted" -> {
+                rateLimitConfig.setRequestsPerSecond(1);
+                rateLimitConfig.setBurstSize(1);
+            }
+            default -> throw new IllegalArgumentException("Unknown limit: " + limit);
+        }
+        config = new LoadTestConfig();
+        config.setRateLimitConfig(rateLimitConfig);
+        loadTestService = new LoadTestService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loadTestService.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class Endpoint {
+        String path;
+
+        @Setup(Level.Trial)
+        public void setUp(RateLimitBenchmark benchmark, ThreadParams threadParams) {
+            path = benchmark.sharing.equals("shared")
+                ? "/api/benchmark/limited"
+                : "/api/benchmark/limited-" + threadParams.getThreadIndex();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean threads01(Endpoint endpoint) {
+        return loadTestService.isRateLimitExceeded(endpoint.path, config);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean threads04(Endpoint endpoint) {
+        return loadTestService.isRateLimitExceeded(endpoint.path, config);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean threads16(Endpoint endpoint) {
+        return loadTestService.isRateLimitExceeded(endpoint.path, config);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean threads64(Endpoint endpoint) {
+        return loadTestService.isRateLimitExceeded(endpoint.path, config);
+    }
+}
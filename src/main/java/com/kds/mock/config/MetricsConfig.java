@@ -0,0 +1,22 @@
+package com.kds.mock.config;
+
+import com.kds.mock.metrics.ServingMeters;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Caps the number of distinct endpoint tag values on the mock serving meters. Meters for
+     * endpoints beyond the cap are not published, so a large configuration cannot blow up the
+     * number of series a scraper has to store; the per-endpoint statistics under
+     * {@code /load-test/stats} still cover every endpoint.
+     */
+    @Bean
+    public MeterFilter mockEndpointTagLimit(@Value("${mock.metrics.max-endpoint-tags:500}") int maxEndpointTags) {
+        return MeterFilter.maximumAllowableTags(ServingMeters.METER_PREFIX, "endpoint", maxEndpointTags, MeterFilter.deny());
+    }
+}
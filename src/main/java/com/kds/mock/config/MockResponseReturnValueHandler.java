@@ -0,0 +1,84 @@
+package com.kds.mock.config;
+
+import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.dto.MockResponse;
+import com.kds.mock.throttle.ThrottledBodyWriter;
+import com.kds.mock.throttle.TimerWheel;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link MockResponse} returned by a handler method straight to the servlet response.
+ * <p>
+ * The body is already encoded and the headers are already built when the mock route is compiled,
+ * so this bypasses content negotiation and message conversion: the status and headers are copied
+ * onto the response and the body bytes are written to the output stream as they are.
+ * Handles both responses returned directly and responses completed asynchronously.
+ * <p>
+ * A body with bandwidth throttling is handed to a {@link ThrottledBodyWriter} instead, which streams
+ * it in paced chunks from the shared timer wheel after the headers have been sent. The write time
+ * recorded for such a response covers sending the headers only, as the pacing is a deliberate delay.
+ */
+public class MockResponseReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private final TimerWheel throttleTimerWheel;
+
+    public MockResponseReturnValueHandler(TimerWheel throttleTimerWheel) {
+        this.throttleTimerWheel = throttleTimerWheel;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return MockResponse.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        mavContainer.setRequestHandled(true);
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (response == null || !(returnValue instanceof MockResponse mockResponse)) {
+            return;
+        }
+
+        long writeStartNanos = System.nanoTime();
+        response.setStatus(mockResponse.getStatusCode());
+        HttpHeaders headers = mockResponse.getHeaders();
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                for (String value : header.getValue()) {
+                    response.addHeader(header.getKey(), value);
+                }
+            }
+        }
+
+        byte[] body = mockResponse.getBody();
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        LoadTestConfig.ThrottleConfig throttle = mockResponse.getThrottle();
+        if (body != null && body.length > 0 && throttle != null && request != null && request.isAsyncSupported()) {
+            response.setContentLength(body.length);
+            ThrottledBodyWriter.start(request, response, body, throttle.getBytesPerSecond(), throttle.getChunkSizeBytes(),
+                throttle.getTimeToFirstByteMs() != null ? throttle.getTimeToFirstByteMs() : 0, throttleTimerWheel);
+        } else if (body != null) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        } else if (mockResponse.getStatusCode() != HttpStatus.NOT_MODIFIED.value()
+                && mockResponse.getStatusCode() != HttpStatus.NO_CONTENT.value()) {
+            // 304 and 204 responses never carry a body, nor a Content-Length describing one
+            response.setContentLength(0);
+        }
+
+        if (mockResponse.getServingMeters() != null) {
+            mockResponse.getServingMeters().recordWrite(System.nanoTime() - writeStartNanos);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.kds.mock.config;
+
+import com.kds.mock.throttle.TimerWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    // Ticks per revolution of the throttle timer wheel, longer delays wait out whole revolutions
+    private static final int THROTTLE_WHEEL_BUCKETS = 512;
+
+    @Value("${mock.throttle.tick:10ms}")
+    private Duration throttleTick;
+
+    /**
+     * Paces every throttled response body from one thread, however many are streaming at once
+     */
+    @Bean(destroyMethod = "close")
+    public TimerWheel throttleTimerWheel() {
+        return new TimerWheel("throttle-timer", throttleTick, THROTTLE_WHEEL_BUCKETS);
+    }
+
+    @Override
+    public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
+        handlers.add(new MockResponseReturnValueHandler(throttleTimerWheel()));
+    }
+}
@@ -1,6 +1,10 @@
 package com.kds.mock.controllers;
 
 import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.metrics.EndpointMetrics;
+import com.kds.mock.metrics.LatencyHistogram;
+import com.kds.mock.metrics.RequestMetrics;
+import com.kds.mock.service.LoadTestConfigValidator;
 import com.kds.mock.service.LoadTestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -27,6 +32,7 @@ import java.util.Map;
 public class LoadTestController {
 
     private final LoadTestService loadTestService;
+    private final RequestMetrics requestMetrics;
 
     @Operation(
         summary = "Validate load test configuration",
@@ -227,13 +233,16 @@ public class LoadTestController {
     @Operation(
         summary = "Get load testing statistics",
         description = """
-            Retrieves current load testing statistics and performance metrics.
+            Retrieves request statistics recorded while serving mock endpoints since startup.
             
             **Metrics Included:**
-            - Active rate limit trackers
-            - Current request counts
-            - Performance statistics
-            - Configuration summary
+            - Total, rate limited, timed out and errored request counts
+            - Service time (wall-clock time until the response is ready) in milliseconds
+            - Per endpoint: the same counts, plus injected latency and service time distributions
+              (count, mean, min, max, p50, p90, p99, p99.9 in milliseconds), both over the last
+              minute (`window`) and since startup or the last reset (`total`)
+            
+            Only configured endpoints are tracked; requests to unknown paths are not counted.
             
             **Use Cases:**
             - Monitor load testing performance
@@ -258,8 +267,24 @@ public class LoadTestController {
                             "timeoutRequests": 12,
                             "errorRequests": 63,
                             "averageLatency": 245.5,
-                            "maxLatency": 1200,
-                            "minLatency": 50
+                            "maxLatency": 1200.0,
+                            "minLatency": 50.0,
+                            "endpoints": {
+                                "/api/users": {
+                                    "totalRequests": 1250,
+                                    "rateLimitedRequests": 45,
+                                    "timeoutRequests": 12,
+                                    "errorRequests": 63,
+                                    "injectedLatencyMs": {
+                                        "window": {"count": 310, "mean": 238.7, "min": 50.0, "max": 1150.0, "p50": 199.0, "p90": 420.0, "p99": 1010.0, "p999": 1150.0},
+                                        "total": {"count": 1193, "mean": 240.1, "min": 50.0, "max": 1190.0, "p50": 199.0, "p90": 431.0, "p99": 1020.0, "p999": 1180.0}
+                                    },
+                                    "serviceTimeMs": {
+                                        "window": {"count": 325, "mean": 244.9, "min": 50.2, "max": 1160.0, "p50": 205.0, "p90": 439.0, "p99": 1020.0, "p999": 1160.0},
+                                        "total": {"count": 1250, "mean": 245.5, "min": 50.1, "max": 1200.0, "p50": 207.0, "p90": 447.0, "p99": 1030.0, "p999": 1190.0}
+                                    }
+                                }
+                            }
                         }
                         """
                 )
@@ -268,17 +293,43 @@ public class LoadTestController {
     })
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getLoadTestStats() {
-        Map<String, Object> stats = new HashMap<>();
+        Map<String, EndpointMetrics.Snapshot> snapshots = requestMetrics.snapshot();
+        
+        long totalRequests = 0;
+        long rateLimitedRequests = 0;
+        long timeoutRequests = 0;
+        long errorRequests = 0;
+        long serviceTimeCount = 0;
+        double serviceTimeSum = 0;
+        long maxServiceTime = 0;
+        long minServiceTime = Long.MAX_VALUE;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<String, EndpointMetrics.Snapshot> entry : snapshots.entrySet()) {
+            EndpointMetrics.Snapshot snapshot = entry.getValue();
+            totalRequests += snapshot.totalRequests();
+            rateLimitedRequests += snapshot.rateLimitedRequests();
+            timeoutRequests += snapshot.timeoutRequests();
+            errorRequests += snapshot.errorRequests();
+            LatencyHistogram.Summary serviceTime = snapshot.serviceTime().total();
+            if (serviceTime.count() > 0) {
+                serviceTimeCount += serviceTime.count();
+                serviceTimeSum += serviceTime.mean() * serviceTime.count();
+                maxServiceTime = Math.max(maxServiceTime, serviceTime.max());
+                minServiceTime = Math.min(minServiceTime, serviceTime.min());
+            }
+            endpoints.put(entry.getKey(), toStats(snapshot));
+        }
         
-        // Mock statistics - in a real implementation, these would come from actual metrics
-        stats.put("activeEndpoints", 5);
-        stats.put("totalRequests", 1250);
-        stats.put("rateLimitedRequests", 45);
-        stats.put("timeoutRequests", 12);
-        stats.put("errorRequests", 63);
-        stats.put("averageLatency", 245.5);
-        stats.put("maxLatency", 1200);
-        stats.put("minLatency", 50);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeEndpoints", snapshots.size());
+        stats.put("totalRequests", totalRequests);
+        stats.put("rateLimitedRequests", rateLimitedRequests);
+        stats.put("timeoutRequests", timeoutRequests);
+        stats.put("errorRequests", errorRequests);
+        stats.put("averageLatency", serviceTimeCount > 0 ? toMillis(serviceTimeSum / serviceTimeCount) : 0.0);
+        stats.put("maxLatency", toMillis(maxServiceTime));
+        stats.put("minLatency", serviceTimeCount > 0 ? toMillis(minServiceTime) : 0.0);
+        stats.put("endpoints", endpoints);
         
         return ResponseEntity.ok(stats);
     }
@@ -286,12 +337,20 @@ public class LoadTestController {
     @Operation(
         summary = "Reset load testing state",
         description = """
-            Resets all load testing state including rate limit counters and statistics.
+            Resets load testing state including rate limit counters and statistics, either for all
+            endpoints or, when `path` is given, for a single endpoint.
             
             **What gets reset:**
-            - Rate limit trackers for all endpoints
-            - Request counters
-            - Performance statistics
+            - Rate limit trackers
+            - Seeded request sequences
+            - Request counters and latency histograms
+            
+            State of deleted endpoints is discarded automatically whenever the configuration changes.
+            
+            **Consistency:** the rate limit and sequence state is reset first and the statistics
+            second, each in one step but not together. Requests served while the reset runs may be
+            counted by the fresh rate limiter but land in the discarded statistics, so stop traffic
+            before resetting when `/load-test/stats` must match the new limiter window exactly.
             
             **Use Cases:**
             - Start fresh load testing session
@@ -311,6 +370,7 @@ public class LoadTestController {
                     value = """
                         {
                             "message": "Load testing state reset successfully",
+                            "scope": "all",
                             "resetTimestamp": "2024-01-15T10:30:00Z"
                         }
                         """
@@ -319,181 +379,73 @@ public class LoadTestController {
         )
     })
     @PostMapping("/reset")
-    public ResponseEntity<Map<String, Object>> resetLoadTestState() {
+    public ResponseEntity<Map<String, Object>> resetLoadTestState(
+            @Parameter(
+                description = "Path of the endpoint to reset, all endpoints are reset when omitted",
+                example = "/api/users"
+            )
+            @RequestParam(required = false) String path) {
+        // Each component resets atomically, but not together with the other, see the endpoint description
+        if (path == null || path.isBlank()) {
+            loadTestService.resetState();
+            requestMetrics.reset();
+        } else {
+            loadTestService.resetState(path);
+            requestMetrics.reset(path);
+        }
+        
         Map<String, Object> result = new HashMap<>();
         result.put("message", "Load testing state reset successfully");
+        result.put("scope", path == null || path.isBlank() ? "all" : path);
         result.put("resetTimestamp", java.time.LocalDateTime.now().toString());
         
-        // In a real implementation, this would reset the actual state
-        // loadTestService.resetState();
-        
         return ResponseEntity.ok(result);
     }
 
+    private Map<String, Object> toStats(EndpointMetrics.Snapshot snapshot) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalRequests", snapshot.totalRequests());
+        stats.put("rateLimitedRequests", snapshot.rateLimitedRequests());
+        stats.put("timeoutRequests", snapshot.timeoutRequests());
+        stats.put("errorRequests", snapshot.errorRequests());
+        stats.put("injectedLatencyMs", toStats(snapshot.injectedLatency()));
+        stats.put("serviceTimeMs", toStats(snapshot.serviceTime()));
+        return stats;
+    }
+
+    private Map<String, Object> toStats(LatencyHistogram.Snapshot histogram) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("window", toStats(histogram.window()));
+        stats.put("total", toStats(histogram.total()));
+        return stats;
+    }
+
+    private Map<String, Object> toStats(LatencyHistogram.Summary summary) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", summary.count());
+        stats.put("mean", toMillis(summary.mean()));
+        stats.put("min", toMillis(summary.min()));
+        stats.put("max", toMillis(summary.max()));
+        stats.put("p50", toMillis(summary.p50()));
+        stats.put("p90", toMillis(summary.p90()));
+        stats.put("p99", toMillis(summary.p99()));
+        stats.put("p999", toMillis(summary.p999()));
+        return stats;
+    }
+
+    /**
+     * Converts microseconds to milliseconds, rounded to one decimal place
+     */
+    private static double toMillis(double micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+
     private boolean validateConfiguration(LoadTestConfig config) {
-        if (config == null) return true;
-        
-        try {
-            // Validate latency configuration
-            if (config.getLatencyConfig() != null) {
-                LoadTestConfig.LatencyConfig latency = config.getLatencyConfig();
-                
-                // Check percentile values are in ascending order
-                if (latency.getP50() != null && latency.getP95() != null && latency.getP50() > latency.getP95()) {
-                    return false;
-                }
-                if (latency.getP95() != null && latency.getP99() != null && latency.getP95() > latency.getP99()) {
-                    return false;
-                }
-                if (latency.getP99() != null && latency.getP999() != null && latency.getP99() > latency.getP999()) {
-                    return false;
-                }
-                
-                // Check fixed latency is non-negative
-                if (latency.getFixedLatencyMs() != null && latency.getFixedLatencyMs() < 0) {
-                    return false;
-                }
-                
-                // Check random latency bounds
-                if (latency.getMinLatencyMs() != null && latency.getMaxLatencyMs() != null) {
-                    if (latency.getMinLatencyMs() < 0 || latency.getMaxLatencyMs() < 0 || 
-                        latency.getMinLatencyMs() > latency.getMaxLatencyMs()) {
-                        return false;
-                    }
-                }
-                
-                // Check normal distribution parameters
-                if (latency.getMeanLatencyMs() != null && latency.getStdDeviationMs() != null) {
-                    if (latency.getMeanLatencyMs() < 0 || latency.getStdDeviationMs() < 0) {
-                        return false;
-                    }
-                }
-            }
-            
-            // Validate error configuration
-            if (config.getErrorConfig() != null && config.getErrorConfig().getEnabled()) {
-                Double errorRate = config.getErrorConfig().getErrorRate();
-                if (errorRate != null && (errorRate < 0 || errorRate > 1)) {
-                    return false;
-                }
-            }
-            
-            // Validate timeout configuration
-            if (config.getTimeoutConfig() != null && config.getTimeoutConfig().getEnabled()) {
-                Double timeoutProb = config.getTimeoutConfig().getTimeoutProbability();
-                if (timeoutProb != null && (timeoutProb < 0 || timeoutProb > 1)) {
-                    return false;
-                }
-                
-                Long timeoutMs = config.getTimeoutConfig().getTimeoutMs();
-                if (timeoutMs != null && timeoutMs <= 0) {
-                    return false;
-                }
-            }
-            
-            // Validate rate limit configuration
-            if (config.getRateLimitConfig() != null && config.getRateLimitConfig().getEnabled()) {
-                Integer rps = config.getRateLimitConfig().getRequestsPerSecond();
-                if (rps != null && rps <= 0) {
-                    return false;
-                }
-                
-                Integer burstSize = config.getRateLimitConfig().getBurstSize();
-                if (burstSize != null && burstSize <= 0) {
-                    return false;
-                }
-            }
-            
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return LoadTestConfigValidator.validate(config).isEmpty();
     }
 
     private String[] getValidationErrors(LoadTestConfig config) {
-        if (config == null) return new String[]{};
-        
-        java.util.List<String> errors = new java.util.ArrayList<>();
-        
-        try {
-            // Validate latency configuration
-            if (config.getLatencyConfig() != null) {
-                LoadTestConfig.LatencyConfig latency = config.getLatencyConfig();
-                
-                if (latency.getP50() != null && latency.getP95() != null && latency.getP50() > latency.getP95()) {
-                    errors.add("P50 latency (" + latency.getP50() + ") must be less than or equal to P95 latency (" + latency.getP95() + ")");
-                }
-                if (latency.getP95() != null && latency.getP99() != null && latency.getP95() > latency.getP99()) {
-                    errors.add("P95 latency (" + latency.getP95() + ") must be less than or equal to P99 latency (" + latency.getP99() + ")");
-                }
-                if (latency.getP99() != null && latency.getP999() != null && latency.getP99() > latency.getP999()) {
-                    errors.add("P99 latency (" + latency.getP99() + ") must be less than or equal to P999 latency (" + latency.getP999() + ")");
-                }
-                
-                if (latency.getFixedLatencyMs() != null && latency.getFixedLatencyMs() < 0) {
-                    errors.add("Fixed latency must be non-negative");
-                }
-                
-                if (latency.getMinLatencyMs() != null && latency.getMaxLatencyMs() != null) {
-                    if (latency.getMinLatencyMs() < 0) {
-                        errors.add("Min latency must be non-negative");
-                    }
-                    if (latency.getMaxLatencyMs() < 0) {
-                        errors.add("Max latency must be non-negative");
-                    }
-                    if (latency.getMinLatencyMs() > latency.getMaxLatencyMs()) {
-                        errors.add("Min latency must be less than or equal to max latency");
-                    }
-                }
-                
-                if (latency.getMeanLatencyMs() != null && latency.getStdDeviationMs() != null) {
-                    if (latency.getMeanLatencyMs() < 0) {
-                        errors.add("Mean latency must be non-negative");
-                    }
-                    if (latency.getStdDeviationMs() < 0) {
-                        errors.add("Standard deviation must be non-negative");
-                    }
-                }
-            }
-            
-            // Validate error configuration
-            if (config.getErrorConfig() != null && config.getErrorConfig().getEnabled()) {
-                Double errorRate = config.getErrorConfig().getErrorRate();
-                if (errorRate != null && (errorRate < 0 || errorRate > 1)) {
-                    errors.add("Error rate (" + errorRate + ") must be between 0 and 1");
-                }
-            }
-            
-            // Validate timeout configuration
-            if (config.getTimeoutConfig() != null && config.getTimeoutConfig().getEnabled()) {
-                Double timeoutProb = config.getTimeoutConfig().getTimeoutProbability();
-                if (timeoutProb != null && (timeoutProb < 0 || timeoutProb > 1)) {
-                    errors.add("Timeout probability (" + timeoutProb + ") must be between 0 and 1");
-                }
-                
-                Long timeoutMs = config.getTimeoutConfig().getTimeoutMs();
-                if (timeoutMs != null && timeoutMs <= 0) {
-                    errors.add("Timeout duration must be positive");
-                }
-            }
-            
-            // Validate rate limit configuration
-            if (config.getRateLimitConfig() != null && config.getRateLimitConfig().getEnabled()) {
-                Integer rps = config.getRateLimitConfig().getRequestsPerSecond();
-                if (rps != null && rps <= 0) {
-                    errors.add("Requests per second must be positive");
-                }
-                
-                Integer burstSize = config.getRateLimitConfig().getBurstSize();
-                if (burstSize != null && burstSize <= 0) {
-                    errors.add("Burst size must be positive");
-                }
-            }
-        } catch (Exception e) {
-            errors.add("Validation error: " + e.getMessage());
-        }
-        
-        return errors.toArray(new String[0]);
+        return LoadTestConfigValidator.validate(config).toArray(new String[0]);
     }
 
     private String[] getValidationWarnings(LoadTestConfig config) {
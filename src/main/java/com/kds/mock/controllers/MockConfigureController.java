@@ -45,6 +45,7 @@ public class MockConfigureController {
             
             **Response Format:**
             Returns an array of complete endpoint configurations including headers, response details, and load testing configurations.
+            A path configured for several HTTP methods appears once per method.
             """,
         tags = {"Endpoint Configuration"}
     )
@@ -171,6 +172,8 @@ public class MockConfigureController {
             
             **Important Notes:**
             - Each path can only have one configuration per HTTP method
+            - Saving another method for a configured path adds it to that path, with its own status code and body
+            - The methods of a path share its headers, description and load testing configuration
             - Headers are optional and will be included in all responses
             - The response body can be any valid string content (JSON, XML, plain text, etc.)
             - Load testing configuration is optional but provides realistic simulation
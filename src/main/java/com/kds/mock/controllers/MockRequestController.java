@@ -1,7 +1,9 @@
 package com.kds.mock.controllers;
 
 import com.kds.mock.dto.MockResponse;
+import com.kds.mock.route.RequestView;
 import com.kds.mock.service.MockService;
+import com.kds.mock.service.RecordingProxyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,12 +14,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
 
-@RestController
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// A plain @Controller so the returned MockResponse is written by MockResponseReturnValueHandler
+// rather than serialized by a message converter
+@Controller
 @RequestMapping("/api")
 @RequiredArgsConstructor
 @Tag(
@@ -26,7 +41,25 @@ import org.springframework.web.bind.annotation.RestController;
 )
 public class MockRequestController {
 
+    private static final MockResponse NOT_CONFIGURED = new MockResponse(
+        HttpStatus.NOT_FOUND.value(),
+        HttpHeaders.readOnlyHttpHeaders(textPlainHeaders()),
+        "Mock endpoint not configured."
+    );
+
+    private static final List<String> NOT_MODIFIED_HEADERS = List.of(
+        HttpHeaders.ETAG, HttpHeaders.VARY, HttpHeaders.CACHE_CONTROL, HttpHeaders.EXPIRES, HttpHeaders.CONTENT_LOCATION
+    );
+
     private final MockService mockEndpointService;
+    private final RecordingProxyService recordingProxyService;
+
+    /**
+     * When enabled, simulated delays are served asynchronously: the request thread is released
+     * and the response is completed by a timer, so delayed responses do not hold Tomcat workers.
+     */
+    @Value("${mock.serving.async-enabled:false}")
+    private boolean asyncEnabled;
 
     @Operation(
         summary = "Handle mock API requests",
@@ -42,6 +75,12 @@ public class MockRequestController {
             - The actual endpoint paths are determined by your mock configurations
             - Each configured endpoint will respond according to its specific configuration
             - Supports all HTTP methods (GET, POST, PUT, DELETE, etc.)
+            - Responses with a body carry a strong ETag; a matching `If-None-Match` on GET or HEAD is answered with 304 Not Modified
+            - Large bodies are compressed once when configured and sent gzip-encoded to clients that accept it
+            - With `mock.serving.async-enabled=true`, simulated latency and timeouts are served
+              asynchronously and do not occupy a server thread while the response is delayed
+            - With `mock.proxy.mode=RECORD`, requests that match no endpoint are forwarded to
+              `mock.proxy.upstream-url` and the upstream's response is recorded as a new endpoint
             
             **Examples:**
             - `GET /api/users` - Returns configured user data
@@ -257,7 +296,7 @@ public class MockRequestController {
         )
     })
     @RequestMapping(value = "/**")
-    public ResponseEntity<?> handleMockRequest(
+    public Object handleMockRequest(
             @Parameter(
                 description = """
                     HTTP request containing:
@@ -271,13 +310,207 @@ public class MockRequestController {
                 hidden = true // Hide from Swagger as it's automatically handled
             )
             HttpServletRequest request) {
-        MockResponse response = mockEndpointService.getMockResponseByPathAndMethod(request.getRequestURI(), request.getMethod());
+        boolean acceptsGzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // Conditional requests only apply to safe methods
+        String ifNoneMatch = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())
+            ? request.getHeader(HttpHeaders.IF_NONE_MATCH)
+            : null;
+        ServletRequestView requestView = new ServletRequestView(request);
+        if (!asyncEnabled) {
+            MockResponse response = mockEndpointService.getMockResponseByPathAndMethod(request.getRequestURI(), request.getMethod(), requestView);
+            if (response == null && recordingProxyService.isRecording()) {
+                return forward(request, requestView).thenApply(forwarded -> prepare(forwarded, acceptsGzip, ifNoneMatch));
+            }
+            return prepare(response, acceptsGzip, ifNoneMatch);
+        }
+
+        CompletableFuture<MockResponse> response = mockEndpointService.getMockResponseByPathAndMethodAsync(request.getRequestURI(), request.getMethod(), requestView);
+        if (recordingProxyService.isRecording()) {
+            response = response.thenCompose(mockResponse -> mockResponse != null
+                ? CompletableFuture.completedFuture(mockResponse)
+                : forward(request, requestView));
+        }
+        if (response.isDone()) {
+            // Nothing to wait for, answer directly instead of going through an async dispatch
+            return prepare(response.join(), acceptsGzip, ifNoneMatch);
+        }
+        return response.thenApply(mockResponse -> prepare(mockResponse, acceptsGzip, ifNoneMatch));
+    }
+
+    /**
+     * Forwards a request no endpoint is configured for to the recording proxy's upstream
+     */
+    private CompletableFuture<MockResponse> forward(HttpServletRequest request, ServletRequestView requestView) {
+        HttpHeaders headers = new HttpHeaders();
+        Enumeration<String> names = request.getHeaderNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            headers.addAll(name, Collections.list(request.getHeaders(name)));
+        }
+        return recordingProxyService.forward(request.getMethod(), request.getRequestURI(), request.getQueryString(),
+            headers, requestView.body());
+    }
+
+    private MockResponse prepare(MockResponse response, boolean acceptsGzip, String ifNoneMatch) {
         if (response == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Mock endpoint not configured.");
+            return NOT_CONFIGURED;
+        }
+        if (acceptsGzip) {
+            response.useGzipVariant();
         }
-        return ResponseEntity
-                .status(response.getStatusCode())
-                .headers(response.getHeaders())
-                .body(response.getBody());
+        if (ifNoneMatch != null && isNotModified(response, ifNoneMatch)) {
+            return notModified(response);
+        }
+        return response;
+    }
+
+    private boolean isNotModified(MockResponse response, String ifNoneMatch) {
+        if (response.getStatusCode() < 200 || response.getStatusCode() >= 300 || response.getHeaders() == null) {
+            return false;
+        }
+        String entityTag = response.getHeaders().getETag();
+        return entityTag != null && matchesIfNoneMatch(ifNoneMatch, entityTag);
+    }
+
+    /**
+     * A bodiless 304 carrying the headers a cache needs to refresh its stored response
+     */
+    private MockResponse notModified(MockResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : NOT_MODIFIED_HEADERS) {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.addAll(name, values);
+            }
+        }
+        MockResponse notModified = new MockResponse(HttpStatus.NOT_MODIFIED.value(), headers, (byte[]) null);
+        notModified.setServingMeters(response.getServingMeters());
+        return notModified;
+    }
+
+    /**
+     * Whether an If-None-Match header matches the entity tag, using the weak comparison RFC 9110 prescribes for it
+     */
+    static boolean matchesIfNoneMatch(String ifNoneMatch, String entityTag) {
+        String condition = ifNoneMatch.trim();
+        if (condition.equals("*")) {
+            return true;
+        }
+        String opaqueTag = withoutWeakPrefix(entityTag);
+        for (String candidate : condition.split(",")) {
+            if (withoutWeakPrefix(candidate.trim()).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String withoutWeakPrefix(String entityTag) {
+        return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows a gzip response, honouring q-values and the {@code *} wildcard
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    /**
+     * Exposes the servlet request to response variant matchers, reading each part only when a
+     * matcher asks for it. Query parameters are decoded from the query string rather than through
+     * {@code getParameter}, which would consume a form-encoded body.
+     */
+    private static final class ServletRequestView implements RequestView {
+
+        private final HttpServletRequest request;
+        private Map<String, String> queryParameters;
+        private byte[] body;
+
+        private ServletRequestView(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public String header(String name) {
+            return request.getHeader(name);
+        }
+
+        @Override
+        public String queryParameter(String name) {
+            if (queryParameters == null) {
+                queryParameters = parseQueryString(request.getQueryString());
+            }
+            return queryParameters.get(name);
+        }
+
+        @Override
+        public byte[] body() {
+            if (body == null) {
+                try {
+                    body = request.getInputStream().readAllBytes();
+                } catch (IOException e) {
+                    body = new byte[0];
+                }
+            }
+            return body;
+        }
+
+        private static Map<String, String> parseQueryString(String queryString) {
+            if (queryString == null || queryString.isEmpty()) {
+                return Map.of();
+            }
+            Map<String, String> parameters = new HashMap<>();
+            for (String pair : queryString.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int separator = pair.indexOf('=');
+                String name = separator < 0 ? pair : pair.substring(0, separator);
+                String value = separator < 0 ? "" : pair.substring(separator + 1);
+                try {
+                    parameters.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+                } catch (IllegalArgumentException e) {
+                    // A malformed escape cannot be matched, skip the parameter
+                }
+            }
+            return parameters;
+        }
+    }
+
+    private static HttpHeaders textPlainHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, "text/plain;charset=UTF-8");
+        return headers;
     }
 }
@@ -1,12 +1,18 @@
 package com.kds.mock.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kds.mock.latency.InverseCdfSampler;
+import com.kds.mock.latency.LatencySampler;
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import jakarta.validation.constraints.*;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Getter
 @Setter
@@ -42,6 +48,12 @@ import java.util.Map;
                 "requestsPerSecond": 100,
                 "burstSize": 10,
                 "rateLimitStatusCode": 429
+            },
+            "throttleConfig": {
+                "enabled": false,
+                "bytesPerSecond": 2048,
+                "chunkSizeBytes": 512,
+                "timeToFirstByteMs": 300
             }
         }
         """
@@ -103,6 +115,27 @@ public class LoadTestConfig {
             """
     )
     private RateLimitConfig rateLimitConfig;
+    
+    @Schema(
+        description = "Bandwidth throttling for simulating slow networks: the response body is streamed in paced chunks",
+        example = """
+            {
+                "enabled": true,
+                "bytesPerSecond": 2048,
+                "chunkSizeBytes": 512,
+                "timeToFirstByteMs": 300
+            }
+            """
+    )
+    private ThrottleConfig throttleConfig;
+
+    @Schema(
+        description = "Optional seed for the fault injection decisions of this endpoint. When set, the n-th request " +
+                      "to the endpoint always gets the same timeout, error and latency outcome, so a fault pattern " +
+                      "can be reproduced between test runs",
+        example = "42"
+    )
+    private Long seed;
 
     @Getter
     @Setter
@@ -113,9 +146,11 @@ public class LoadTestConfig {
         @Schema(
             description = "Type of latency simulation",
             example = "PERCENTILE",
-            allowableValues = {"FIXED", "PERCENTILE", "RANDOM", "NORMAL_DISTRIBUTION"}
+            allowableValues = {"FIXED", "PERCENTILE", "RANDOM", "NORMAL_DISTRIBUTION", "HISTOGRAM",
+                               "LOG_NORMAL", "PARETO", "EXPONENTIAL", "GAMMA"}
         )
-        @Pattern(regexp = "^(FIXED|PERCENTILE|RANDOM|NORMAL_DISTRIBUTION)$", message = "Invalid latency type")
+        @Pattern(regexp = "^(FIXED|PERCENTILE|RANDOM|NORMAL_DISTRIBUTION|HISTOGRAM|LOG_NORMAL|PARETO|EXPONENTIAL|GAMMA)$",
+                 message = "Invalid latency type")
         private String type = "FIXED";
         
         @Schema(description = "Fixed latency in milliseconds (used when type is FIXED)", example = "200")
@@ -138,21 +173,178 @@ public class LoadTestConfig {
         @Min(value = 0, message = "P999 latency must be non-negative")
         private Long p999;
         
-        @Schema(description = "Minimum latency for random distribution", example = "50")
+        @Schema(description = "Minimum latency for random distribution, and scale of the PARETO distribution", example = "50")
         @Min(value = 0, message = "Min latency must be non-negative")
         private Long minLatencyMs;
         
-        @Schema(description = "Maximum latency for random distribution", example = "1000")
+        @Schema(
+            description = "Maximum latency for random distribution, and hard cap on the latency drawn from the " +
+                          "HISTOGRAM, LOG_NORMAL, PARETO, EXPONENTIAL and GAMMA distributions (60000 if not set)",
+            example = "1000"
+        )
         @Min(value = 0, message = "Max latency must be non-negative")
         private Long maxLatencyMs;
         
-        @Schema(description = "Mean latency for normal distribution", example = "200")
+        @Schema(description = "Mean latency for the normal, LOG_NORMAL, EXPONENTIAL and GAMMA distributions", example = "200")
         @Min(value = 0, message = "Mean latency must be non-negative")
         private Double meanLatencyMs;
         
-        @Schema(description = "Standard deviation for normal distribution", example = "50.0")
+        @Schema(description = "Standard deviation for the normal and LOG_NORMAL distributions", example = "50.0")
         @Min(value = 0, message = "Standard deviation must be non-negative")
         private Double stdDeviationMs;
+
+        @Schema(
+            description = "Shape of the PARETO distribution, its tail index, and of the GAMMA distribution (2.0 if not set). " +
+                          "Smaller values give heavier tails",
+            example = "2.0"
+        )
+        @DecimalMin(value = "0.0", inclusive = false, message = "Shape must be positive")
+        private Double shape;
+
+        @Schema(
+            description = "How PERCENTILE latency moves between the configured percentiles: STEP returns exactly the " +
+                          "next configured percentile, LINEAR and LOG_LINEAR interpolate between them, starting at " +
+                          "minLatencyMs (or 0) and ending at maxLatencyMs (or the highest configured percentile)",
+            example = "LOG_LINEAR",
+            allowableValues = {"STEP", "LINEAR", "LOG_LINEAR"}
+        )
+        @Pattern(regexp = "^(STEP|LINEAR|LOG_LINEAR)$", message = "Invalid percentile interpolation")
+        private String percentileInterpolation = "STEP";
+
+        @Schema(
+            description = "Observed latencies as a base64 encoded, compressed HdrHistogram, as found in HdrHistogram " +
+                          "log files (used when type is HISTOGRAM)",
+            example = "HISTFAAAACZ4nJNpmSzMwMDAyQABTFCaEUr9t/8AYYl38LluYfzNLAIAcV4GOw=="
+        )
+        private String histogram;
+
+        @Schema(
+            description = "Unit the values of the histogram were recorded in",
+            example = "MILLISECONDS",
+            allowableValues = {"NANOSECONDS", "MICROSECONDS", "MILLISECONDS"}
+        )
+        @Pattern(regexp = "^(NANOSECONDS|MICROSECONDS|MILLISECONDS)$", message = "Invalid histogram unit")
+        private String histogramUnit = "MILLISECONDS";
+
+        @Schema(
+            description = "Observed latencies in milliseconds, one per line, optionally followed by a comma and the " +
+                          "number of times they were observed (used when type is HISTOGRAM without a histogram)",
+            example = "12,900\n48,90\n350,10"
+        )
+        private String histogramCsv;
+
+        // Precomputed from the fields it is built from on first use, see sampler()
+        @JsonIgnore
+        @Getter(AccessLevel.NONE)
+        @Setter(AccessLevel.NONE)
+        private volatile LatencySampler sampler;
+
+        /**
+         * Returns the sampler precomputed from this configuration for latency types that draw from a
+         * table, building it on first use so every later request only draws from it. Null for the
+         * types that are calculated directly.
+         *
+         * @throws IllegalArgumentException if the configured distribution cannot be read
+         */
+        public LatencySampler sampler() {
+            LatencySampler current = sampler;
+            if (current == null && "HISTOGRAM".equals(type)) {
+                current = histogram != null
+                    ? InverseCdfSampler.fromEncodedHistogram(histogram,
+                        histogramUnit != null ? TimeUnit.valueOf(histogramUnit) : TimeUnit.MILLISECONDS)
+                    : InverseCdfSampler.fromCsv(histogramCsv);
+                sampler = current;
+            } else if (current == null && "PERCENTILE".equals(type) && isInterpolated()) {
+                current = interpolatedPercentiles();
+                sampler = current;
+            }
+            return current;
+        }
+
+        private boolean isInterpolated() {
+            return "LINEAR".equals(percentileInterpolation) || "LOG_LINEAR".equals(percentileInterpolation);
+        }
+
+        /**
+         * Inverse CDF through the configured percentiles, from the minimum latency at probability 0 to the
+         * maximum latency at probability 1. Null if no percentile is configured.
+         */
+        private LatencySampler interpolatedPercentiles() {
+            Long[] latencies = {p50, p95, p99, p999};
+            double[] percentiles = {0.5, 0.95, 0.99, 0.999};
+            double[] probabilities = new double[latencies.length + 2];
+            double[] latenciesMs = new double[latencies.length + 2];
+            latenciesMs[0] = minLatencyMs != null ? minLatencyMs : 0;
+            int points = 1;
+            for (int i = 0; i < latencies.length; i++) {
+                if (latencies[i] != null) {
+                    probabilities[points] = percentiles[i];
+                    latenciesMs[points++] = latencies[i];
+                }
+            }
+            if (points == 1) {
+                return null;
+            }
+            probabilities[points] = 1;
+            latenciesMs[points] = maxLatencyMs != null ? maxLatencyMs : latenciesMs[points - 1];
+            return InverseCdfSampler.fromPoints(Arrays.copyOf(probabilities, points + 1),
+                Arrays.copyOf(latenciesMs, points + 1), "LOG_LINEAR".equals(percentileInterpolation));
+        }
+
+        public void setType(String type) {
+            this.type = type;
+            this.sampler = null;
+        }
+
+        public void setP50(Long p50) {
+            this.p50 = p50;
+            this.sampler = null;
+        }
+
+        public void setP95(Long p95) {
+            this.p95 = p95;
+            this.sampler = null;
+        }
+
+        public void setP99(Long p99) {
+            this.p99 = p99;
+            this.sampler = null;
+        }
+
+        public void setP999(Long p999) {
+            this.p999 = p999;
+            this.sampler = null;
+        }
+
+        public void setMinLatencyMs(Long minLatencyMs) {
+            this.minLatencyMs = minLatencyMs;
+            this.sampler = null;
+        }
+
+        public void setMaxLatencyMs(Long maxLatencyMs) {
+            this.maxLatencyMs = maxLatencyMs;
+            this.sampler = null;
+        }
+
+        public void setPercentileInterpolation(String percentileInterpolation) {
+            this.percentileInterpolation = percentileInterpolation;
+            this.sampler = null;
+        }
+
+        public void setHistogram(String histogram) {
+            this.histogram = histogram;
+            this.sampler = null;
+        }
+
+        public void setHistogramUnit(String histogramUnit) {
+            this.histogramUnit = histogramUnit;
+            this.sampler = null;
+        }
+
+        public void setHistogramCsv(String histogramCsv) {
+            this.histogramCsv = histogramCsv;
+            this.sampler = null;
+        }
     }
 
     @Getter
@@ -217,4 +409,26 @@ public class LoadTestConfig {
         @Max(value = 599, message = "Rate limit status code must be 4xx or 5xx")
         private Integer rateLimitStatusCode = 429;
     }
-} 
\ No newline at end of file
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @Schema(description = "Bandwidth throttling settings")
+    public static class ThrottleConfig {
+
+        @Schema(description = "Whether the response body is streamed at a throttled rate", example = "true")
+        private Boolean enabled = false;
+
+        @Schema(description = "Bandwidth the body is streamed at, in bytes per second", example = "2048")
+        @Min(value = 1, message = "Bytes per second must be at least 1")
+        private Long bytesPerSecond = 8192L;
+
+        @Schema(description = "Size of the chunks the body is written in", example = "512")
+        @Min(value = 1, message = "Chunk size must be at least 1 byte")
+        private Integer chunkSizeBytes = 1024;
+
+        @Schema(description = "Delay between sending the status and headers and the first chunk of the body", example = "300")
+        @Min(value = 0, message = "Time to first byte must be non-negative")
+        private Long timeToFirstByteMs = 0L;
+    }
+}
@@ -8,6 +8,7 @@ import lombok.Setter;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
+import java.util.List;
 import java.util.Map;
 
 @Getter
@@ -33,7 +34,8 @@ import java.util.Map;
 public class MockEndpointRequest {
 
     @Schema(
-        description = "The URL path for the mock endpoint",
+        description = "The URL path for the mock endpoint. May be a template: {name} matches any single segment " +
+                      "and a trailing ** matches the rest of the path, e.g. /api/users/{id} or /api/files/**",
         example = "/api/users",
         requiredMode = Schema.RequiredMode.REQUIRED
     )
@@ -54,7 +56,7 @@ public class MockEndpointRequest {
     private String method;
 
     @Schema(
-        description = "HTTP status code to return",
+        description = "HTTP status code to return for this method",
         example = "200",
         minimum = "100",
         maximum = "599",
@@ -124,6 +126,23 @@ public class MockEndpointRequest {
     @Valid
     private LoadTestConfig loadTestConfig;
 
+    @Schema(
+        description = "Responses served instead of the default body when the request meets all of their matchers. " +
+                      "Variants are tried in the order given and the first one that matches is served",
+        example = """
+            [
+                {
+                    "matchers": [{"source": "HEADER", "name": "X-Tenant", "equalTo": "acme"}],
+                    "body": "{\\"users\\": []}",
+                    "contentType": "application/json"
+                }
+            ]
+            """
+    )
+    @Size(max = 50, message = "Cannot have more than 50 response variants")
+    @Valid
+    private List<ResponseVariant> variants;
+
     /**
      * Custom validation method to ensure content type matches the body format
      */
@@ -81,6 +81,11 @@ public class MockEndpointResponse {
     )
     private LoadTestConfig loadTestConfig;
 
+    @Schema(
+        description = "Response variants of the method, in the order they are tried"
+    )
+    private List<ResponseVariant> variants;
+
     public MockEndpointResponse(Endpoints endpoints, List<Headers> headers, Responses responses) {
         this.endpoints = endpoints;
         this.headers = headers;
@@ -1,11 +1,14 @@
 package com.kds.mock.dto;
 
+import com.kds.mock.metrics.ServingMeters;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.http.HttpHeaders;
 
+import java.nio.charset.StandardCharsets;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,12 +24,53 @@ public class MockResponse {
     @Schema(description = "HTTP headers to include in the response")
     private HttpHeaders headers;
     
-    @Schema(description = "Response body content", example = "{\"message\": \"Hello World\"}")
-    private String body;
+    @Schema(description = "Response body, already encoded as UTF-8", example = "{\"message\": \"Hello World\"}")
+    private byte[] body;
+
+    @Schema(description = "Gzip-compressed body, sent instead of the body to clients that accept gzip")
+    private byte[] gzipBody;
+
+    @Schema(description = "HTTP headers to send with the gzip-compressed body")
+    private HttpHeaders gzipHeaders;
+
+    @Schema(description = "Simulated delay in milliseconds to apply before the response is sent", example = "200")
+    private long delayMs;
+
+    @Schema(description = "Bandwidth throttling to stream the body with after the delay, null to write it at once")
+    private LoadTestConfig.ThrottleConfig throttle;
+
+    @Schema(hidden = true)
+    private ServingMeters servingMeters;
 
     public MockResponse(int statusCode, HttpHeaders headers, String body) {
+        this(statusCode, headers, body != null ? body.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Creates a response around an already encoded body. The array is written as is and is not copied.
+     */
+    public MockResponse(int statusCode, HttpHeaders headers, byte[] body) {
         this.statusCode = statusCode;
         this.headers = headers;
         this.body = body;
     }
+
+    /**
+     * Switches this response to its gzip variant, if it has one
+     */
+    public void useGzipVariant() {
+        if (gzipBody != null) {
+            body = gzipBody;
+            headers = gzipHeaders;
+            gzipBody = null;
+            gzipHeaders = null;
+        }
+    }
+
+    /**
+     * Decodes the body, for logging and tests; the serving path writes {@link #getBody()} directly
+     */
+    public String getBodyAsString() {
+        return body != null ? new String(body, StandardCharsets.UTF_8) : null;
+    }
 }
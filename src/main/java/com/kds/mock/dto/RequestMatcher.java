@@ -0,0 +1,58 @@
+package com.kds.mock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+    description = "A condition on the incoming request that a response variant requires",
+    example = """
+        {
+            "source": "HEADER",
+            "name": "X-Tenant",
+            "equalTo": "acme"
+        }
+        """
+)
+public class RequestMatcher {
+
+    @Schema(
+        description = "Part of the request to inspect: a header, a query parameter or a field of the JSON body",
+        example = "HEADER",
+        allowableValues = {"HEADER", "QUERY", "BODY"}
+    )
+    @NotBlank(message = "Matcher source is required")
+    @Pattern(regexp = "^(HEADER|QUERY|BODY)$", message = "Matcher source must be HEADER, QUERY or BODY")
+    private String source;
+
+    @Schema(
+        description = "Header name, query parameter name, or for BODY a JSONPath such as $.customer.tier or $.items[0].sku",
+        example = "X-Tenant"
+    )
+    @NotBlank(message = "Matcher name is required")
+    @Size(max = 255, message = "Matcher name cannot exceed 255 characters")
+    private String name;
+
+    @Schema(description = "Value the request value must be equal to", example = "acme")
+    @Size(max = 1000, message = "Matcher value cannot exceed 1000 characters")
+    private String equalTo;
+
+    @Schema(description = "Regular expression the whole request value must match", example = "^acme-.*$")
+    @Size(max = 1000, message = "Matcher pattern cannot exceed 1000 characters")
+    private String matches;
+
+    @AssertTrue(message = "Exactly one of equalTo and matches must be set")
+    private boolean isExactlyOneConditionSet() {
+        return (equalTo != null) != (matches != null);
+    }
+}
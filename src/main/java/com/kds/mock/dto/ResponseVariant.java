@@ -0,0 +1,45 @@
+package com.kds.mock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+    description = "A response served instead of the default one when the request meets all of its matchers",
+    example = """
+        {
+            "matchers": [
+                {"source": "HEADER", "name": "X-Tenant", "equalTo": "acme"},
+                {"source": "BODY", "name": "$.customer.tier", "matches": "^(gold|platinum)$"}
+            ],
+            "body": "{\\"discount\\": 20}",
+            "contentType": "application/json"
+        }
+        """
+)
+public class ResponseVariant {
+
+    @Schema(description = "Conditions the request must all meet for this variant to be served")
+    @NotEmpty(message = "A response variant needs at least one matcher")
+    @Size(max = 20, message = "Cannot have more than 20 matchers per variant")
+    @Valid
+    private List<RequestMatcher> matchers;
+
+    @Schema(description = "Response body content", example = "{\"discount\": 20}")
+    @Size(max = 65535, message = "Response body cannot exceed 65535 characters")
+    private String body;
+
+    @Schema(description = "Content type of the response body", example = "application/json")
+    private String contentType;
+}
@@ -8,6 +8,7 @@ import lombok.Setter;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
+import java.util.List;
 import java.util.Map;
 
 @Getter
@@ -31,7 +32,7 @@ import java.util.Map;
 public class UpdateMockEndpointRequest {
 
     @Schema(
-        description = "HTTP status code to return",
+        description = "HTTP status code to return for this method",
         example = "200",
         minimum = "100",
         maximum = "599"
@@ -99,6 +100,23 @@ public class UpdateMockEndpointRequest {
     @Valid
     private LoadTestConfig loadTestConfig;
 
+    @Schema(
+        description = "Responses served instead of the default body when the request meets all of their matchers. " +
+                      "Variants are tried in the order given and the first one that matches is served",
+        example = """
+            [
+                {
+                    "matchers": [{"source": "HEADER", "name": "X-Tenant", "equalTo": "acme"}],
+                    "body": "{\\"users\\": []}",
+                    "contentType": "application/json"
+                }
+            ]
+            """
+    )
+    @Size(max = 50, message = "Cannot have more than 50 response variants")
+    @Valid
+    private List<ResponseVariant> variants;
+
     /**
      * Custom validation method to ensure content type matches the body format
      */
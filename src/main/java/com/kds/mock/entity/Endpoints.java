@@ -25,9 +25,9 @@ public class Endpoints extends BaseEntity {
     private String path;
 
     /**
-     * should have values from HTTPStatus.value()
+     * should have values from HTTPStatus.value(), used by responses stored without their own status code
      */
-    @Schema(description = "HTTP status code to return", example = "200")
+    @Schema(description = "Default HTTP status code for methods without their own", example = "200")
     private int statusCode;
 
     @Schema(description = "Description of the endpoint", example = "Mock users endpoint")
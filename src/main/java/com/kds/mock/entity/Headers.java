@@ -5,8 +5,10 @@ import com.kds.mock.entity.base.BaseEntity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -15,6 +17,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_headers_endpoint", columnList = "endpoints_id"))
 @Schema(description = "HTTP header configuration for mock endpoints")
 public class Headers extends BaseEntity {
 
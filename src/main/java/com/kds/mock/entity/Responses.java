@@ -1,6 +1,7 @@
 package com.kds.mock.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.kds.mock.entity.base.BaseEntity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
@@ -12,6 +13,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_responses_endpoint_method", columnList = "endpoints_id, method"))
 @Schema(description = "Response configuration for mock endpoints")
 public class Responses extends BaseEntity {
 
@@ -24,6 +26,12 @@ public class Responses extends BaseEntity {
     @Schema(description = "HTTP method", example = "GET")
     private String method;
 
+    /**
+     * should have values from HTTPStatus.value(), null to use the status code of the endpoint
+     */
+    @Schema(description = "HTTP status code to return for this method", example = "200")
+    private Integer statusCode;
+
     @Schema(description = "Content type of the response", example = "application/json")
     private String contentType;
 
@@ -31,10 +39,28 @@ public class Responses extends BaseEntity {
     @Schema(description = "Response body content", example = "{\"message\": \"Hello World\"}")
     private String body;
 
+    @Column(columnDefinition = "TEXT")
+    @Schema(description = "Request matchers of a response variant (JSON format), null for the default response of a method")
+    @JsonIgnore
+    private String matchers;
+
     public Responses(Endpoints endpoints, String method, String contentType, String body) {
         this.endpoints = endpoints;
         this.method = method;
         this.contentType = contentType;
         this.body = body;
     }
+
+    public Responses(Endpoints endpoints, String method, Integer statusCode, String contentType, String body) {
+        this(endpoints, method, contentType, body);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Returns true if this is a response variant, served only to requests that meet its matchers
+     */
+    @JsonIgnore
+    public boolean isVariant() {
+        return matchers != null;
+    }
 }
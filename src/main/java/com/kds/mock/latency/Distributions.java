@@ -0,0 +1,72 @@
+package com.kds.mock.latency;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Right-skewed distributions to draw latencies from. Every sampler works on primitives only and
+ * allocates nothing, so drawing from them adds no garbage on the request path.
+ */
+public final class Distributions {
+
+    private Distributions() {
+    }
+
+    /**
+     * Draws from the log-normal distribution with the given mean and standard deviation of the
+     * drawn values themselves, rather than of their logarithm
+     */
+    public static double logNormal(RandomGenerator random, double mean, double stdDeviation) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double variance = Math.log1p((stdDeviation * stdDeviation) / (mean * mean));
+        double mu = Math.log(mean) - variance / 2;
+        return Math.exp(mu + Math.sqrt(variance) * random.nextGaussian());
+    }
+
+    /**
+     * Draws from the Pareto distribution with the given minimum value and tail index by inversion.
+     * The smaller the tail index, the heavier the tail: at 2 or below the variance is infinite, and at
+     * 1 or below so is the mean.
+     */
+    public static double pareto(RandomGenerator random, double scale, double shape) {
+        // 1 - u is in (0, 1], so the power is always finite
+        return scale / Math.pow(1 - random.nextDouble(), 1 / shape);
+    }
+
+    /**
+     * Draws from the exponential distribution with the given mean
+     */
+    public static double exponential(RandomGenerator random, double mean) {
+        return mean * random.nextExponential();
+    }
+
+    /**
+     * Draws from the gamma distribution with the given shape and scale, whose mean is their product,
+     * with the method of Marsaglia and Tsang. Shapes below 1 draw with shape + 1 and scale the result
+     * down by {@code u^(1/shape)}.
+     */
+    public static double gamma(RandomGenerator random, double shape, double scale) {
+        if (shape < 1) {
+            return gamma(random, shape + 1, scale) * Math.pow(random.nextDouble(), 1 / shape);
+        }
+        double d = shape - 1.0 / 3;
+        double c = 1 / Math.sqrt(9 * d);
+        // Accepts about 98% of candidates at shape 1 and more above
+        while (true) {
+            double x;
+            double v;
+            do {
+                x = random.nextGaussian();
+                v = 1 + c * x;
+            } while (v <= 0);
+            v = v * v * v;
+            double u = random.nextDouble();
+            double xSquared = x * x;
+            if (u < 1 - 0.0331 * xSquared * xSquared
+                    || Math.log(u) < 0.5 * xSquared + d * (1 - v + Math.log(v))) {
+                return d * v * scale;
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.kds.mock.latency;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.zip.DataFormatException;
+
+/**
+ * Draws latencies from an observed or described distribution through its inverse cumulative distribution
+ * function.
+ * <p>
+ * The inverse CDF is tabulated once, at {@link #RESOLUTION} + 1 evenly spaced probabilities from 0 to 1,
+ * and interpolated linearly between neighbouring entries. Drawing a latency takes one random number and
+ * one table lookup, however many observations the distribution was built from, and reproduces its shape
+ * down to steps of 1/{@value #RESOLUTION}, which keeps several modes and the tail up to p99.9 apart.
+ */
+public final class InverseCdfSampler implements LatencySampler {
+
+    static final int RESOLUTION = 4096;
+
+    // Observed values in CSV input are recorded in microseconds, so fractions of a millisecond are kept
+    private static final int CSV_VALUES_PER_MS = 1000;
+    private static final int CSV_SIGNIFICANT_DIGITS = 3;
+
+    // Latency in milliseconds at probability i / RESOLUTION
+    private final double[] quantilesMs;
+
+    private InverseCdfSampler(double[] quantilesMs) {
+        this.quantilesMs = quantilesMs;
+    }
+
+    /**
+     * Builds a sampler from a histogram whose values are recorded in units of {@code 1 / valuesPerMs} milliseconds
+     *
+     * @throws IllegalArgumentException if the histogram is empty
+     */
+    public static InverseCdfSampler fromHistogram(AbstractHistogram histogram, double valuesPerMs) {
+        long totalCount = histogram.getTotalCount();
+        if (totalCount == 0) {
+            throw new IllegalArgumentException("Latency histogram contains no values");
+        }
+        double[] quantilesMs = new double[RESOLUTION + 1];
+        int index = 0;
+        long cumulativeCount = 0;
+        double valueMs = 0;
+        // One pass over the recorded buckets: each probability maps to the bucket its rank falls into
+        for (HistogramIterationValue bucket : histogram.recordedValues()) {
+            cumulativeCount += bucket.getCountAtValueIteratedTo();
+            valueMs = histogram.medianEquivalentValue(bucket.getValueIteratedTo()) / valuesPerMs;
+            while (index <= RESOLUTION && (double) index * totalCount / RESOLUTION <= cumulativeCount) {
+                quantilesMs[index++] = valueMs;
+            }
+        }
+        while (index <= RESOLUTION) {
+            quantilesMs[index++] = valueMs;
+        }
+        return new InverseCdfSampler(quantilesMs);
+    }
+
+    /**
+     * Builds a sampler from a base64 encoded, compressed HdrHistogram, the form histograms take in
+     * HdrHistogram log files and that {@link AbstractHistogram#encodeIntoCompressedByteBuffer} produces
+     *
+     * @param unit the unit the histogram's values were recorded in, milliseconds or finer
+     * @throws IllegalArgumentException if the unit is coarser than milliseconds, or the histogram cannot
+     *                                  be decoded or is empty
+     */
+    public static InverseCdfSampler fromEncodedHistogram(String encoded, TimeUnit unit) {
+        if (encoded == null || encoded.isBlank()) {
+            throw new IllegalArgumentException("Latency histogram is empty");
+        }
+        long valuesPerMs = unit.convert(1, TimeUnit.MILLISECONDS);
+        if (valuesPerMs < 1) {
+            throw new IllegalArgumentException("Latency histogram unit must be NANOSECONDS, MICROSECONDS or MILLISECONDS");
+        }
+        Histogram histogram;
+        try {
+            byte[] compressed = Base64.getMimeDecoder().decode(encoded.trim());
+            histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(compressed), 0);
+        } catch (DataFormatException | RuntimeException e) {
+            throw new IllegalArgumentException("Latency histogram is not a base64 encoded, compressed HdrHistogram");
+        }
+        return fromHistogram(histogram, valuesPerMs);
+    }
+
+    /**
+     * Builds a sampler from observed latencies in milliseconds, one per line. A line may add the number
+     * of times its latency was observed after a comma, as in {@code 12.5,340}. Blank lines, lines
+     * starting with {@code #} and a header line are skipped.
+     *
+     * @throws IllegalArgumentException if a line cannot be read or there are no observations
+     */
+    public static InverseCdfSampler fromCsv(String csv) {
+        if (csv == null || csv.isBlank()) {
+            throw new IllegalArgumentException("Latency CSV contains no values");
+        }
+        Histogram histogram = new Histogram(CSV_SIGNIFICANT_DIGITS);
+        String[] lines = csv.split("\\R");
+        boolean firstRow = true;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            double latencyMs;
+            long count;
+            try {
+                if (fields.length > 2) {
+                    throw new NumberFormatException();
+                }
+                latencyMs = Double.parseDouble(fields[0].trim());
+                count = fields.length == 2 ? Long.parseLong(fields[1].trim()) : 1;
+            } catch (NumberFormatException e) {
+                if (firstRow && !startsWithDigit(fields[0].trim())) {
+                    firstRow = false;
+                    continue;
+                }
+                throw new IllegalArgumentException("Latency CSV line " + (i + 1)
+                    + " must be a latency in milliseconds, optionally followed by a count: " + line);
+            }
+            firstRow = false;
+            if (!(latencyMs >= 0) || Double.isInfinite(latencyMs) || count < 0) {
+                throw new IllegalArgumentException("Latency CSV line " + (i + 1) + " has a negative or invalid value: " + line);
+            }
+            if (count > 0) {
+                histogram.recordValueWithCount(Math.round(latencyMs * CSV_VALUES_PER_MS), count);
+            }
+        }
+        return fromHistogram(histogram, CSV_VALUES_PER_MS);
+    }
+
+    /**
+     * Builds a sampler whose inverse CDF passes through the given points and is interpolated between
+     * them, either linearly or linearly in the logarithm of the latency, so that latency grows
+     * geometrically along each segment the way latency tails do
+     *
+     * @param probabilities increasing probabilities, the first 0 and the last 1
+     * @param latenciesMs   the latency in milliseconds at each probability
+     * @throws IllegalArgumentException if the probabilities do not run from 0 to 1
+     */
+    public static InverseCdfSampler fromPoints(double[] probabilities, double[] latenciesMs, boolean logarithmic) {
+        if (probabilities.length < 2 || probabilities.length != latenciesMs.length
+                || probabilities[0] != 0 || probabilities[probabilities.length - 1] != 1) {
+            throw new IllegalArgumentException("Latency points must run from probability 0 to 1");
+        }
+        double[] quantilesMs = new double[RESOLUTION + 1];
+        int segment = 0;
+        for (int i = 0; i <= RESOLUTION; i++) {
+            double probability = (double) i / RESOLUTION;
+            while (segment < probabilities.length - 2 && probability > probabilities[segment + 1]) {
+                segment++;
+            }
+            double width = probabilities[segment + 1] - probabilities[segment];
+            double fraction = width > 0 ? (probability - probabilities[segment]) / width : 1;
+            double lower = latenciesMs[segment];
+            double upper = latenciesMs[segment + 1];
+            // log1p keeps a latency of 0 usable as the start of a logarithmic segment
+            quantilesMs[i] = logarithmic
+                ? Math.expm1(Math.log1p(lower) + (Math.log1p(upper) - Math.log1p(lower)) * fraction)
+                : lower + (upper - lower) * fraction;
+        }
+        return new InverseCdfSampler(quantilesMs);
+    }
+
+    private static boolean startsWithDigit(String field) {
+        return !field.isEmpty() && (Character.isDigit(field.charAt(0)) || field.charAt(0) == '-' || field.charAt(0) == '.');
+    }
+
+    @Override
+    public long sampleMs(RandomGenerator random) {
+        return Math.round(quantileMs(random.nextDouble()));
+    }
+
+    /**
+     * Returns the latency in milliseconds at the given probability, between 0 inclusive and 1 exclusive
+     */
+    double quantileMs(double probability) {
+        double position = probability * RESOLUTION;
+        int index = (int) position;
+        double lower = quantilesMs[index];
+        return lower + (quantilesMs[index + 1] - lower) * (position - index);
+    }
+}
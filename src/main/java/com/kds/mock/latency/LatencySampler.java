@@ -0,0 +1,16 @@
+package com.kds.mock.latency;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A latency distribution prepared once from a {@link com.kds.mock.dto.LoadTestConfig.LatencyConfig},
+ * so that drawing a latency for a request does no more than the distribution itself requires
+ */
+@FunctionalInterface
+public interface LatencySampler {
+
+    /**
+     * Draws one latency in milliseconds from the given generator
+     */
+    long sampleMs(RandomGenerator random);
+}
@@ -0,0 +1,117 @@
+package com.kds.mock.metrics;
+
+import com.kds.mock.route.RouteMethod;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters and latency histograms of a single mock endpoint.
+ * <p>
+ * Counters are {@link LongAdder}s, which spread concurrent increments over striped cells, so
+ * recording from many request threads does not contend on a single memory location. The
+ * endpoint's Micrometer meters are created on first use per method and outcome and then reused,
+ * from an array indexed by the ordinals of the already resolved {@link RouteMethod} and outcome.
+ */
+public final class EndpointMetrics {
+
+    static final String OTHER_METHOD = "OTHER";
+    private static final RouteMethod[] METHODS = RouteMethod.values();
+    private static final RequestOutcome[] OUTCOMES = RequestOutcome.values();
+
+    private final String path;
+    private final MeterRegistry registry;
+    // One slot per method and outcome, plus one row for methods outside RouteMethod
+    private final AtomicReferenceArray<ServingMeters> servingMeters =
+        new AtomicReferenceArray<>((METHODS.length + 1) * OUTCOMES.length);
+
+    private final LongAdder totalRequests = new LongAdder();
+    private final LongAdder rateLimitedRequests = new LongAdder();
+    private final LongAdder timeoutRequests = new LongAdder();
+    private final LongAdder errorRequests = new LongAdder();
+    private final LatencyHistogram injectedLatency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+    public EndpointMetrics(String path, MeterRegistry registry) {
+        this.path = path;
+        this.registry = registry;
+    }
+
+    /**
+     * Returns the meters for requests with the given method and outcome. A null method, one mock
+     * endpoints cannot be configured for, gets the {@code OTHER} tag, so clients cannot add tag
+     * values at will.
+     */
+    public ServingMeters servingMeters(RouteMethod method, RequestOutcome outcome) {
+        int index = methodIndex(method) * OUTCOMES.length + outcome.ordinal();
+        ServingMeters meters = servingMeters.get(index);
+        if (meters == null) {
+            // Registering the same meters twice returns the existing ones, so a race here is harmless
+            meters = new ServingMeters(registry, path, methodTag(method), outcome);
+            servingMeters.set(index, meters);
+        }
+        return meters;
+    }
+
+    static int methodIndex(RouteMethod method) {
+        return method != null ? method.ordinal() : METHODS.length;
+    }
+
+    static String methodTag(RouteMethod method) {
+        return method != null ? method.name() : OTHER_METHOD;
+    }
+
+    public void recordRequest() {
+        totalRequests.increment();
+    }
+
+    public void recordRateLimited() {
+        rateLimitedRequests.increment();
+    }
+
+    public void recordTimeout() {
+        timeoutRequests.increment();
+    }
+
+    public void recordError() {
+        errorRequests.increment();
+    }
+
+    /**
+     * Records the delay the load test configuration added to a request
+     */
+    public void recordInjectedLatency(long delayMs) {
+        injectedLatency.record(TimeUnit.MILLISECONDS.toMicros(delayMs));
+    }
+
+    /**
+     * Records the wall-clock time from receiving a request to its response being ready
+     */
+    public void recordServiceTime(long nanos) {
+        serviceTime.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Estimates the memory the latency histograms of this endpoint keep
+     */
+    long estimatedFootprintInBytes() {
+        return injectedLatency.estimatedFootprintInBytes() + serviceTime.estimatedFootprintInBytes();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(
+            totalRequests.sum(),
+            rateLimitedRequests.sum(),
+            timeoutRequests.sum(),
+            errorRequests.sum(),
+            injectedLatency.snapshot(),
+            serviceTime.snapshot()
+        );
+    }
+
+    public record Snapshot(long totalRequests, long rateLimitedRequests, long timeoutRequests, long errorRequests,
+                           LatencyHistogram.Snapshot injectedLatency, LatencyHistogram.Snapshot serviceTime) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.kds.mock.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Latency histogram in microseconds over a rolling window and since it was created, backed by
+ * HdrHistogram.
+ * <p>
+ * Values are recorded into a {@link Recorder}, whose writers are wait-free. The window is a ring
+ * of slots: when a slot's time is up, the values recorded since the last rotation are moved into
+ * it and the oldest slot is cleared, so the window always covers between {@code window - slot}
+ * and {@code window} of history. Rotation happens on the first recording after a slot boundary or
+ * when a snapshot is taken, under a lock that recording threads only try once, so no background
+ * thread is needed and idle endpoints cost nothing.
+ * <p>
+ * Values are capped at {@link #HIGHEST_TRACKABLE_MICROS}, twice the cap on injected latency, so
+ * longer values are recorded as that maximum. The slot and total histograms are packed, so their
+ * memory is bounded by the number of distinct buckets in that range and stays small for typical
+ * latency profiles. The recorder's histogram is not: concurrent writers resizing a packed array can
+ * livelock, so it is allocated at full size, about 22KB. The interval histogram a rotation takes out
+ * of the recorder is merged and then dropped instead of kept for recycling, so an endpoint keeps one
+ * full-size array per histogram rather than two, at the cost of one allocation per slot while it is
+ * busy. The recorder and every histogram are only allocated when the first value is recorded, so the
+ * many endpoints of a large route table that never see traffic cost a few fields each. Two
+ * significant digits keep every percentile within 1% of the exact value.
+ */
+public final class LatencyHistogram {
+
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    static final int SIGNIFICANT_DIGITS = 2;
+    static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+    static final int DEFAULT_SLOTS = 6;
+
+    // Size of the recorder's full-size histogram
+    private static final long RECORDER_HISTOGRAM_BYTES =
+        new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS).getEstimatedFootprintInBytes();
+
+    private final ReentrantLock rotationLock = new ReentrantLock();
+    private final long slotNanos;
+    private final int slotCount;
+
+    // Allocated under rotationLock by the first recording, after the histograms it feeds
+    private volatile Recorder recorder;
+
+    // Guarded by rotationLock, null until the first recording
+    private Histogram[] slots;
+    private Histogram total;
+    private int currentSlot;
+    private long currentSlotStartNanos;
+
+    private volatile long nextRotationNanos;
+
+    public LatencyHistogram() {
+        this(DEFAULT_WINDOW, DEFAULT_SLOTS, System.nanoTime());
+    }
+
+    LatencyHistogram(Duration window, int slotCount, long nowNanos) {
+        this.slotNanos = window.toNanos() / slotCount;
+        this.slotCount = slotCount;
+        this.currentSlotStartNanos = nowNanos;
+        this.nextRotationNanos = nowNanos + slotNanos;
+    }
+
+    /**
+     * Records one value in microseconds, negative values are recorded as 0
+     */
+    public void record(long micros) {
+        record(micros, System.nanoTime());
+    }
+
+    void record(long micros, long nowNanos) {
+        // Rotate first so the value lands in the slot of its own time
+        if (nowNanos - nextRotationNanos >= 0 && rotationLock.tryLock()) {
+            try {
+                rotate(nowNanos);
+            } finally {
+                rotationLock.unlock();
+            }
+        }
+        Recorder current = recorder;
+        if (current == null) {
+            current = allocate();
+        }
+        current.recordValue(Math.min(Math.max(0, micros), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private Recorder allocate() {
+        rotationLock.lock();
+        try {
+            if (recorder == null) {
+                slots = new Histogram[slotCount];
+                for (int i = 0; i < slotCount; i++) {
+                    slots[i] = newHistogram();
+                }
+                total = newHistogram();
+                recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            }
+            return recorder;
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return snapshot(System.nanoTime());
+    }
+
+    Snapshot snapshot(long nowNanos) {
+        rotationLock.lock();
+        try {
+            rotate(nowNanos);
+            if (recorder == null) {
+                return new Snapshot(Summary.EMPTY, Summary.EMPTY);
+            }
+            Histogram window = newHistogram();
+            for (Histogram slot : slots) {
+                window.add(slot);
+            }
+            return new Snapshot(Summary.of(window), Summary.of(total));
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    /**
+     * Estimates the memory this histogram keeps, 0 until a value has been recorded
+     */
+    long estimatedFootprintInBytes() {
+        rotationLock.lock();
+        try {
+            if (recorder == null) {
+                return 0;
+            }
+            long bytes = RECORDER_HISTOGRAM_BYTES + total.getEstimatedFootprintInBytes();
+            for (Histogram slot : slots) {
+                bytes += slot.getEstimatedFootprintInBytes();
+            }
+            return bytes;
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    /**
+     * Moves everything recorded so far into the current slot, then advances past every slot
+     * whose time is up, clearing the slots it reuses. Must hold the rotation lock.
+     */
+    private void rotate(long nowNanos) {
+        Recorder current = recorder;
+        if (current != null) {
+            Histogram interval = current.getIntervalHistogram();
+            slots[currentSlot].add(interval);
+            total.add(interval);
+        }
+
+        long elapsedSlots = (nowNanos - currentSlotStartNanos) / slotNanos;
+        if (elapsedSlots <= 0) {
+            return;
+        }
+        for (long i = 0; i < Math.min(elapsedSlots, slotCount); i++) {
+            currentSlot = (currentSlot + 1) % slotCount;
+            if (slots != null) {
+                slots[currentSlot].reset();
+            }
+        }
+        currentSlotStartNanos += elapsedSlots * slotNanos;
+        nextRotationNanos = currentSlotStartNanos + slotNanos;
+    }
+
+    private static Histogram newHistogram() {
+        return new PackedHistogram(SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Summaries of the rolling window and of every value since the histogram was created
+     */
+    public record Snapshot(Summary window, Summary total) {
+    }
+
+    /**
+     * Distribution of recorded values, all in microseconds except the count
+     */
+    public record Summary(long count, double mean, long min, long max, long p50, long p90, long p99, long p999) {
+
+        static final Summary EMPTY = new Summary(0, 0, 0, 0, 0, 0, 0, 0);
+
+        static Summary of(Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return EMPTY;
+            }
+            return new Summary(
+                histogram.getTotalCount(),
+                histogram.getMean(),
+                histogram.getMinValue(),
+                histogram.getMaxValue(),
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9)
+            );
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.kds.mock.metrics;
+
+import com.kds.mock.route.RouteMethod;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-endpoint request metrics recorded while serving mock responses.
+ * <p>
+ * Endpoints are keyed by the configured route path, never by the raw request path, so requests to
+ * unconfigured paths cannot grow the registry. The same holds for the Micrometer meters published
+ * for scraping: their {@code endpoint} tag is the route path, requests to unknown paths share the
+ * {@value #UNMATCHED} tag, and the meters of deleted endpoints are removed from the registry.
+ */
+@Component
+public class RequestMetrics {
+
+    public static final String UNMATCHED = "UNMATCHED";
+    public static final String ROUTE_TABLE_RELOAD = "mock.route.table.reload";
+
+    private final MeterRegistry registry;
+    private final Timer routeTableReload;
+    // Indexed like the method rows of EndpointMetrics
+    private final AtomicReferenceArray<Counter> unmatchedRequests = new AtomicReferenceArray<>(RouteMethod.values().length + 1);
+
+    private volatile ConcurrentHashMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Keeps the meters in a private registry, for use outside of the application context
+     */
+    public RequestMetrics() {
+        this(new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public RequestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.routeTableReload = Timer.builder(ROUTE_TABLE_RELOAD)
+            .description("Time to load and compile the configured endpoints, including parsing their load test configuration")
+            .register(registry);
+    }
+
+    /**
+     * Returns the metrics of a route, creating them on its first request
+     */
+    public EndpointMetrics forEndpoint(String routePath) {
+        ConcurrentHashMap<String, EndpointMetrics> current = endpoints;
+        EndpointMetrics metrics = current.get(routePath);
+        return metrics != null ? metrics : current.computeIfAbsent(routePath, path -> new EndpointMetrics(path, registry));
+    }
+
+    /**
+     * Counts a request to a path that has no configured endpoint
+     */
+    public void recordUnmatched(RouteMethod method) {
+        int index = EndpointMetrics.methodIndex(method);
+        Counter counter = unmatchedRequests.get(index);
+        if (counter == null) {
+            // Registering the same counter twice returns the existing one, so a race here is harmless
+            counter = Counter.builder(ServingMeters.REQUESTS)
+                .description("Requests served by configured mock endpoints")
+                .tags("endpoint", UNMATCHED, "method", EndpointMetrics.methodTag(method), "outcome", "not_found")
+                .register(registry);
+            unmatchedRequests.set(index, counter);
+        }
+        counter.increment();
+    }
+
+    public void recordRouteTableReload(long nanos) {
+        routeTableReload.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Discards the metrics of every endpoint in one step, so a snapshot never mixes values
+     * from before and after the reset. Published meters are monotonic and keep counting.
+     */
+    public void reset() {
+        endpoints = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Discards the metrics of a single endpoint
+     */
+    public void reset(String routePath) {
+        endpoints.remove(routePath);
+    }
+
+    /**
+     * Discards the metrics and published meters of every endpoint that is not in the given set
+     * of configured paths
+     */
+    public void retainEndpoints(Set<String> routePaths) {
+        endpoints.keySet().retainAll(routePaths);
+
+        List<Meter> stale = registry.getMeters().stream()
+            .filter(meter -> meter.getId().getName().startsWith(ServingMeters.METER_PREFIX))
+            .filter(meter -> {
+                String endpoint = meter.getId().getTag("endpoint");
+                return endpoint != null && !endpoint.equals(UNMATCHED) && !routePaths.contains(endpoint);
+            })
+            .toList();
+        stale.forEach(registry::remove);
+    }
+
+    /**
+     * Takes a snapshot of every endpoint that has served requests, sorted by path
+     */
+    public Map<String, EndpointMetrics.Snapshot> snapshot() {
+        Map<String, EndpointMetrics.Snapshot> snapshots = new TreeMap<>();
+        endpoints.forEach((path, metrics) -> snapshots.put(path, metrics.snapshot()));
+        return snapshots;
+    }
+}
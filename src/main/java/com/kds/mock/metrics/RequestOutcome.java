@@ -0,0 +1,21 @@
+package com.kds.mock.metrics;
+
+/**
+ * How a configured mock endpoint answered a request, used as the {@code outcome} metric tag
+ */
+public enum RequestOutcome {
+    NORMAL("normal"),
+    RATE_LIMITED("rate_limited"),
+    TIMEOUT("timeout"),
+    ERROR("error");
+
+    private final String tagValue;
+
+    RequestOutcome(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,68 @@
+package com.kds.mock.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of one endpoint, method and outcome, registered once and reused for every
+ * request with that combination so the serving path never builds meter ids.
+ * <p>
+ * The stage timer separates the time the mock spends on its own work (route lookup, rate limit
+ * check, planning the response and writing the body) from the delay it injects on purpose.
+ */
+public final class ServingMeters {
+
+    public static final String METER_PREFIX = "mock.request";
+    public static final String REQUESTS = "mock.requests";
+    public static final String STAGE = "mock.request.stage";
+
+    private final Counter requests;
+    private final Timer lookup;
+    private final Timer rateLimit;
+    private final Timer plan;
+    private final Timer delay;
+    private final Timer write;
+
+    ServingMeters(MeterRegistry registry, String endpoint, String method, RequestOutcome outcome) {
+        Tags tags = Tags.of("endpoint", endpoint, "method", method, "outcome", outcome.tagValue());
+        this.requests = Counter.builder(REQUESTS)
+            .description("Requests served by configured mock endpoints")
+            .tags(tags)
+            .register(registry);
+        this.lookup = stageTimer(registry, tags, "lookup");
+        this.rateLimit = stageTimer(registry, tags, "rate_limit");
+        this.plan = stageTimer(registry, tags, "plan");
+        this.delay = stageTimer(registry, tags, "delay");
+        this.write = stageTimer(registry, tags, "write");
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, Tags tags, String stage) {
+        return Timer.builder(STAGE)
+            .description("Time spent in each stage of serving a mock response")
+            .tags(tags)
+            .tag("stage", stage)
+            .register(registry);
+    }
+
+    /**
+     * Counts the request and records the stages that run before any delay
+     */
+    public void recordPlanned(long lookupNanos, long rateLimitNanos, long planNanos) {
+        requests.increment();
+        lookup.record(lookupNanos, TimeUnit.NANOSECONDS);
+        rateLimit.record(rateLimitNanos, TimeUnit.NANOSECONDS);
+        plan.record(planNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDelay(long nanos) {
+        delay.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordWrite(long nanos) {
+        write.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
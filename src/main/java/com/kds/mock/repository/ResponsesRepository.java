@@ -9,5 +9,7 @@ import java.util.List;
 @Repository
 public interface ResponsesRepository extends JpaRepository<Responses, Long> {
     Responses findResponseByEndpointsIdAndMethod(Long endpointsId, String method);
+    List<Responses> findAllByEndpointsId(Long endpointsId);
+    List<Responses> findAllByEndpointsIdAndMethodIgnoreCase(Long endpointsId, String method);
     List<Responses> findAll();
 }
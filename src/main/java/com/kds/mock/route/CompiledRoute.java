@@ -0,0 +1,174 @@
+package com.kds.mock.route;
+
+import com.kds.mock.dto.LoadTestConfig;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, request-ready view of a configured endpoint together with its headers and
+ * per-method responses. Instances are only ever created by {@link RouteTable#build}.
+ * <p>
+ * Responses are indexed by {@link RouteMethod} in enum maps, so selecting the response for a
+ * request never hashes the method name. Each response carries its own status code; the route's
+ * {@code statusCode} is the endpoint default that responses stored without one fall back to.
+ * <p>
+ * A method can have conditional responses besides its default one, each guarded by a predicate
+ * compiled from its request matchers. They are tried in configuration order and the first one
+ * whose predicate holds is served; the default response is served when none does.
+ * <p>
+ * Everything needed to write a response is prepared while the route is compiled: the header
+ * blocks are built once and shared read-only, and each response body is already encoded to bytes
+ * and, when worth it, compressed.
+ * The load test configuration is parsed at the same time; it must be treated as read-only because
+ * the same instance is shared by every request served from this route.
+ */
+public record CompiledRoute(
+        Long id,
+        String path,
+        int statusCode,
+        LoadTestConfig loadTestConfig,
+        HttpHeaders headers,
+        Map<RouteMethod, RouteResponse> responsesByMethod,
+        Map<RouteMethod, List<ConditionalResponse>> conditionalResponsesByMethod) {
+
+    public CompiledRoute {
+        headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        responsesByMethod = readOnlyEnumMap(responsesByMethod);
+        conditionalResponsesByMethod = readOnlyEnumMap(conditionalResponsesByMethod);
+    }
+
+    private static <V> Map<RouteMethod, V> readOnlyEnumMap(Map<RouteMethod, V> map) {
+        return map.isEmpty() ? Map.of() : Collections.unmodifiableMap(new EnumMap<>(map));
+    }
+
+    /**
+     * Returns true if the route has a response for the given HTTP method
+     */
+    public boolean serves(RouteMethod method) {
+        return method != null && (responsesByMethod.containsKey(method) || conditionalResponsesByMethod.containsKey(method));
+    }
+
+    /**
+     * Returns the methods the route has a response for
+     */
+    public Set<RouteMethod> methods() {
+        Set<RouteMethod> methods = EnumSet.noneOf(RouteMethod.class);
+        methods.addAll(responsesByMethod.keySet());
+        methods.addAll(conditionalResponsesByMethod.keySet());
+        return methods;
+    }
+
+    /**
+     * Returns the default response configured for the given HTTP method, or null if there is none
+     */
+    public RouteResponse response(RouteMethod method) {
+        return method != null ? responsesByMethod.get(method) : null;
+    }
+
+    public RouteResponse response(String method) {
+        return response(RouteMethod.of(method));
+    }
+
+    /**
+     * Returns the response to serve for a request with the given HTTP method: the first conditional
+     * response whose matchers the request meets, otherwise the default one, or null if there is none.
+     * A HEAD request gets the GET response when the route has none for HEAD.
+     */
+    public RouteResponse response(RouteMethod method, RequestView request) {
+        if (method == null) {
+            return null;
+        }
+        if (method == RouteMethod.HEAD && !serves(RouteMethod.HEAD)) {
+            method = RouteMethod.GET;
+        }
+        List<ConditionalResponse> conditionalResponses = conditionalResponsesByMethod.get(method);
+        if (conditionalResponses != null) {
+            MatchContext context = new MatchContext(request);
+            for (ConditionalResponse conditionalResponse : conditionalResponses) {
+                if (conditionalResponse.predicate().test(context)) {
+                    return conditionalResponse.response();
+                }
+            }
+        }
+        return responsesByMethod.get(method);
+    }
+
+    public RouteResponse response(String method, RequestView request) {
+        return response(RouteMethod.of(method), request);
+    }
+
+    /**
+     * Returns the conditional responses of the given HTTP method in the order they are tried
+     */
+    public List<ConditionalResponse> conditionalResponses(RouteMethod method) {
+        List<ConditionalResponse> conditionalResponses = method != null ? conditionalResponsesByMethod.get(method) : null;
+        return conditionalResponses != null ? conditionalResponses : List.of();
+    }
+
+    public List<ConditionalResponse> conditionalResponses(String method) {
+        return conditionalResponses(RouteMethod.of(method));
+    }
+
+    /**
+     * A response that is only served to requests its predicate holds for
+     */
+    public record ConditionalResponse(RequestPredicate predicate, RouteResponse response) {
+    }
+
+    /**
+     * A configured response with its status code, its body encoded once as UTF-8 and its complete header block.
+     * Large bodies also carry a gzip variant, compressed once when the route is compiled, together
+     * with the header block to send it with. The arrays are shared by every request and must never
+     * be modified.
+     * <p>
+     * A body with placeholders also carries its compiled {@link ResponseTemplate}; {@code body} then
+     * holds the unrendered template and is never sent as it is.
+     */
+    public record RouteResponse(
+            RouteMethod method,
+            int statusCode,
+            String contentType,
+            byte[] body,
+            HttpHeaders headers,
+            byte[] gzipBody,
+            HttpHeaders gzipHeaders,
+            ResponseTemplate template) {
+
+        public RouteResponse {
+            headers = HttpHeaders.readOnlyHttpHeaders(headers);
+            gzipHeaders = gzipHeaders != null ? HttpHeaders.readOnlyHttpHeaders(gzipHeaders) : null;
+        }
+
+        public RouteResponse(RouteMethod method, int statusCode, String contentType, byte[] body, HttpHeaders headers,
+                             byte[] gzipBody, HttpHeaders gzipHeaders) {
+            this(method, statusCode, contentType, body, headers, gzipBody, gzipHeaders, null);
+        }
+
+        public boolean hasGzipVariant() {
+            return gzipBody != null;
+        }
+
+        public boolean isTemplated() {
+            return template != null;
+        }
+
+        /**
+         * Returns the body to send for a request: the shared static body, or the template rendered
+         * for this request
+         */
+        public byte[] bodyFor(String requestPath, RequestView request) {
+            return template != null ? template.render(requestPath, request) : body;
+        }
+
+        public String bodyAsString() {
+            return body != null ? new String(body, StandardCharsets.UTF_8) : null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.kds.mock.route;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong entity tags for compiled response bodies.
+ * <p>
+ * A tag is derived from the body bytes alone, so it changes exactly when the configured body
+ * changes and is identical across restarts and instances. Each encoding of a body is a different
+ * representation and gets its own tag.
+ */
+final class EntityTags {
+
+    private static final int TAG_BYTES = 16;
+
+    private EntityTags() {
+    }
+
+    /**
+     * Returns a quoted strong ETag built from the first 128 bits of the body's SHA-256 digest
+     */
+    static String of(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, TAG_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the tag of the gzip-encoded representation of the body tagged {@code entityTag}
+     */
+    static String gzipVariantOf(String entityTag) {
+        return entityTag.substring(0, entityTag.length() - 1) + "-gzip\"";
+    }
+}
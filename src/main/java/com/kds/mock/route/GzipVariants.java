@@ -0,0 +1,43 @@
+package com.kds.mock.route;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Produces the gzip variant of a response body when a route is compiled.
+ */
+final class GzipVariants {
+
+    /**
+     * Bodies below this size are always sent as they are, matching Tomcat's default compression threshold
+     */
+    static final int MIN_SIZE = 2048;
+
+    private GzipVariants() {
+    }
+
+    /**
+     * Compresses the body with the best compression level, since it is done only once per
+     * configuration change. Returns null when the body is too small or does not get smaller.
+     */
+    static byte[] compress(byte[] body) {
+        if (body == null || body.length < MIN_SIZE) {
+            return null;
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress response body", e);
+        }
+        return compressed.size() < body.length ? compressed.toByteArray() : null;
+    }
+}
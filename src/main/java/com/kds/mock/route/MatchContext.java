@@ -0,0 +1,50 @@
+package com.kds.mock.route;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+
+/**
+ * Per-request state shared by the predicates of every variant tried for one request, so the
+ * body is read and parsed at most once and only if a body matcher is actually evaluated.
+ */
+public final class MatchContext {
+
+    private final RequestView request;
+    private JsonNode jsonBody;
+
+    public MatchContext(RequestView request) {
+        this.request = request;
+    }
+
+    String header(String name) {
+        return request.header(name);
+    }
+
+    String queryParameter(String name) {
+        return request.queryParameter(name);
+    }
+
+    /**
+     * Returns the body parsed as JSON, or a missing node if it is empty or not valid JSON
+     */
+    JsonNode jsonBody() {
+        if (jsonBody == null) {
+            jsonBody = parse(request.body());
+        }
+        return jsonBody;
+    }
+
+    private static JsonNode parse(byte[] body) {
+        if (body == null || body.length == 0) {
+            return MissingNode.getInstance();
+        }
+        try {
+            JsonNode parsed = RequestMatchers.OBJECT_MAPPER.readTree(body);
+            return parsed != null ? parsed : MissingNode.getInstance();
+        } catch (IOException e) {
+            return MissingNode.getInstance();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.kds.mock.route;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A configured endpoint path that matches more than one request path.
+ * <p>
+ * A template is a sequence of {@code /}-separated segments, each of which is either a literal,
+ * a variable written as {@code {name}} that matches any single segment, or, as the last segment
+ * only, {@code **} which matches the rest of the path, including nothing at all. For example
+ * {@code /api/users/{id}} matches {@code /api/users/42} and {@code /api/files/**} matches
+ * {@code /api/files}, {@code /api/files/a} and {@code /api/files/a/b.txt}.
+ */
+public final class PathTemplate {
+
+    static final String CATCH_ALL = "**";
+
+    private static final Pattern VARIABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final String pattern;
+    private final String[] literals;
+    private final String[] variableNames;
+    private final boolean catchAll;
+
+    private PathTemplate(String pattern, String[] literals, String[] variableNames, boolean catchAll) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.variableNames = variableNames;
+        this.catchAll = catchAll;
+    }
+
+    /**
+     * Returns true if the path uses template syntax and therefore does not only match itself
+     */
+    public static boolean isTemplate(String path) {
+        return path != null && (path.indexOf('{') >= 0 || path.indexOf('}') >= 0 || path.contains("/" + CATCH_ALL));
+    }
+
+    /**
+     * Checks that a path to be configured uses template syntax correctly, if it uses it at all
+     *
+     * @throws IllegalArgumentException describing the first problem found
+     */
+    public static void requireValid(String path) {
+        if (isTemplate(path)) {
+            parse(path);
+        }
+    }
+
+    /**
+     * Parses a path template
+     *
+     * @throws IllegalArgumentException if the template syntax is used incorrectly
+     */
+    public static PathTemplate parse(String pattern) {
+        if (pattern == null || !pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Path must start with /: " + pattern);
+        }
+        String[] segments = segments(pattern);
+        boolean catchAll = segments[segments.length - 1].equals(CATCH_ALL);
+        int fixedSegments = catchAll ? segments.length - 1 : segments.length;
+
+        String[] literals = new String[fixedSegments];
+        String[] variableNames = new String[fixedSegments];
+        Set<String> seenNames = new HashSet<>();
+        for (int i = 0; i < fixedSegments; i++) {
+            String segment = segments[i];
+            if (segment.contains(CATCH_ALL)) {
+                throw new IllegalArgumentException("'" + CATCH_ALL + "' is only allowed as the last path segment: " + pattern);
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                String name = segment.substring(1, segment.length() - 1);
+                if (!VARIABLE_NAME.matcher(name).matches()) {
+                    throw new IllegalArgumentException("Invalid path variable name '" + name + "': " + pattern);
+                }
+                if (!seenNames.add(name)) {
+                    throw new IllegalArgumentException("Duplicate path variable '" + name + "': " + pattern);
+                }
+                variableNames[i] = name;
+            } else if (segment.indexOf('{') >= 0 || segment.indexOf('}') >= 0) {
+                throw new IllegalArgumentException("A path variable must be a whole segment, like /{id}: " + pattern);
+            } else {
+                literals[i] = segment;
+            }
+        }
+        return new PathTemplate(pattern, literals, variableNames, catchAll);
+    }
+
+    /**
+     * Splits a path into its segments, without the leading slash. Empty segments are kept, so
+     * {@code /a/} has the segments {@code "a"} and {@code ""}.
+     */
+    static String[] segments(String path) {
+        return path.substring(1).split("/", -1);
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    /**
+     * Number of segments before the catch-all, if any
+     */
+    int fixedSegments() {
+        return literals.length;
+    }
+
+    /**
+     * The literal at the given segment, or null if the segment is a variable
+     */
+    String literal(int segment) {
+        return literals[segment];
+    }
+
+    boolean catchAll() {
+        return catchAll;
+    }
+
+    /**
+     * The segment holding the named path variable, or -1 if the template has no such variable
+     */
+    int segmentOf(String variableName) {
+        for (int i = 0; i < variableNames.length; i++) {
+            if (variableName.equals(variableNames[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value of each path variable in a path this template matched, by name and in
+     * template order
+     */
+    Map<String, String> variables(String[] pathSegments) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (int i = 0; i < variableNames.length; i++) {
+            if (variableNames[i] != null) {
+                variables.put(variableNames[i], pathSegments[i]);
+            }
+        }
+        return Collections.unmodifiableMap(variables);
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,100 @@
+package com.kds.mock.route;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Segment trie over the path templates of a {@link RouteTable}.
+ * <p>
+ * Each node has its literal children in a hash map, at most one variable child shared by every
+ * template with a variable at that position, and the routes that end at the node or continue with
+ * {@code **} from it. A lookup walks one node per path segment, so its cost depends on the length
+ * of the path and not on the number of templates.
+ * <p>
+ * Precedence is decided segment by segment from the left: a literal beats a variable, which beats
+ * {@code **}. When the more specific branch cannot match the rest of the path, the lookup backs up
+ * and tries the next one, so {@code /api/users/me/posts} still matches {@code /api/users/{id}/posts}
+ * when {@code /api/users/me} is also configured.
+ * <p>
+ * A trie is only modified while its table is being built and is read-only afterwards.
+ */
+final class PathTrie {
+
+    private final Node root = new Node();
+
+    /**
+     * Adds a template, unless a template with the same shape was added before
+     *
+     * @return false if an equivalent template, one that differs at most in variable names, is already present
+     */
+    boolean add(PathTemplate template, CompiledRoute route) {
+        Node node = root;
+        for (int i = 0; i < template.fixedSegments(); i++) {
+            String literal = template.literal(i);
+            if (literal != null) {
+                if (node.literals == null) {
+                    node.literals = new HashMap<>();
+                }
+                node = node.literals.computeIfAbsent(literal, key -> new Node());
+            } else {
+                if (node.variable == null) {
+                    node.variable = new Node();
+                }
+                node = node.variable;
+            }
+        }
+
+        Leaf leaf = new Leaf(template, route);
+        if (template.catchAll()) {
+            if (node.catchAll != null) {
+                return false;
+            }
+            node.catchAll = leaf;
+        } else {
+            if (node.route != null) {
+                return false;
+            }
+            node.route = leaf;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the template with the highest precedence that matches the path segments, or null if none does
+     */
+    Leaf find(String[] segments) {
+        return find(root, segments, 0);
+    }
+
+    private static Leaf find(Node node, String[] segments, int index) {
+        if (index == segments.length) {
+            return node.route != null ? node.route : node.catchAll;
+        }
+        if (node.literals != null) {
+            Node literal = node.literals.get(segments[index]);
+            if (literal != null) {
+                Leaf match = find(literal, segments, index + 1);
+                if (match != null) {
+                    return match;
+                }
+            }
+        }
+        if (node.variable != null) {
+            Leaf match = find(node.variable, segments, index + 1);
+            if (match != null) {
+                return match;
+            }
+        }
+        return node.catchAll;
+    }
+
+    private static final class Node {
+        private Map<String, Node> literals;
+        private Node variable;
+        private Leaf route;
+        private Leaf catchAll;
+    }
+
+    record Leaf(PathTemplate template, CompiledRoute route) {
+    }
+}
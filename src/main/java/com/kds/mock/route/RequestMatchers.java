@@ -0,0 +1,217 @@
+package com.kds.mock.route;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kds.mock.dto.RequestMatcher;
+import com.kds.mock.dto.ResponseVariant;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles the {@link RequestMatcher}s of a response variant into a {@link RequestPredicate} and
+ * converts them to and from the JSON they are stored as.
+ * <p>
+ * A variant matches when all of its matchers do. The compiled predicate checks them from the
+ * cheapest to the most expensive source, headers, then query parameters, then the body, and
+ * stops at the first one that fails, so the body is only parsed when every cheaper check passed.
+ * Regular expressions are compiled once and must match the whole value.
+ * <p>
+ * Body matchers select a value with a JSONPath made of field and index steps, such as
+ * {@code $.customer.tier}, {@code $.items[0].sku} or {@code $['first name']}. Filters and
+ * wildcards are not supported. A selected object or array is compared as compact JSON text.
+ */
+public final class RequestMatchers {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final TypeReference<List<RequestMatcher>> MATCHER_LIST = new TypeReference<>() {
+    };
+
+    private RequestMatchers() {
+    }
+
+    /**
+     * Compiles matchers into a predicate that holds when all of them match
+     *
+     * @throws IllegalArgumentException if a matcher is incomplete, or its pattern or JSONPath is invalid
+     */
+    public static RequestPredicate compile(List<RequestMatcher> matchers) {
+        if (matchers == null || matchers.isEmpty()) {
+            throw new IllegalArgumentException("At least one matcher is required");
+        }
+        ValueMatcher[] compiled = matchers.stream()
+            .map(RequestMatchers::compile)
+            .sorted(Comparator.comparingInt(matcher -> matcher.source().ordinal()))
+            .toArray(ValueMatcher[]::new);
+        return compiled.length == 1 ? compiled[0] : new AllOf(compiled);
+    }
+
+    /**
+     * Checks that every variant's matchers compile
+     *
+     * @throws IllegalArgumentException describing the first invalid variant
+     */
+    public static void requireValid(List<ResponseVariant> variants) {
+        if (variants == null) {
+            return;
+        }
+        for (int i = 0; i < variants.size(); i++) {
+            try {
+                compile(variants.get(i).getMatchers());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid response variant " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static String toJson(List<RequestMatcher> matchers) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(matchers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize request matchers", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the JSON is not a list of matchers
+     */
+    public static List<RequestMatcher> fromJson(String json) {
+        try {
+            return OBJECT_MAPPER.readValue(json, MATCHER_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid request matchers JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static ValueMatcher compile(RequestMatcher matcher) {
+        if (matcher == null || matcher.getSource() == null || matcher.getName() == null || matcher.getName().isBlank()) {
+            throw new IllegalArgumentException("A matcher needs a source and a name");
+        }
+        Source source;
+        try {
+            source = Source.valueOf(matcher.getSource());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown matcher source: " + matcher.getSource());
+        }
+        if ((matcher.getEqualTo() != null) == (matcher.getMatches() != null)) {
+            throw new IllegalArgumentException("Matcher " + matcher.getName() + " needs exactly one of equalTo and matches");
+        }
+
+        Pattern pattern = null;
+        if (matcher.getMatches() != null) {
+            try {
+                pattern = Pattern.compile(matcher.getMatches());
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid pattern for matcher " + matcher.getName() + ": " + e.getDescription());
+            }
+        }
+        JsonPointer pointer = source == Source.BODY ? compileJsonPath(matcher.getName()) : null;
+        return new ValueMatcher(source, matcher.getName(), pointer, matcher.getEqualTo(), pattern);
+    }
+
+    /**
+     * Translates a JSONPath of field and index steps into the equivalent JSON pointer
+     */
+    static JsonPointer compileJsonPath(String path) {
+        if (!path.startsWith("$")) {
+            throw new IllegalArgumentException("A JSONPath must start with $: " + path);
+        }
+        StringBuilder pointer = new StringBuilder();
+        int i = 1;
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            String step;
+            if (c == '.') {
+                int end = i + 1;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                step = path.substring(i + 1, end);
+                i = end;
+            } else if (c == '[' && i + 1 < path.length() && (path.charAt(i + 1) == '\'' || path.charAt(i + 1) == '"')) {
+                char quote = path.charAt(i + 1);
+                int end = path.indexOf(quote, i + 2);
+                if (end < 0 || end + 1 >= path.length() || path.charAt(end + 1) != ']') {
+                    throw new IllegalArgumentException("Unterminated quoted step in JSONPath: " + path);
+                }
+                step = path.substring(i + 2, end);
+                i = end + 2;
+            } else if (c == '[') {
+                int end = path.indexOf(']', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated index in JSONPath: " + path);
+                }
+                step = path.substring(i + 1, end);
+                if (step.isEmpty() || !step.chars().allMatch(Character::isDigit)) {
+                    throw new IllegalArgumentException("Only field names and array indexes are supported in JSONPath: " + path);
+                }
+                i = end + 1;
+            } else {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' in JSONPath: " + path);
+            }
+            if (step.isEmpty() || step.equals("*")) {
+                throw new IllegalArgumentException("Only field names and array indexes are supported in JSONPath: " + path);
+            }
+            pointer.append('/').append(step.replace("~", "~0").replace("/", "~1"));
+        }
+        return JsonPointer.compile(pointer.toString());
+    }
+
+    /**
+     * Sources in the order their matchers are evaluated, cheapest first
+     */
+    private enum Source {
+        HEADER,
+        QUERY,
+        BODY
+    }
+
+    private record ValueMatcher(Source source, String name, JsonPointer pointer, String equalTo, Pattern pattern)
+            implements RequestPredicate {
+
+        @Override
+        public boolean test(MatchContext context) {
+            String value = switch (source) {
+                case HEADER -> context.header(name);
+                case QUERY -> context.queryParameter(name);
+                case BODY -> textOf(context.jsonBody().at(pointer));
+            };
+            if (value == null) {
+                return false;
+            }
+            return pattern != null ? pattern.matcher(value).matches() : equalTo.equals(value);
+        }
+
+        private static String textOf(JsonNode node) {
+            if (node.isMissingNode()) {
+                return null;
+            }
+            return node.isValueNode() ? node.asText() : node.toString();
+        }
+    }
+
+    private record AllOf(ValueMatcher[] matchers) implements RequestPredicate {
+
+        @Override
+        public boolean test(MatchContext context) {
+            for (ValueMatcher matcher : matchers) {
+                if (!matcher.test(context)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "AllOf" + Arrays.toString(matchers);
+        }
+    }
+}
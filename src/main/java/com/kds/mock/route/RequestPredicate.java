@@ -0,0 +1,11 @@
+package com.kds.mock.route;
+
+/**
+ * A compiled condition on a mock request, built once from the {@link com.kds.mock.dto.RequestMatcher}s
+ * of a response variant when the route table is built
+ */
+@FunctionalInterface
+public interface RequestPredicate {
+
+    boolean test(MatchContext context);
+}
@@ -0,0 +1,45 @@
+package com.kds.mock.route;
+
+/**
+ * The parts of an incoming mock request that response variants can be matched on.
+ * <p>
+ * Implementations should read lazily: the body in particular is only requested when the route
+ * has a variant with a body matcher.
+ */
+public interface RequestView {
+
+    /**
+     * A request without headers, query parameters or body
+     */
+    RequestView NONE = new RequestView() {
+        @Override
+        public String header(String name) {
+            return null;
+        }
+
+        @Override
+        public String queryParameter(String name) {
+            return null;
+        }
+
+        @Override
+        public byte[] body() {
+            return new byte[0];
+        }
+    };
+
+    /**
+     * Returns the first value of the header, matched case-insensitively, or null if it is absent
+     */
+    String header(String name);
+
+    /**
+     * Returns the first decoded value of the query parameter, or null if it is absent
+     */
+    String queryParameter(String name);
+
+    /**
+     * Returns the raw request body, empty if there is none
+     */
+    byte[] body();
+}
@@ -0,0 +1,264 @@
+package com.kds.mock.route;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A response body with placeholders, compiled into the static byte chunks between them and a typed
+ * slot for each placeholder.
+ * <p>
+ * The supported placeholders are:
+ * <ul>
+ *     <li>{@code {{path.name}}} - the value of a path variable of the endpoint's path template</li>
+ *     <li>{@code {{query.name}}} - the first decoded value of a query parameter, empty if absent</li>
+ *     <li>{@code {{request.id}}} - the {@code X-Request-Id} request header, or a random UUID if absent</li>
+ *     <li>{@code {{timestamp}}} - the time the response was prepared as an ISO-8601 instant</li>
+ *     <li>{@code {{timestamp.millis}}} - the same time in milliseconds since the epoch</li>
+ *     <li>{@code {{uuid}}} - a random version 4 UUID</li>
+ * </ul>
+ * Any other text in double braces, including a path variable the endpoint's path does not have, is
+ * sent as it is, so existing bodies that happen to contain braces keep working.
+ * <p>
+ * A body is parsed once when its route is compiled. A path variable slot already knows which
+ * segment of the request path holds its value, so rendering only resolves the slot values and
+ * copies them together with the chunks into a byte array of the exact size.
+ */
+public final class ResponseTemplate {
+
+    static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final byte[][] chunks;
+    private final Slot[] slots;
+    private final int staticLength;
+    private final boolean jsonEscaped;
+
+    private ResponseTemplate(byte[][] chunks, Slot[] slots, boolean jsonEscaped) {
+        this.chunks = chunks;
+        this.slots = slots;
+        this.jsonEscaped = jsonEscaped;
+        int length = 0;
+        for (byte[] chunk : chunks) {
+            length += chunk.length;
+        }
+        this.staticLength = length;
+    }
+
+    /**
+     * Compiles a body into a template, or returns null if it has no placeholders and can be sent
+     * as it is. Values taken from the request are escaped for use inside JSON strings when
+     * {@code jsonEscaped} is set.
+     *
+     * @param pathTemplate the template of the endpoint's path, null for a plain path
+     */
+    public static ResponseTemplate compile(String body, PathTemplate pathTemplate, boolean jsonEscaped) {
+        if (body == null || !body.contains(OPEN)) {
+            return null;
+        }
+        List<byte[]> chunks = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < body.length()) {
+            int open = body.indexOf(OPEN, position);
+            int close = open >= 0 ? body.indexOf(CLOSE, open + OPEN.length()) : -1;
+            if (close < 0) {
+                break;
+            }
+            Slot slot = parseSlot(body.substring(open + OPEN.length(), close).trim(), pathTemplate);
+            if (slot == null) {
+                // Not a placeholder, keep the first brace and look again from the next character
+                literal.append(body, position, open + 1);
+                position = open + 1;
+                continue;
+            }
+            literal.append(body, position, open);
+            chunks.add(literal.toString().getBytes(StandardCharsets.UTF_8));
+            literal.setLength(0);
+            slots.add(slot);
+            position = close + CLOSE.length();
+        }
+        if (slots.isEmpty()) {
+            return null;
+        }
+        literal.append(body, position, body.length());
+        chunks.add(literal.toString().getBytes(StandardCharsets.UTF_8));
+        return new ResponseTemplate(chunks.toArray(byte[][]::new), slots.toArray(Slot[]::new), jsonEscaped);
+    }
+
+    private static Slot parseSlot(String expression, PathTemplate pathTemplate) {
+        switch (expression) {
+            case "request.id":
+                return new Slot(SlotType.REQUEST_ID, null, -1);
+            case "timestamp":
+                return new Slot(SlotType.TIMESTAMP, null, -1);
+            case "timestamp.millis":
+                return new Slot(SlotType.TIMESTAMP_MILLIS, null, -1);
+            case "uuid":
+                return new Slot(SlotType.UUID, null, -1);
+            default:
+                break;
+        }
+        if (expression.startsWith("query.") && expression.length() > "query.".length()) {
+            return new Slot(SlotType.QUERY_PARAMETER, expression.substring("query.".length()), -1);
+        }
+        if (expression.startsWith("path.") && pathTemplate != null) {
+            String name = expression.substring("path.".length());
+            int segment = pathTemplate.segmentOf(name);
+            return segment >= 0 ? new Slot(SlotType.PATH_VARIABLE, name, segment) : null;
+        }
+        return null;
+    }
+
+    /**
+     * Renders the template for a request
+     *
+     * @param requestPath the request path the endpoint's path template matched
+     */
+    public byte[] render(String requestPath, RequestView request) {
+        byte[][] values = new byte[slots.length][];
+        int length = staticLength;
+        long nowMillis = 0;
+        for (int i = 0; i < slots.length; i++) {
+            Slot slot = slots[i];
+            if (nowMillis == 0 && (slot.type() == SlotType.TIMESTAMP || slot.type() == SlotType.TIMESTAMP_MILLIS)) {
+                nowMillis = System.currentTimeMillis();
+            }
+            values[i] = value(slot, requestPath, request, nowMillis);
+            length += values[i].length;
+        }
+
+        byte[] rendered = new byte[length];
+        int position = 0;
+        for (int i = 0; i < slots.length; i++) {
+            System.arraycopy(chunks[i], 0, rendered, position, chunks[i].length);
+            position += chunks[i].length;
+            System.arraycopy(values[i], 0, rendered, position, values[i].length);
+            position += values[i].length;
+        }
+        byte[] last = chunks[slots.length];
+        System.arraycopy(last, 0, rendered, position, last.length);
+        return rendered;
+    }
+
+    private byte[] value(Slot slot, String requestPath, RequestView request, long nowMillis) {
+        return switch (slot.type()) {
+            case PATH_VARIABLE -> fromRequest(segment(requestPath, slot.segment()));
+            case QUERY_PARAMETER -> fromRequest(request.queryParameter(slot.name()));
+            case REQUEST_ID -> {
+                String requestId = request.header(REQUEST_ID_HEADER);
+                yield requestId != null ? fromRequest(requestId) : ascii(randomUuid());
+            }
+            case TIMESTAMP -> ascii(Instant.ofEpochMilli(nowMillis).toString());
+            case TIMESTAMP_MILLIS -> ascii(Long.toString(nowMillis));
+            case UUID -> ascii(randomUuid());
+        };
+    }
+
+    private byte[] fromRequest(String value) {
+        if (value == null || value.isEmpty()) {
+            return new byte[0];
+        }
+        return (jsonEscaped ? escapeJson(value) : value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the segment at the given index of a path, without the leading slash, or null if the
+     * path has fewer segments
+     */
+    static String segment(String path, int index) {
+        int start = 1;
+        for (int i = 0; i < index; i++) {
+            int slash = path.indexOf('/', start);
+            if (slash < 0) {
+                return null;
+            }
+            start = slash + 1;
+        }
+        if (start > path.length()) {
+            return null;
+        }
+        int end = path.indexOf('/', start);
+        return path.substring(start, end < 0 ? path.length() : end);
+    }
+
+    /**
+     * A version 4 UUID drawn from the thread's non-cryptographic generator, which is much cheaper
+     * than {@link UUID#randomUUID()} and good enough for identifiers in mock responses
+     */
+    private static String randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSignificantBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    /**
+     * Escapes a value for use inside a JSON string, returning it unchanged when nothing needs escaping
+     */
+    static String escapeJson(String value) {
+        int i = 0;
+        while (i < value.length() && !needsEscape(value.charAt(i))) {
+            i++;
+        }
+        if (i == value.length()) {
+            return value;
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+        for (; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static boolean needsEscape(char c) {
+        return c == '"' || c == '\\' || c < 0x20;
+    }
+
+    /**
+     * Number of placeholders in the template
+     */
+    public int slotCount() {
+        return slots.length;
+    }
+
+    private enum SlotType {
+        PATH_VARIABLE,
+        QUERY_PARAMETER,
+        REQUEST_ID,
+        TIMESTAMP,
+        TIMESTAMP_MILLIS,
+        UUID
+    }
+
+    /**
+     * A placeholder: the query parameter it reads or, for a path variable, its name and the segment
+     * of the request path holding its value
+     */
+    private record Slot(SlotType type, String name, int segment) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.kds.mock.route;
+
+import java.util.Map;
+
+/**
+ * The route a request path resolved to, with the values of the path variables of its template
+ * by name. The map is empty for routes configured with a plain path.
+ */
+public record RouteMatch(CompiledRoute route, Map<String, String> pathVariables) {
+}
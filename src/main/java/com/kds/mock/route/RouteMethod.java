@@ -0,0 +1,36 @@
+package com.kds.mock.route;
+
+/**
+ * The HTTP methods a mock endpoint can be configured for, used as the first level of the
+ * {@link RouteTable} index.
+ * <p>
+ * {@link #of(String)} resolves a request method by its length and characters rather than through
+ * a hash lookup or {@code valueOf}, since it runs for every mock request.
+ */
+public enum RouteMethod {
+    GET,
+    HEAD,
+    POST,
+    PUT,
+    PATCH,
+    DELETE,
+    OPTIONS;
+
+    /**
+     * Returns the method with exactly this name, or null for a method mock endpoints cannot be
+     * configured for. Method names are case-sensitive.
+     */
+    public static RouteMethod of(String method) {
+        if (method == null) {
+            return null;
+        }
+        return switch (method.length()) {
+            case 3 -> method.equals("GET") ? GET : method.equals("PUT") ? PUT : null;
+            case 4 -> method.equals("POST") ? POST : method.equals("HEAD") ? HEAD : null;
+            case 5 -> method.equals("PATCH") ? PATCH : null;
+            case 6 -> method.equals("DELETE") ? DELETE : null;
+            case 7 -> method.equals("OPTIONS") ? OPTIONS : null;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,413 @@
+package com.kds.mock.route;
+
+import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.entity.Endpoints;
+import com.kds.mock.entity.Headers;
+import com.kds.mock.entity.Responses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable snapshot of every configured mock endpoint, indexed by path.
+ * <p>
+ * A table is built once from the full contents of the endpoints, headers and responses tables
+ * and is never modified afterwards, so it can be read from any number of request threads
+ * without locking. Configuration changes are applied by building a new table and swapping it in.
+ * <p>
+ * Requests are resolved through a two-level index: an {@link EnumMap} from {@link RouteMethod} to
+ * the path index of the routes that have a response for that method. Each method can therefore
+ * be served by a different endpoint, and a request for a method a path has no response for falls
+ * through to the next matching template instead of hitting a route that cannot answer it.
+ * <p>
+ * Within a path index, plain paths are looked up in a hash map and always take precedence, since
+ * they are the most specific match a request path can have. Endpoints configured with a
+ * {@link PathTemplate} are compiled into a {@link PathTrie} that is only consulted when no plain
+ * path matches.
+ */
+@Slf4j
+public final class RouteTable {
+
+    public static final RouteTable EMPTY = new RouteTable(Map.of(), PathIndex.EMPTY, new EnumMap<>(RouteMethod.class));
+
+    /**
+     * Headers sent for endpoints that have none configured
+     */
+    private static final HttpHeaders DEFAULT_HEADERS;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
+        DEFAULT_HEADERS = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private final Map<String, CompiledRoute> routesByPath;
+    private final PathIndex anyMethod;
+    private final EnumMap<RouteMethod, PathIndex> byMethod;
+
+    private RouteTable(Map<String, CompiledRoute> routesByPath, PathIndex anyMethod, EnumMap<RouteMethod, PathIndex> byMethod) {
+        this.routesByPath = Map.copyOf(routesByPath);
+        this.anyMethod = anyMethod;
+        this.byMethod = byMethod;
+    }
+
+    /**
+     * Builds a table from detached entity lists. Headers and responses whose endpoint is not part
+     * of {@code endpoints} are ignored.
+     * <p>
+     * Each stored load test configuration is parsed exactly once with {@code configParser}. A stored
+     * configuration that can no longer be parsed is logged and the endpoint is served without
+     * load test simulation, rather than failing every request made to it.
+     */
+    public static RouteTable build(List<Endpoints> endpoints, List<Headers> headers, List<Responses> responses,
+                                   Function<String, LoadTestConfig> configParser) {
+        return build(endpoints, headers, responses, configParser, EMPTY);
+    }
+
+    /**
+     * Builds a table like {@link #build(List, List, List, Function)}, reusing the compressed variants
+     * of {@code previous} for response bodies and headers that have not changed, so a rebuild only
+     * compresses what was actually modified.
+     */
+    public static RouteTable build(List<Endpoints> endpoints, List<Headers> headers, List<Responses> responses,
+                                   Function<String, LoadTestConfig> configParser, RouteTable previous) {
+        Map<Long, HttpHeaders> headersByEndpoint = new HashMap<>();
+        for (Headers header : headers) {
+            if (header.getEndpoints() == null || header.getName() == null) {
+                continue;
+            }
+            headersByEndpoint.computeIfAbsent(header.getEndpoints().getId(), id -> new HttpHeaders())
+                    .add(header.getName(), header.getValue() != null ? header.getValue() : "");
+        }
+
+        Map<Long, Map<RouteMethod, Responses>> responsesByEndpoint = new HashMap<>();
+        Map<Long, Map<RouteMethod, List<Responses>>> variantsByEndpoint = new HashMap<>();
+        for (Responses response : responses) {
+            if (response.getEndpoints() == null || response.getMethod() == null) {
+                continue;
+            }
+            RouteMethod method = RouteMethod.of(response.getMethod().toUpperCase(Locale.ROOT));
+            if (method == null) {
+                log.warn("Ignoring response {} with unsupported method {}", response.getId(), response.getMethod());
+                continue;
+            }
+            if (response.isVariant()) {
+                variantsByEndpoint.computeIfAbsent(response.getEndpoints().getId(), id -> new EnumMap<>(RouteMethod.class))
+                        .computeIfAbsent(method, m -> new ArrayList<>())
+                        .add(response);
+            } else {
+                responsesByEndpoint.computeIfAbsent(response.getEndpoints().getId(), id -> new EnumMap<>(RouteMethod.class))
+                        .putIfAbsent(method, response);
+            }
+        }
+
+        Map<String, CompiledRoute> routes = new HashMap<>();
+        Map<String, CompiledRoute> exactRoutes = new HashMap<>();
+        List<TemplateRoute> templateRoutes = new ArrayList<>();
+        for (Endpoints endpoint : endpoints) {
+            if (endpoint.getPath() == null) {
+                continue;
+            }
+            HttpHeaders routeHeaders = headersByEndpoint.getOrDefault(endpoint.getId(), DEFAULT_HEADERS);
+            CompiledRoute previousRoute = previous.routesByPath.get(endpoint.getPath());
+            CompiledRoute reusable = previousRoute != null && previousRoute.headers().equals(routeHeaders) ? previousRoute : null;
+
+            PathTemplate template = parseTemplate(endpoint.getPath());
+
+            Map<RouteMethod, CompiledRoute.RouteResponse> compiledResponses = new EnumMap<>(RouteMethod.class);
+            responsesByEndpoint.getOrDefault(endpoint.getId(), Map.of()).forEach((method, response) ->
+                compiledResponses.put(method, compileResponse(method, response, endpoint.getStatusCode(), routeHeaders, template,
+                    reusable != null ? reusable.response(method) : null)));
+
+            Map<RouteMethod, List<CompiledRoute.ConditionalResponse>> conditionalResponses = new EnumMap<>(RouteMethod.class);
+            variantsByEndpoint.getOrDefault(endpoint.getId(), Map.of()).forEach((method, variants) -> {
+                CompiledRoute.RouteResponse defaultResponse = compiledResponses.get(method);
+                int statusCode = defaultResponse != null ? defaultResponse.statusCode() : endpoint.getStatusCode();
+                List<CompiledRoute.ConditionalResponse> compiled = compileVariants(endpoint, method, variants, statusCode, routeHeaders, template,
+                    reusable != null ? reusable.conditionalResponses(method) : List.of());
+                if (!compiled.isEmpty()) {
+                    conditionalResponses.put(method, compiled);
+                }
+            });
+
+            CompiledRoute route = new CompiledRoute(
+                endpoint.getId(),
+                endpoint.getPath(),
+                endpoint.getStatusCode(),
+                parseLoadTestConfig(endpoint, configParser),
+                routeHeaders,
+                compiledResponses,
+                conditionalResponses
+            );
+            routes.put(endpoint.getPath(), route);
+            if (template != null) {
+                templateRoutes.add(new TemplateRoute(template, route));
+            } else {
+                exactRoutes.put(endpoint.getPath(), route);
+            }
+        }
+
+        // Of two templates that only differ in variable names, the older one is always the one served
+        templateRoutes.sort(Comparator.comparing((TemplateRoute templateRoute) -> templateRoute.route().id(),
+            Comparator.nullsLast(Comparator.naturalOrder())));
+        EnumMap<RouteMethod, PathIndex> byMethod = new EnumMap<>(RouteMethod.class);
+        for (RouteMethod method : RouteMethod.values()) {
+            PathIndex index = PathIndex.of(method, exactRoutes, templateRoutes);
+            if (index != PathIndex.EMPTY) {
+                byMethod.put(method, index);
+            }
+        }
+        return new RouteTable(routes, PathIndex.of(null, exactRoutes, templateRoutes), byMethod);
+    }
+
+    /**
+     * Returns the template of a path that uses template syntax, null for a plain path. A stored
+     * template that can no longer be parsed is logged and served as a plain path.
+     */
+    private static PathTemplate parseTemplate(String path) {
+        if (!PathTemplate.isTemplate(path)) {
+            return null;
+        }
+        try {
+            return PathTemplate.parse(path);
+        } catch (IllegalArgumentException e) {
+            log.warn("Serving invalid path template as a plain path: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Compiles the variants of one method in the order they were configured. A variant whose stored
+     * matchers can no longer be compiled is logged and left out. Compressed bodies are reused from
+     * the variant at the same position in the previous table when its body is unchanged.
+     */
+    private static List<CompiledRoute.ConditionalResponse> compileVariants(Endpoints endpoint, RouteMethod method, List<Responses> variants,
+                                                                          int defaultStatusCode, HttpHeaders routeHeaders,
+                                                                          PathTemplate pathTemplate,
+                                                                          List<CompiledRoute.ConditionalResponse> previous) {
+        variants.sort(Comparator.comparing(Responses::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        List<CompiledRoute.ConditionalResponse> compiled = new ArrayList<>(variants.size());
+        for (Responses variant : variants) {
+            RequestPredicate predicate;
+            try {
+                predicate = RequestMatchers.compile(RequestMatchers.fromJson(variant.getMatchers()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring response variant {} of {} {} with invalid matchers: {}",
+                    variant.getId(), method, endpoint.getPath(), e.getMessage());
+                continue;
+            }
+            CompiledRoute.RouteResponse reusable = compiled.size() < previous.size() ? previous.get(compiled.size()).response() : null;
+            compiled.add(new CompiledRoute.ConditionalResponse(predicate,
+                compileResponse(method, variant, defaultStatusCode, routeHeaders, pathTemplate, reusable)));
+        }
+        return List.copyOf(compiled);
+    }
+
+    /**
+     * Encodes a response body, tags it with a strong ETag and, when worth it, compresses it. A response
+     * stored without a status code gets {@code defaultStatusCode}. The encoded and compressed bodies of
+     * a previously compiled response for the same body, content type and route headers are reused.
+     * <p>
+     * A body with placeholders is compiled into a {@link ResponseTemplate} against the endpoint's
+     * path template instead. Since it differs per request, it gets neither an ETag nor a gzip variant.
+     */
+    private static CompiledRoute.RouteResponse compileResponse(RouteMethod method, Responses response, int defaultStatusCode,
+                                                               HttpHeaders routeHeaders, PathTemplate pathTemplate,
+                                                               CompiledRoute.RouteResponse previous) {
+        int statusCode = response.getStatusCode() != null ? response.getStatusCode() : defaultStatusCode;
+        byte[] body = response.getBody() != null ? response.getBody().getBytes(StandardCharsets.UTF_8) : null;
+        if (previous != null && Arrays.equals(previous.body(), body) && Objects.equals(previous.contentType(), response.getContentType())) {
+            return previous.statusCode() == statusCode && previous.method() == method ? previous : new CompiledRoute.RouteResponse(
+                method, statusCode, previous.contentType(), previous.body(), previous.headers(), previous.gzipBody(), previous.gzipHeaders(),
+                previous.template());
+        }
+
+        ResponseTemplate template = ResponseTemplate.compile(response.getBody(), pathTemplate,
+            isJson(response.getContentType() != null ? response.getContentType() : routeHeaders.getFirst(HttpHeaders.CONTENT_TYPE)));
+        if (template != null) {
+            return new CompiledRoute.RouteResponse(method, statusCode, response.getContentType(), body, routeHeaders, null, null, template);
+        }
+
+        HttpHeaders identityHeaders = copyOf(routeHeaders);
+        // An ETag configured on the endpoint is served as is
+        String entityTag = body != null && !routeHeaders.containsKey(HttpHeaders.ETAG) ? EntityTags.of(body) : null;
+        if (entityTag != null) {
+            identityHeaders.setETag(entityTag);
+        }
+
+        byte[] gzipBody = GzipVariants.compress(body);
+        if (gzipBody == null) {
+            return new CompiledRoute.RouteResponse(method, statusCode, response.getContentType(), body, identityHeaders, null, null);
+        }
+
+        // Caches must not serve one variant to a client that asked for the other
+        identityHeaders.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        HttpHeaders gzipHeaders = copyOf(identityHeaders);
+        gzipHeaders.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        if (entityTag != null) {
+            gzipHeaders.setETag(EntityTags.gzipVariantOf(entityTag));
+        }
+
+        return new CompiledRoute.RouteResponse(method, statusCode, response.getContentType(), body, identityHeaders, gzipBody, gzipHeaders);
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json");
+    }
+
+    private static HttpHeaders copyOf(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach(copy::addAll);
+        return copy;
+    }
+
+    private static LoadTestConfig parseLoadTestConfig(Endpoints endpoint, Function<String, LoadTestConfig> configParser) {
+        try {
+            return configParser.apply(endpoint.getLoadTestConfig());
+        } catch (RuntimeException e) {
+            log.warn("Ignoring invalid load test configuration for endpoint {}: {}", endpoint.getPath(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the route configured for the request path regardless of its methods, or null if there is none
+     */
+    public CompiledRoute find(String path) {
+        return anyMethod.find(path);
+    }
+
+    /**
+     * Returns the route that serves the request method and path, or null if there is none. A HEAD
+     * request is served by the GET response of a path that has no HEAD response of its own, and an
+     * endpoint without any responses serves every method with its own status code.
+     */
+    public CompiledRoute find(RouteMethod method, String path) {
+        PathIndex index = method != null ? byMethod.get(method) : null;
+        CompiledRoute route = index != null ? index.find(path) : null;
+        if (route == null && method == RouteMethod.HEAD) {
+            route = find(RouteMethod.GET, path);
+        }
+        return route != null ? route : withoutResponses(anyMethod.find(path));
+    }
+
+    public CompiledRoute find(String method, String path) {
+        return find(RouteMethod.of(method), path);
+    }
+
+    /**
+     * Returns the route configured for the request path regardless of its methods together with
+     * the values of its path variables, or null if there is none
+     */
+    public RouteMatch match(String path) {
+        return anyMethod.match(path);
+    }
+
+    /**
+     * Returns the route that serves the request method and path together with the values of its
+     * path variables, or null if there is none. Falls back like {@link #find(RouteMethod, String)}.
+     */
+    public RouteMatch match(RouteMethod method, String path) {
+        PathIndex index = method != null ? byMethod.get(method) : null;
+        RouteMatch match = index != null ? index.match(path) : null;
+        if (match == null && method == RouteMethod.HEAD) {
+            match = match(RouteMethod.GET, path);
+        }
+        if (match != null) {
+            return match;
+        }
+        RouteMatch any = anyMethod.match(path);
+        return any != null && withoutResponses(any.route()) != null ? any : null;
+    }
+
+    private static CompiledRoute withoutResponses(CompiledRoute route) {
+        return route != null && route.methods().isEmpty() ? route : null;
+    }
+
+    public Set<String> paths() {
+        return routesByPath.keySet();
+    }
+
+    public int size() {
+        return routesByPath.size();
+    }
+
+    private record TemplateRoute(PathTemplate template, CompiledRoute route) {
+    }
+
+    /**
+     * Plain paths and templates of the routes that serve one method, or of every route
+     */
+    private record PathIndex(Map<String, CompiledRoute> exactRoutes, PathTrie templates) {
+
+        static final PathIndex EMPTY = new PathIndex(Map.of(), null);
+
+        /**
+         * Indexes the routes that have a response for {@code method}, or all routes when it is null.
+         * Templates are added in the order given, so an equivalent template added later is shadowed.
+         */
+        static PathIndex of(RouteMethod method, Map<String, CompiledRoute> exactRoutes, List<TemplateRoute> templateRoutes) {
+            Map<String, CompiledRoute> exact = new HashMap<>();
+            exactRoutes.forEach((path, route) -> {
+                if (method == null || route.serves(method)) {
+                    exact.put(path, route);
+                }
+            });
+            PathTrie trie = null;
+            for (TemplateRoute templateRoute : templateRoutes) {
+                if (method != null && !templateRoute.route().serves(method)) {
+                    continue;
+                }
+                if (trie == null) {
+                    trie = new PathTrie();
+                }
+                if (!trie.add(templateRoute.template(), templateRoute.route()) && method != null) {
+                    log.warn("Path template {} is shadowed for {} by an equivalent template configured before it",
+                        templateRoute.template(), method);
+                }
+            }
+            return exact.isEmpty() && trie == null ? EMPTY : new PathIndex(Map.copyOf(exact), trie);
+        }
+
+        CompiledRoute find(String path) {
+            if (path == null) {
+                return null;
+            }
+            CompiledRoute exact = exactRoutes.get(path);
+            if (exact != null || templates == null || !path.startsWith("/")) {
+                return exact;
+            }
+            PathTrie.Leaf leaf = templates.find(PathTemplate.segments(path));
+            return leaf != null ? leaf.route() : null;
+        }
+
+        RouteMatch match(String path) {
+            if (path == null) {
+                return null;
+            }
+            CompiledRoute exact = exactRoutes.get(path);
+            if (exact != null) {
+                return new RouteMatch(exact, Map.of());
+            }
+            if (templates == null || !path.startsWith("/")) {
+                return null;
+            }
+            String[] segments = PathTemplate.segments(path);
+            PathTrie.Leaf leaf = templates.find(segments);
+            return leaf != null ? new RouteMatch(leaf.route(), leaf.template().variables(segments)) : null;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.kds.mock.route;
+
+/**
+ * Published whenever mock endpoint configuration is written, so that the in-memory
+ * {@link RouteTable} can be rebuilt once the surrounding transaction has committed.
+ */
+public record RouteTableChangedEvent(String path) {
+}
@@ -0,0 +1,61 @@
+package com.kds.mock.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free rate limiter based on the generic cell rate algorithm (GCRA), the virtual scheduling
+ * form of a token bucket.
+ * <p>
+ * The whole limiter state is a single theoretical arrival time (TAT): the instant at which the
+ * bucket would be full again. Every admitted request moves it forward by one emission interval
+ * ({@code 1s / requestsPerSecond}) and a request is rejected when that would put the TAT more than
+ * {@code burstSize - 1} intervals ahead of now. Admission is a compare-and-set on the TAT, so
+ * concurrent callers can never admit more than {@code burstSize} requests at once or more than
+ * {@code burstSize + elapsed / interval} requests over any period, and no timer tasks are needed
+ * to release capacity.
+ */
+public final class GcraRateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * Creates a limiter whose full burst is available at {@code nowNanos}
+     */
+    public GcraRateLimiter(long nowNanos) {
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Tries to admit one request at {@code nowNanos}, a {@link System#nanoTime()} reading.
+     *
+     * @return true if the request is within the limit and has been counted, false if it must be rejected
+     */
+    public boolean tryAcquire(int requestsPerSecond, int burstSize, long nowNanos) {
+        long interval = emissionIntervalNanos(requestsPerSecond);
+        long tolerance = (Math.max(1, burstSize) - 1L) * interval;
+
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            // Compare by difference so the arithmetic stays correct if nanoTime wraps
+            long start = tat - nowNanos > 0 ? tat : nowNanos;
+            if (start - nowNanos > tolerance) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, start + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Rounded up, so rounding can only make the limiter stricter and never lets more than
+     * {@code requestsPerSecond} requests through in a second
+     */
+    private static long emissionIntervalNanos(int requestsPerSecond) {
+        long rate = Math.max(1, requestsPerSecond);
+        return (NANOS_PER_SECOND + rate - 1) / rate;
+    }
+}
@@ -0,0 +1,172 @@
+package com.kds.mock.service;
+
+import com.kds.mock.dto.LoadTestConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Semantic validation of load test configurations that bean validation cannot express,
+ * such as ordering between percentiles or bounds that only apply when a feature is enabled.
+ */
+public final class LoadTestConfigValidator {
+
+    // Units a recorded histogram can be in, milliseconds or finer so values convert to milliseconds exactly
+    private static final List<String> HISTOGRAM_UNITS = List.of("NANOSECONDS", "MICROSECONDS", "MILLISECONDS");
+
+    private LoadTestConfigValidator() {
+    }
+
+    /**
+     * Returns the list of validation errors for the configuration, empty if it is valid
+     */
+    public static List<String> validate(LoadTestConfig config) {
+        List<String> errors = new ArrayList<>();
+        if (config == null) {
+            return errors;
+        }
+
+        // Validate latency configuration
+        if (config.getLatencyConfig() != null) {
+            LoadTestConfig.LatencyConfig latency = config.getLatencyConfig();
+
+            if (latency.getP50() != null && latency.getP95() != null && latency.getP50() > latency.getP95()) {
+                errors.add("P50 latency (" + latency.getP50() + ") must be less than or equal to P95 latency (" + latency.getP95() + ")");
+            }
+            if (latency.getP95() != null && latency.getP99() != null && latency.getP95() > latency.getP99()) {
+                errors.add("P95 latency (" + latency.getP95() + ") must be less than or equal to P99 latency (" + latency.getP99() + ")");
+            }
+            if (latency.getP99() != null && latency.getP999() != null && latency.getP99() > latency.getP999()) {
+                errors.add("P99 latency (" + latency.getP99() + ") must be less than or equal to P999 latency (" + latency.getP999() + ")");
+            }
+
+            if (latency.getFixedLatencyMs() != null && latency.getFixedLatencyMs() < 0) {
+                errors.add("Fixed latency must be non-negative");
+            }
+
+            if (latency.getMinLatencyMs() != null && latency.getMaxLatencyMs() != null) {
+                if (latency.getMinLatencyMs() < 0) {
+                    errors.add("Min latency must be non-negative");
+                }
+                if (latency.getMaxLatencyMs() < 0) {
+                    errors.add("Max latency must be non-negative");
+                }
+                if (latency.getMinLatencyMs() > latency.getMaxLatencyMs()) {
+                    errors.add("Min latency must be less than or equal to max latency");
+                }
+            }
+
+            if (latency.getMeanLatencyMs() != null && latency.getStdDeviationMs() != null) {
+                if (latency.getMeanLatencyMs() < 0) {
+                    errors.add("Mean latency must be non-negative");
+                }
+                if (latency.getStdDeviationMs() < 0) {
+                    errors.add("Standard deviation must be non-negative");
+                }
+            }
+
+            if (latency.getShape() != null && !(latency.getShape() > 0)) {
+                errors.add("Shape must be positive");
+            }
+            if ("PARETO".equals(latency.getType()) && latency.getMinLatencyMs() != null && latency.getMinLatencyMs() <= 0) {
+                errors.add("Pareto latency requires a positive min latency as its scale");
+            }
+
+            if ("LINEAR".equals(latency.getPercentileInterpolation()) || "LOG_LINEAR".equals(latency.getPercentileInterpolation())) {
+                Long lowest = firstNonNull(latency.getP50(), latency.getP95(), latency.getP99(), latency.getP999());
+                Long highest = firstNonNull(latency.getP999(), latency.getP99(), latency.getP95(), latency.getP50());
+                if (lowest != null && latency.getMinLatencyMs() != null && latency.getMinLatencyMs() > lowest) {
+                    errors.add("Min latency (" + latency.getMinLatencyMs() + ") must not exceed the lowest percentile latency (" + lowest + ")");
+                }
+                if (highest != null && latency.getMaxLatencyMs() != null && latency.getMaxLatencyMs() < highest) {
+                    errors.add("Max latency (" + latency.getMaxLatencyMs() + ") must not be below the highest percentile latency (" + highest + ")");
+                }
+            }
+
+            if ("HISTOGRAM".equals(latency.getType())) {
+                if (latency.getHistogram() == null && latency.getHistogramCsv() == null) {
+                    errors.add("Histogram latency requires a histogram or histogramCsv");
+                } else if (latency.getHistogram() != null && latency.getHistogramCsv() != null) {
+                    errors.add("Histogram latency takes either a histogram or histogramCsv, not both");
+                } else if (latency.getHistogramUnit() != null && !HISTOGRAM_UNITS.contains(latency.getHistogramUnit())) {
+                    errors.add("Invalid histogram unit: " + latency.getHistogramUnit() + ", must be one of " + HISTOGRAM_UNITS);
+                } else {
+                    try {
+                        latency.sampler();
+                    } catch (IllegalArgumentException e) {
+                        errors.add(e.getMessage());
+                    }
+                }
+            }
+        }
+
+        // Validate error configuration
+        if (config.getErrorConfig() != null && Boolean.TRUE.equals(config.getErrorConfig().getEnabled())) {
+            Double errorRate = config.getErrorConfig().getErrorRate();
+            if (errorRate != null && (errorRate < 0 || errorRate > 1)) {
+                errors.add("Error rate (" + errorRate + ") must be between 0 and 1");
+            }
+        }
+
+        // Validate timeout configuration
+        if (config.getTimeoutConfig() != null && Boolean.TRUE.equals(config.getTimeoutConfig().getEnabled())) {
+            Double timeoutProb = config.getTimeoutConfig().getTimeoutProbability();
+            if (timeoutProb != null && (timeoutProb < 0 || timeoutProb > 1)) {
+                errors.add("Timeout probability (" + timeoutProb + ") must be between 0 and 1");
+            }
+
+            Long timeoutMs = config.getTimeoutConfig().getTimeoutMs();
+            if (timeoutMs != null && timeoutMs <= 0) {
+                errors.add("Timeout duration must be positive");
+            }
+        }
+
+        // Validate rate limit configuration
+        if (config.getRateLimitConfig() != null && Boolean.TRUE.equals(config.getRateLimitConfig().getEnabled())) {
+            Integer rps = config.getRateLimitConfig().getRequestsPerSecond();
+            if (rps != null && rps <= 0) {
+                errors.add("Requests per second must be positive");
+            }
+
+            Integer burstSize = config.getRateLimitConfig().getBurstSize();
+            if (burstSize != null && burstSize <= 0) {
+                errors.add("Burst size must be positive");
+            }
+        }
+
+        // Validate throttle configuration
+        if (config.getThrottleConfig() != null && Boolean.TRUE.equals(config.getThrottleConfig().getEnabled())) {
+            LoadTestConfig.ThrottleConfig throttle = config.getThrottleConfig();
+            if (throttle.getBytesPerSecond() == null || throttle.getBytesPerSecond() <= 0) {
+                errors.add("Bytes per second must be positive");
+            }
+            if (throttle.getChunkSizeBytes() == null || throttle.getChunkSizeBytes() <= 0) {
+                errors.add("Chunk size must be positive");
+            }
+            if (throttle.getTimeToFirstByteMs() != null && throttle.getTimeToFirstByteMs() < 0) {
+                errors.add("Time to first byte must be non-negative");
+            }
+        }
+
+        return errors;
+    }
+
+    /**
+     * Throws an {@link IllegalArgumentException} listing every validation error if the configuration is invalid
+     */
+    public static void requireValid(LoadTestConfig config) {
+        List<String> errors = validate(config);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid load test configuration: " + String.join("; ", errors));
+        }
+    }
+
+    private static Long firstNonNull(Long... values) {
+        for (Long value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
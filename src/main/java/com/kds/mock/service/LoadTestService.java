@@ -3,25 +3,35 @@ package com.kds.mock.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.latency.Distributions;
+import com.kds.mock.latency.LatencySampler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PreDestroy;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
 
 @Service
 @Slf4j
 public class LoadTestService {
     
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    // Upper bound on latencies drawn from unbounded distributions when no maximum is configured
+    static final long DEFAULT_LATENCY_CAP_MS = 60_000;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Random random = new Random();
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(10);
     
-    // Rate limiting tracking per endpoint
-    private final ConcurrentHashMap<String, RateLimitTracker> rateLimitTrackers = new ConcurrentHashMap<>();
+    // Rate limiting state per endpoint, replaced as a whole on a global reset
+    private volatile ConcurrentHashMap<String, GcraRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    
+    // Request sequence per endpoint with a configured seed
+    private volatile ConcurrentHashMap<String, SeededSequence> seededSequences = new ConcurrentHashMap<>();
     
     @PreDestroy
     public void shutdown() {
@@ -40,22 +50,80 @@ public class LoadTestService {
      * Simulates latency based on the configured load test settings
      */
     public void simulateLatency(LoadTestConfig config) throws InterruptedException {
+        long latencyMs = calculateLatencyMs(config);
+        
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+    }
+    
+    /**
+     * Draws the latency in milliseconds to inject for a single request, 0 if no latency is configured
+     */
+    public long calculateLatencyMs(LoadTestConfig config) {
+        return calculateLatencyMs(config, ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Draws the latency in milliseconds to inject for a single request from the given generator
+     */
+    public long calculateLatencyMs(LoadTestConfig config, RandomGenerator random) {
         if (config == null || config.getLatencyConfig() == null) {
-            return;
+            return 0;
         }
         
-        LoadTestConfig.LatencyConfig latencyConfig = config.getLatencyConfig();
-        long latencyMs = calculateLatency(latencyConfig);
+        return calculateLatency(config.getLatencyConfig(), random);
+    }
+    
+    /**
+     * Returns the generator to draw every fault injection decision of one request from.
+     * <p>
+     * Without a configured seed this is the calling thread's {@link ThreadLocalRandom}, so concurrent
+     * requests never share generator state. With a seed, the n-th request to the endpoint gets a
+     * generator derived from the seed and n alone, so the same sequence of requests sees the same
+     * timeouts, errors and latencies on every run regardless of which threads serve them.
+     */
+    public RandomGenerator newRequestRandom(String endpointPath, LoadTestConfig config) {
+        if (config == null || config.getSeed() == null) {
+            return ThreadLocalRandom.current();
+        }
         
-        if (latencyMs > 0) {
-            Thread.sleep(latencyMs);
+        long seed = config.getSeed();
+        ConcurrentHashMap<String, SeededSequence> sequences = seededSequences;
+        SeededSequence sequence = sequences.get(endpointPath);
+        if (sequence == null || sequence.seed() != seed) {
+            // A changed seed restarts the sequence
+            sequence = sequences.compute(endpointPath,
+                (k, current) -> current != null && current.seed() == seed ? current : new SeededSequence(seed, new AtomicLong()));
+        }
+        return new SplittableRandom(mix64(seed + (sequence.next().getAndIncrement() + 1) * GOLDEN_GAMMA));
+    }
+    
+    /**
+     * Returns a future that completes with the given value once the delay has elapsed.
+     * The delay is tracked by the shared scheduler, so no thread is held while waiting.
+     */
+    public <T> CompletableFuture<T> completeAfter(T value, long delayMs) {
+        if (delayMs <= 0) {
+            return CompletableFuture.completedFuture(value);
         }
+        
+        CompletableFuture<T> future = new CompletableFuture<>();
+        scheduler.schedule(() -> future.complete(value), delayMs, TimeUnit.MILLISECONDS);
+        return future;
     }
     
     /**
      * Checks if a timeout should occur based on configuration
      */
     public boolean shouldTimeout(LoadTestConfig config) {
+        return shouldTimeout(config, ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Checks if a timeout should occur, drawing from the given generator
+     */
+    public boolean shouldTimeout(LoadTestConfig config, RandomGenerator random) {
         if (config == null || config.getTimeoutConfig() == null || !config.getTimeoutConfig().getEnabled()) {
             return false;
         }
@@ -68,6 +136,13 @@ public class LoadTestService {
      * Checks if an error should be generated based on configuration
      */
     public boolean shouldGenerateError(LoadTestConfig config) {
+        return shouldGenerateError(config, ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Checks if an error should be generated, drawing from the given generator
+     */
+    public boolean shouldGenerateError(LoadTestConfig config, RandomGenerator random) {
         if (config == null || config.getErrorConfig() == null || !config.getErrorConfig().getEnabled()) {
             return false;
         }
@@ -80,6 +155,13 @@ public class LoadTestService {
      * Gets a random error status code from the configuration
      */
     public int getRandomErrorStatusCode(LoadTestConfig config) {
+        return getRandomErrorStatusCode(config, ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Gets a random error status code from the configuration, drawing from the given generator
+     */
+    public int getRandomErrorStatusCode(LoadTestConfig config, RandomGenerator random) {
         if (config == null || config.getErrorConfig() == null) {
             return 500;
         }
@@ -117,9 +199,48 @@ public class LoadTestService {
         }
         
         LoadTestConfig.RateLimitConfig rateLimitConfig = config.getRateLimitConfig();
-        RateLimitTracker tracker = rateLimitTrackers.computeIfAbsent(endpointPath, k -> new RateLimitTracker());
+        int requestsPerSecond = rateLimitConfig.getRequestsPerSecond() != null ? rateLimitConfig.getRequestsPerSecond() : 100;
+        int burstSize = rateLimitConfig.getBurstSize() != null ? rateLimitConfig.getBurstSize() : 10;
+        long now = System.nanoTime();
+        ConcurrentHashMap<String, GcraRateLimiter> limiters = rateLimiters;
+        GcraRateLimiter limiter = limiters.get(endpointPath);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(endpointPath, k -> new GcraRateLimiter(now));
+        }
         
-        return tracker.isRateLimitExceeded(rateLimitConfig.getRequestsPerSecond(), rateLimitConfig.getBurstSize(), scheduler);
+        return !limiter.tryAcquire(requestsPerSecond, burstSize, now);
+    }
+    
+    /**
+     * Drops the rate limiter and seeded request sequence of every endpoint. The state is swapped
+     * out in one step, so a request sees either the old state or a fresh one, never a mix.
+     */
+    public void resetState() {
+        rateLimiters = new ConcurrentHashMap<>();
+        seededSequences = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Drops the rate limiter and seeded request sequence of a single endpoint
+     */
+    public void resetState(String endpointPath) {
+        rateLimiters.remove(endpointPath);
+        seededSequences.remove(endpointPath);
+    }
+    
+    /**
+     * Drops the state of every endpoint that is not in the given set of configured paths
+     */
+    public void retainEndpoints(Set<String> endpointPaths) {
+        rateLimiters.keySet().retainAll(endpointPaths);
+        seededSequences.keySet().retainAll(endpointPaths);
+    }
+    
+    /**
+     * Returns the number of endpoints that currently hold rate limiter state
+     */
+    public int getRateLimiterCount() {
+        return rateLimiters.size();
     }
     
     /**
@@ -130,11 +251,17 @@ public class LoadTestService {
             return null;
         }
         
+        LoadTestConfig config;
         try {
-            return objectMapper.readValue(configJson, LoadTestConfig.class);
+            config = objectMapper.readValue(configJson, LoadTestConfig.class);
         } catch (JsonProcessingException e) {
             throw new IllegalArgumentException("Invalid load test configuration JSON: " + e.getMessage());
         }
+        // Precompute latency tables here, once per parsed configuration, rather than on a request
+        if (config.getLatencyConfig() != null) {
+            config.getLatencyConfig().sampler();
+        }
+        return config;
     }
     
     /**
@@ -152,30 +279,60 @@ public class LoadTestService {
         }
     }
     
-    private long calculateLatency(LoadTestConfig.LatencyConfig config) {
+    private long calculateLatency(LoadTestConfig.LatencyConfig config, RandomGenerator random) {
         return switch (config.getType()) {
             case "FIXED" -> config.getFixedLatencyMs() != null ? config.getFixedLatencyMs() : 0;
-            case "RANDOM" -> calculateRandomLatency(config);
-            case "NORMAL_DISTRIBUTION" -> calculateNormalDistributionLatency(config);
-            case "PERCENTILE" -> calculatePercentileLatency(config);
+            case "RANDOM" -> calculateRandomLatency(config, random);
+            case "NORMAL_DISTRIBUTION" -> calculateNormalDistributionLatency(config, random);
+            case "PERCENTILE" -> calculatePercentileLatency(config, random);
+            case "HISTOGRAM" -> capLatency(config, config.sampler().sampleMs(random));
+            case "LOG_NORMAL" -> capLatency(config, Distributions.logNormal(random,
+                meanLatencyMs(config), config.getStdDeviationMs() != null ? config.getStdDeviationMs() : 50.0));
+            case "PARETO" -> capLatency(config, Distributions.pareto(random,
+                config.getMinLatencyMs() != null ? config.getMinLatencyMs() : 100, shape(config)));
+            case "EXPONENTIAL" -> capLatency(config, Distributions.exponential(random, meanLatencyMs(config)));
+            case "GAMMA" -> capLatency(config, Distributions.gamma(random, shape(config), meanLatencyMs(config) / shape(config)));
             default -> 0;
         };
     }
 
-    private long calculateRandomLatency(LoadTestConfig.LatencyConfig config) {
+    private long calculateRandomLatency(LoadTestConfig.LatencyConfig config, RandomGenerator random) {
         long min = config.getMinLatencyMs() != null ? config.getMinLatencyMs() : 0;
         long max = config.getMaxLatencyMs() != null ? config.getMaxLatencyMs() : 1000;
         return min + (long) (random.nextDouble() * (max - min));
     }
 
-    private long calculateNormalDistributionLatency(LoadTestConfig.LatencyConfig config) {
+    private long calculateNormalDistributionLatency(LoadTestConfig.LatencyConfig config, RandomGenerator random) {
         double mean = config.getMeanLatencyMs() != null ? config.getMeanLatencyMs() : 200.0;
         double stdDev = config.getStdDeviationMs() != null ? config.getStdDeviationMs() : 50.0;
         double value = random.nextGaussian() * stdDev + mean;
         return Math.max(0, Math.round(value));
     }
     
-    private long calculatePercentileLatency(LoadTestConfig.LatencyConfig config) {
+    private static double meanLatencyMs(LoadTestConfig.LatencyConfig config) {
+        return config.getMeanLatencyMs() != null ? config.getMeanLatencyMs() : 200.0;
+    }
+
+    private static double shape(LoadTestConfig.LatencyConfig config) {
+        return config.getShape() != null ? config.getShape() : 2.0;
+    }
+
+    /**
+     * Rounds a latency drawn from an unbounded distribution or an observed histogram and caps it at the
+     * configured maximum, so a single draw from the tail cannot hold a request for longer than the test can wait
+     */
+    private static long capLatency(LoadTestConfig.LatencyConfig config, double latencyMs) {
+        long cap = config.getMaxLatencyMs() != null ? config.getMaxLatencyMs() : DEFAULT_LATENCY_CAP_MS;
+        return Math.min(cap, Math.max(0, Math.round(latencyMs)));
+    }
+    
+    private long calculatePercentileLatency(LoadTestConfig.LatencyConfig config, RandomGenerator random) {
+        // Interpolated percentiles are precomputed into an inverse CDF table
+        LatencySampler interpolated = config.sampler();
+        if (interpolated != null) {
+            return interpolated.sampleMs(random);
+        }
+        
         double percentile = random.nextDouble() * 100;
         
         if (percentile <= 50 && config.getP50() != null) {
@@ -208,41 +365,14 @@ public class LoadTestService {
     }
     
     /**
-     * Rate limiting tracker for individual endpoints
+     * SplitMix64 finalizer, spreads consecutive inputs over the whole long range
      */
-    private static class RateLimitTracker {
-        private final AtomicInteger currentRequests = new AtomicInteger(0);
-        private final AtomicLong windowStartTime = new AtomicLong(System.currentTimeMillis());
-        private final AtomicInteger windowRequestCount = new AtomicInteger(0);
-        
-        public boolean isRateLimitExceeded(int requestsPerSecond, int burstSize, ScheduledExecutorService scheduler) {
-            long currentTime = System.currentTimeMillis();
-            long windowStart = windowStartTime.get();
-            
-            // Reset window if 1 second has passed
-            if (currentTime - windowStart >= 1000) {
-                windowStartTime.set(currentTime);
-                windowRequestCount.set(0);
-            }
-            
-            // Check burst limit
-            if (currentRequests.get() >= burstSize) {
-                return true;
-            }
-            
-            // Check rate limit
-            if (windowRequestCount.get() >= requestsPerSecond) {
-                return true;
-            }
-            
-            // Increment counters
-            currentRequests.incrementAndGet();
-            windowRequestCount.incrementAndGet();
-            
-            // Schedule decrement after 1 second using the shared scheduler
-            scheduler.schedule(() -> currentRequests.decrementAndGet(), 1, TimeUnit.SECONDS);
-            
-            return false;
-        }
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    private record SeededSequence(long seed, AtomicLong next) {
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,7 +1,22 @@
 package com.kds.mock.service;
 
 import com.kds.mock.dto.MockResponse;
+import com.kds.mock.route.RequestView;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface MockService {
-    MockResponse getMockResponseByPathAndMethod(String path, String method);
+    MockResponse getMockResponseByPathAndMethod(String path, String method, RequestView request);
+    CompletableFuture<MockResponse> getMockResponseByPathAndMethodAsync(String path, String method, RequestView request);
+
+    /**
+     * Resolves the response without request details, so only responses without matchers are served
+     */
+    default MockResponse getMockResponseByPathAndMethod(String path, String method) {
+        return getMockResponseByPathAndMethod(path, method, RequestView.NONE);
+    }
+
+    default CompletableFuture<MockResponse> getMockResponseByPathAndMethodAsync(String path, String method) {
+        return getMockResponseByPathAndMethodAsync(path, method, RequestView.NONE);
+    }
 }
@@ -0,0 +1,203 @@
+package com.kds.mock.service;
+
+import com.kds.mock.dto.MockResponse;
+import com.kds.mock.route.RouteMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwards mock requests that match no configured endpoint to an upstream service and records
+ * the answers as new endpoints.
+ * <p>
+ * In {@link Mode#REPLAY}, the default, nothing is forwarded and requests are only ever served from
+ * the route table, recordings included. In {@link Mode#RECORD} a request that matches no endpoint
+ * is sent to {@code mock.proxy.upstream-url} and the upstream's status, headers, body and response
+ * time are handed to the {@link RecordingWriter}, which stores them in batches. Once stored, the
+ * path is served from the route table like any other endpoint, so each method and path is only
+ * forwarded until its recording has been written.
+ * <p>
+ * Requests are sent with a single {@link HttpClient}, which keeps a pool of connections to the
+ * upstream and completes exchanges asynchronously, so no request thread waits for the upstream.
+ * {@code Accept-Encoding} is not forwarded, so the upstream answers with uncompressed bodies that
+ * can be stored as text.
+ */
+@Service
+@Slf4j
+public class RecordingProxyService {
+
+    public enum Mode {
+        REPLAY,
+        RECORD
+    }
+
+    // Connection-level headers that only apply to a single hop, RFC 9110 section 7.6.1
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+        "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "proxy-connection",
+        "te", "trailer", "transfer-encoding", "upgrade"
+    );
+
+    // Headers the client sets itself, or that would ask for a compressed body
+    private static final Set<String> SKIPPED_REQUEST_HEADERS = Set.of("host", "content-length", "expect", "accept-encoding");
+
+    // Headers that describe the upstream's encoding of this particular exchange rather than the response
+    private static final Set<String> SKIPPED_RESPONSE_HEADERS = Set.of("content-length", "content-encoding", "date");
+
+    // Size limit of the TEXT column responses are stored in
+    static final int MAX_RECORDED_BODY_BYTES = 65_535;
+
+    private final RecordingWriter recordingWriter;
+    private final Mode mode;
+    private final String upstreamUrl;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+
+    public RecordingProxyService(RecordingWriter recordingWriter,
+                                 @Value("${mock.proxy.mode:REPLAY}") Mode mode,
+                                 @Value("${mock.proxy.upstream-url:}") String upstreamUrl,
+                                 @Value("${mock.proxy.connect-timeout:5s}") Duration connectTimeout,
+                                 @Value("${mock.proxy.request-timeout:30s}") Duration requestTimeout) {
+        if (mode == Mode.RECORD && (upstreamUrl == null || upstreamUrl.isBlank())) {
+            throw new IllegalStateException("mock.proxy.upstream-url must be set when mock.proxy.mode is RECORD");
+        }
+        this.recordingWriter = recordingWriter;
+        this.mode = mode;
+        this.upstreamUrl = upstreamUrl != null && upstreamUrl.endsWith("/")
+            ? upstreamUrl.substring(0, upstreamUrl.length() - 1)
+            : upstreamUrl;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = mode == Mode.RECORD
+            ? HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build()
+            : null;
+        if (mode == Mode.RECORD) {
+            log.info("Recording unmatched mock requests from {}", this.upstreamUrl);
+        }
+    }
+
+    /**
+     * Returns true if unmatched requests are forwarded to the upstream and recorded
+     */
+    public boolean isRecording() {
+        return mode == Mode.RECORD;
+    }
+
+    /**
+     * Sends a request to the upstream and completes with its response, or with a 502 response if the
+     * upstream could not be reached. The exchange is recorded unless its method cannot be configured
+     * on a mock endpoint or its body is too large or not text that can be stored.
+     *
+     * @param path        the raw request path, also used as the path of the recorded endpoint
+     * @param queryString the raw query string, or null if there is none
+     */
+    public CompletableFuture<MockResponse> forward(String method, String path, String queryString,
+                                                   HttpHeaders headers, byte[] body) {
+        if (!isRecording()) {
+            throw new IllegalStateException("Requests are only forwarded in RECORD mode");
+        }
+        HttpRequest request;
+        try {
+            request = buildRequest(method, path, queryString, headers, body);
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot forward {} {}: {}", method, path, e.getMessage());
+            return CompletableFuture.completedFuture(badGateway());
+        }
+
+        long startNanos = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(upstreamResponse -> {
+                long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                HttpHeaders responseHeaders = responseHeaders(upstreamResponse.headers().map());
+                byte[] responseBody = upstreamResponse.body();
+                record(method, path, upstreamResponse.statusCode(), responseHeaders, responseBody, latencyMs);
+                return new MockResponse(upstreamResponse.statusCode(), responseHeaders, responseBody.length > 0 ? responseBody : null);
+            })
+            .exceptionally(failure -> {
+                log.warn("Failed to forward {} {} to {}: {}", method, path, upstreamUrl, failure.getMessage());
+                return badGateway();
+            });
+    }
+
+    private HttpRequest buildRequest(String method, String path, String queryString, HttpHeaders headers, byte[] body) {
+        URI uri = URI.create(upstreamUrl + path + (queryString != null && !queryString.isEmpty() ? "?" + queryString : ""));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+            .timeout(requestTimeout)
+            .method(method, body != null && body.length > 0
+                ? HttpRequest.BodyPublishers.ofByteArray(body)
+                : HttpRequest.BodyPublishers.noBody());
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                String lowerCaseName = name.toLowerCase(Locale.ROOT);
+                if (HOP_BY_HOP_HEADERS.contains(lowerCaseName) || SKIPPED_REQUEST_HEADERS.contains(lowerCaseName)) {
+                    return;
+                }
+                for (String value : values) {
+                    try {
+                        builder.header(name, value);
+                    } catch (IllegalArgumentException e) {
+                        log.debug("Not forwarding header {}: {}", name, e.getMessage());
+                    }
+                }
+            });
+        }
+        return builder.build();
+    }
+
+    private void record(String method, String path, int statusCode, HttpHeaders headers, byte[] body, long latencyMs) {
+        if (RouteMethod.of(method) == null) {
+            return;
+        }
+        if (body.length > MAX_RECORDED_BODY_BYTES) {
+            log.warn("Not recording {} {}: body of {} bytes is too large to store", method, path, body.length);
+            return;
+        }
+        String text;
+        try {
+            text = body.length > 0 ? StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(body)).toString() : null;
+        } catch (CharacterCodingException e) {
+            log.warn("Not recording {} {}: body is not UTF-8 text", method, path);
+            return;
+        }
+        recordingWriter.record(new RecordingWriter.Recording(method, path, statusCode, headers,
+            headers.getFirst(HttpHeaders.CONTENT_TYPE), text, latencyMs));
+    }
+
+    private static HttpHeaders responseHeaders(Map<String, List<String>> upstreamHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        upstreamHeaders.forEach((name, values) -> {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            // Pseudo headers such as :status are not part of the response headers
+            if (!name.startsWith(":") && !HOP_BY_HOP_HEADERS.contains(lowerCaseName) && !SKIPPED_RESPONSE_HEADERS.contains(lowerCaseName)) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+    private static MockResponse badGateway() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
+        return new MockResponse(HttpStatus.BAD_GATEWAY.value(), headers,
+            "{\"error\": \"Bad Gateway\", \"message\": \"Upstream request failed\", \"statusCode\": 502}");
+    }
+}
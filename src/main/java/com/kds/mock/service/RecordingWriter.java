@@ -0,0 +1,256 @@
+package com.kds.mock.service;
+
+import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.entity.Endpoints;
+import com.kds.mock.entity.Headers;
+import com.kds.mock.entity.Responses;
+import com.kds.mock.repository.EndpointsRepository;
+import com.kds.mock.repository.HeadersRepository;
+import com.kds.mock.repository.ResponsesRepository;
+import com.kds.mock.route.PathTemplate;
+import com.kds.mock.route.RouteTableChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persists exchanges captured by the recording proxy as mock endpoints.
+ * <p>
+ * Recordings are queued by the request threads and written by a single background thread in
+ * batches: each batch is stored in one transaction with one {@code saveAll} per table and triggers
+ * a single route table rebuild, however many endpoints it adds. A batch is written once it is full
+ * or when the flush interval elapses, whichever comes first. The background thread is started by the
+ * first recording, so outside of recording mode the writer never wakes up.
+ * <p>
+ * Only the first exchange for each method and path is kept. A recording for a path that is already
+ * configured is added to that endpoint if it has no response for the method yet, and dropped
+ * otherwise, so recording never overwrites hand-made configuration. Paths that look like a path
+ * template, such as one with a literal {@code **} segment, are not recorded, since they would be
+ * stored as a template that matches other paths.
+ */
+@Service
+@Slf4j
+public class RecordingWriter {
+
+    static final String DESCRIPTION = "Recorded from upstream";
+
+    // Column sizes of the endpoints and headers tables
+    static final int MAX_PATH_LENGTH = 512;
+    static final int MAX_HEADER_LENGTH = 255;
+
+    private final EndpointsRepository endpointsRepository;
+    private final HeadersRepository headersRepository;
+    private final ResponsesRepository responsesRepository;
+    private final LoadTestService loadTestService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean recordLatency;
+    private final long flushIntervalMs;
+
+    private final BlockingQueue<Recording> queue;
+    private final Set<String> queuedKeys = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "recording-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean started;
+
+    public RecordingWriter(EndpointsRepository endpointsRepository,
+                           HeadersRepository headersRepository,
+                           ResponsesRepository responsesRepository,
+                           LoadTestService loadTestService,
+                           ApplicationEventPublisher eventPublisher,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${mock.proxy.batch-size:100}") int batchSize,
+                           @Value("${mock.proxy.queue-capacity:10000}") int queueCapacity,
+                           @Value("${mock.proxy.flush-interval:1s}") Duration flushInterval,
+                           @Value("${mock.proxy.record-latency:false}") boolean recordLatency) {
+        this.endpointsRepository = endpointsRepository;
+        this.headersRepository = headersRepository;
+        this.responsesRepository = responsesRepository;
+        this.loadTestService = loadTestService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.recordLatency = recordLatency;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushIntervalMs = Math.max(1, flushInterval.toMillis());
+    }
+
+    private synchronized void start() {
+        if (!started) {
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+            started = true;
+        }
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+
+    /**
+     * Queues an exchange to be persisted. Returns false if it was not queued: because an exchange
+     * for the same method and path is already waiting, because it cannot be stored, or because
+     * the queue is full.
+     */
+    public boolean record(Recording recording) {
+        if (recording.path().length() > MAX_PATH_LENGTH) {
+            log.debug("Not recording {} {}: path is too long", recording.method(), recording.path());
+            return false;
+        }
+        if (PathTemplate.isTemplate(recording.path())) {
+            // Stored as is, the path would become a template route that shadows or breaks other paths
+            log.debug("Not recording {} {}: path uses path template syntax", recording.method(), recording.path());
+            return false;
+        }
+        if (!started) {
+            start();
+        }
+        String key = recording.key();
+        if (!queuedKeys.add(key)) {
+            return false;
+        }
+        if (!queue.offer(recording)) {
+            queuedKeys.remove(key);
+            log.warn("Recording queue is full, dropping {} {}", recording.method(), recording.path());
+            return false;
+        }
+        if (queue.size() >= batchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+        return true;
+    }
+
+    /**
+     * Persists every queued recording, one batch at a time, and returns the number of responses stored
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            int stored = 0;
+            List<Recording> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    Integer persisted = transactionTemplate.execute(status -> persist(batch));
+                    stored += persisted != null ? persisted : 0;
+                } finally {
+                    batch.forEach(recording -> queuedKeys.remove(recording.key()));
+                    batch.clear();
+                }
+            }
+            return stored;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            int stored = flush();
+            if (stored > 0) {
+                log.info("Stored {} recorded responses", stored);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to store recorded responses: {}", e.getMessage(), e);
+        }
+    }
+
+    private int persist(List<Recording> batch) {
+        Map<String, Endpoints> endpointsByPath = new HashMap<>();
+        Set<String> storedKeys = new HashSet<>();
+        List<Endpoints> newEndpoints = new ArrayList<>();
+        List<Headers> newHeaders = new ArrayList<>();
+        List<Responses> newResponses = new ArrayList<>();
+
+        for (Recording recording : batch) {
+            Endpoints endpoint = endpointsByPath.computeIfAbsent(recording.path(), endpointsRepository::findEndpointByPath);
+            if (endpoint == null) {
+                endpoint = new Endpoints(recording.path(), recording.statusCode(), DESCRIPTION);
+                if (recordLatency) {
+                    endpoint.setLoadTestConfig(loadTestService.toJson(fixedLatency(recording.latencyMs())));
+                }
+                newEndpoints.add(endpoint);
+                endpointsByPath.put(recording.path(), endpoint);
+                newHeaders.addAll(toHeaders(endpoint, recording.headers()));
+            } else if (storedKeys.contains(recording.key()) || (endpoint.getId() != null
+                    && !responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(endpoint.getId(), recording.method()).isEmpty())) {
+                log.debug("Not recording {} {}: already configured", recording.method(), recording.path());
+                continue;
+            }
+            newResponses.add(new Responses(endpoint, recording.method(), recording.statusCode(), recording.contentType(), recording.body()));
+            storedKeys.add(recording.key());
+        }
+
+        if (newResponses.isEmpty()) {
+            return 0;
+        }
+        endpointsRepository.saveAll(newEndpoints);
+        headersRepository.saveAll(newHeaders);
+        responsesRepository.saveAll(newResponses);
+        // One rebuild for the whole batch, run once the transaction has committed
+        eventPublisher.publishEvent(new RouteTableChangedEvent(batch.get(0).path()));
+        return newResponses.size();
+    }
+
+    private static List<Headers> toHeaders(Endpoints endpoint, HttpHeaders headers) {
+        List<Headers> rows = new ArrayList<>();
+        headers.forEach((name, values) -> {
+            for (String value : values) {
+                if (name.length() <= MAX_HEADER_LENGTH && value.length() <= MAX_HEADER_LENGTH) {
+                    rows.add(new Headers(endpoint, name, value));
+                }
+            }
+        });
+        return rows;
+    }
+
+    private static LoadTestConfig fixedLatency(long latencyMs) {
+        LoadTestConfig.LatencyConfig latencyConfig = new LoadTestConfig.LatencyConfig();
+        latencyConfig.setType("FIXED");
+        latencyConfig.setFixedLatencyMs(latencyMs);
+        LoadTestConfig config = new LoadTestConfig();
+        config.setLatencyConfig(latencyConfig);
+        return config;
+    }
+
+    /**
+     * One exchange with the upstream: the request method and path, and the response as it is to
+     * be served back, together with the time the upstream took to answer
+     */
+    public record Recording(String method, String path, int statusCode, HttpHeaders headers,
+                            String contentType, String body, long latencyMs) {
+
+        String key() {
+            return method.toUpperCase(Locale.ROOT) + " " + path;
+        }
+    }
+}
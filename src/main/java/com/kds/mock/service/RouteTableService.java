@@ -0,0 +1,104 @@
+package com.kds.mock.service;
+
+import com.kds.mock.metrics.RequestMetrics;
+import com.kds.mock.repository.EndpointsRepository;
+import com.kds.mock.repository.HeadersRepository;
+import com.kds.mock.repository.ResponsesRepository;
+import com.kds.mock.route.RouteTable;
+import com.kds.mock.route.RouteTableChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link RouteTable} used to serve mock requests.
+ * <p>
+ * The table is loaded once at startup and rebuilt after every committed configuration change.
+ * Readers always see a complete snapshot: a rebuilt table replaces the previous one in a single
+ * volatile write, so the serving path never touches the database.
+ * <p>
+ * Every rebuild also evicts the rate limiter, request sequence and metrics state of paths that
+ * are no longer configured, so deleted endpoints do not leave per-path state behind.
+ * <p>
+ * Loading is guarded by a {@link ReentrantLock} rather than {@code synchronized} so that a request
+ * served on a virtual thread can unmount while it waits for the initial load.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RouteTableService {
+
+    private final EndpointsRepository endpointsRepository;
+    private final HeadersRepository headersRepository;
+    private final ResponsesRepository responsesRepository;
+    private final LoadTestService loadTestService;
+    private final RequestMetrics requestMetrics;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile RouteTable routeTable;
+
+    /**
+     * Returns the current route table, loading it on first use if startup loading did not succeed
+     */
+    public RouteTable getRouteTable() {
+        RouteTable current = routeTable;
+        if (current != null) {
+            return current;
+        }
+        reloadLock.lock();
+        try {
+            return routeTable != null ? routeTable : reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the route table from the database and atomically replaces the current one
+     */
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public RouteTable reload() {
+        reloadLock.lock();
+        try {
+            long startNanos = System.nanoTime();
+            RouteTable rebuilt = RouteTable.build(
+                endpointsRepository.findAll(),
+                headersRepository.findAll(),
+                responsesRepository.findAll(),
+                loadTestService::parseLoadTestConfig,
+                routeTable != null ? routeTable : RouteTable.EMPTY
+            );
+            routeTable = rebuilt;
+            requestMetrics.recordRouteTableReload(System.nanoTime() - startNanos);
+            loadTestService.retainEndpoints(rebuilt.paths());
+            requestMetrics.retainEndpoints(rebuilt.paths());
+            log.debug("Route table rebuilt with {} endpoints", rebuilt.size());
+            return rebuilt;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Failed to load route table on startup, it will be loaded on first request: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void onRouteTableChanged(RouteTableChangedEvent event) {
+        reload();
+    }
+}
@@ -2,6 +2,7 @@ package com.kds.mock.service.impl;
 
 import com.kds.mock.dto.MockEndpointRequest;
 import com.kds.mock.dto.MockEndpointResponse;
+import com.kds.mock.dto.ResponseVariant;
 import com.kds.mock.dto.UpdateMockEndpointRequest;
 import com.kds.mock.dto.LoadTestConfig;
 import com.kds.mock.entity.Endpoints;
@@ -10,16 +11,26 @@ import com.kds.mock.entity.Responses;
 import com.kds.mock.repository.EndpointsRepository;
 import com.kds.mock.repository.HeadersRepository;
 import com.kds.mock.repository.ResponsesRepository;
+import com.kds.mock.route.PathTemplate;
+import com.kds.mock.route.RequestMatchers;
+import com.kds.mock.route.RouteTableChangedEvent;
+import com.kds.mock.service.LoadTestConfigValidator;
 import com.kds.mock.service.MockEndpointConfigureService;
 import com.kds.mock.service.LoadTestService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -30,38 +41,104 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
     private final HeadersRepository headersRepository;
     private final ResponsesRepository responsesRepository;
     private final LoadTestService loadTestService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public MockEndpointResponse saveMockEndpoint(MockEndpointRequest request) {
+        PathTemplate.requireValid(request.getPath());
+        LoadTestConfigValidator.requireValid(request.getLoadTestConfig());
+        RequestMatchers.requireValid(request.getVariants());
+        Endpoints existingEndpoint = endpointsRepository.findEndpointByPath(request.getPath());
+        if (existingEndpoint != null
+                && !responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(existingEndpoint.getId(), request.getMethod()).isEmpty()) {
+            throw new IllegalArgumentException("Mock endpoint already exists for path: " + request.getPath() + " and method: " + request.getMethod());
+        }
         try {
             String loadTestConfigJson = serializeLoadTestConfig(request.getLoadTestConfig());
+
+            if (existingEndpoint != null) {
+                return addMethod(existingEndpoint, request, loadTestConfigJson);
+            }
             
             Endpoints endpoints = createEndpoint(request, loadTestConfigJson);
             endpointsRepository.save(endpoints);
 
             List<Headers> headers = createHeaders(request, endpoints);
             Responses responses = createResponse(request, endpoints);
+            List<Responses> variants = createVariants(request.getVariants(), endpoints, responses);
+            eventPublisher.publishEvent(new RouteTableChangedEvent(endpoints.getPath()));
             
-            return new MockEndpointResponse(endpoints, headers, responses, request.getLoadTestConfig());
+            MockEndpointResponse response = new MockEndpointResponse(endpoints, headers, responses, request.getLoadTestConfig());
+            response.setVariants(toResponseVariants(variants));
+            return response;
         } catch (Exception ex) {
             log.error("Error saving MockEndpoint: {}", ex.getMessage(), ex);
             throw new RuntimeException("Failed to save mock endpoint", ex);
         }
     }
 
+    /**
+     * Adds a method to an endpoint that is already configured for other methods. The methods of a
+     * path share its description, headers and load test configuration, which are replaced when the
+     * request provides them.
+     */
+    private MockEndpointResponse addMethod(Endpoints endpoint, MockEndpointRequest request, String loadTestConfigJson) {
+        if (request.getDescription() != null) {
+            endpoint.setDescription(request.getDescription());
+        }
+        if (loadTestConfigJson != null) {
+            endpoint.setLoadTestConfig(loadTestConfigJson);
+        }
+        if (request.getResponseHeaders() != null) {
+            replaceHeaders(endpoint, request.getResponseHeaders());
+        }
+        endpointsRepository.save(endpoint);
+
+        Responses responses = createResponse(request, endpoint);
+        List<Responses> methodResponses = new ArrayList<>();
+        methodResponses.add(responses);
+        methodResponses.addAll(createVariants(request.getVariants(), endpoint, responses));
+        eventPublisher.publishEvent(new RouteTableChangedEvent(endpoint.getPath()));
+
+        return createMockEndpointResponse(endpoint, headersRepository.findAllByEndpointsId(endpoint.getId()), methodResponses);
+    }
+
     @Override
     @Transactional
     public List<MockEndpointResponse> getAllMockEndpoints() {
         List<Endpoints> endpoints = endpointsRepository.findAll();
-        return endpoints.stream()
-                .map(this::createMockEndpointResponse)
-                .collect(Collectors.toList());
+        if (endpoints.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Three queries in total regardless of the number of endpoints, grouped in memory
+        Map<Long, List<Headers>> headersByEndpoint = groupByEndpointId(headersRepository.findAll(), Headers::getEndpoints);
+        Map<Long, List<Responses>> responsesByEndpoint = groupByEndpointId(responsesRepository.findAll(), Responses::getEndpoints);
+
+        // One entry per configured method of each endpoint
+        List<MockEndpointResponse> mockEndpoints = new ArrayList<>();
+        for (Endpoints endpoint : endpoints) {
+            List<Headers> endpointHeaders = headersByEndpoint.getOrDefault(endpoint.getId(), List.of());
+            Map<String, List<Responses>> responsesByMethod = new LinkedHashMap<>();
+            for (Responses response : responsesByEndpoint.getOrDefault(endpoint.getId(), List.of())) {
+                String method = response.getMethod() != null ? response.getMethod().toUpperCase(Locale.ROOT) : "";
+                responsesByMethod.computeIfAbsent(method, m -> new ArrayList<>()).add(response);
+            }
+            if (responsesByMethod.isEmpty()) {
+                mockEndpoints.add(createMockEndpointResponse(endpoint, endpointHeaders, List.of()));
+            }
+            responsesByMethod.values().forEach(methodResponses ->
+                    mockEndpoints.add(createMockEndpointResponse(endpoint, endpointHeaders, methodResponses)));
+        }
+        return mockEndpoints;
     }
 
     @Override
     @Transactional
     public MockEndpointResponse updateMockEndpoint(String path, String method, MockEndpointRequest request) {
+        LoadTestConfigValidator.requireValid(request.getLoadTestConfig());
+        RequestMatchers.requireValid(request.getVariants());
         try {
             // Find existing endpoint
             Endpoints existingEndpoint = endpointsRepository.findEndpointByPath(path);
@@ -70,21 +147,15 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
             }
 
             // Find the response for the specific method
-            List<Responses> responses = responsesRepository.findAll().stream()
-                    .filter(r -> r.getEndpoints().getId().equals(existingEndpoint.getId()) && 
-                                r.getMethod().equalsIgnoreCase(method))
-                    .collect(Collectors.toList());
+            List<Responses> responses = responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(existingEndpoint.getId(), method);
 
             if (responses.isEmpty()) {
                 throw new IllegalArgumentException("Mock endpoint not found for path: " + path + " and method: " + method);
             }
 
-            Responses existingResponse = responses.get(0);
+            Responses existingResponse = defaultResponse(responses);
 
             // Update endpoint fields if provided
-            if (request.getStatusCode() != null) {
-                existingEndpoint.setStatusCode(request.getStatusCode());
-            }
             if (request.getDescription() != null) {
                 existingEndpoint.setDescription(request.getDescription());
             }
@@ -94,6 +165,9 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
             }
 
             // Update response fields if provided
+            if (request.getStatusCode() != null) {
+                existingResponse.setStatusCode(request.getStatusCode());
+            }
             if (request.getContentType() != null) {
                 existingResponse.setContentType(request.getContentType());
             }
@@ -101,26 +175,23 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
                 existingResponse.setBody(request.getBody());
             }
 
+            // Replace the variants if provided
+            if (request.getVariants() != null) {
+                responsesRepository.deleteAll(responses.stream().filter(Responses::isVariant).toList());
+                createVariants(request.getVariants(), existingEndpoint, existingResponse);
+            }
+
             // Update headers if provided
             if (request.getResponseHeaders() != null) {
-                // Remove existing headers
-                List<Headers> existingHeaders = headersRepository.findAllByEndpointsId(existingEndpoint.getId());
-                headersRepository.deleteAll(existingHeaders);
-
-                // Create new headers
-                List<Headers> newHeaders = new ArrayList<>();
-                request.getResponseHeaders().forEach((key, value) -> {
-                    Headers header = new Headers(existingEndpoint, key, value);
-                    headersRepository.save(header);
-                    newHeaders.add(header);
-                });
+                replaceHeaders(existingEndpoint, request.getResponseHeaders());
             }
 
             // Save updated entities
             endpointsRepository.save(existingEndpoint);
             responsesRepository.save(existingResponse);
+            eventPublisher.publishEvent(new RouteTableChangedEvent(existingEndpoint.getPath()));
 
-            return createMockEndpointResponse(existingEndpoint);
+            return createMockEndpointResponse(existingEndpoint, method);
         } catch (Exception ex) {
             log.error("Error updating MockEndpoint: {}", ex.getMessage(), ex);
             throw new RuntimeException("Failed to update mock endpoint", ex);
@@ -130,6 +201,8 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
     @Override
     @Transactional
     public MockEndpointResponse updateMockEndpoint(String path, String method, UpdateMockEndpointRequest request) {
+        LoadTestConfigValidator.requireValid(request.getLoadTestConfig());
+        RequestMatchers.requireValid(request.getVariants());
         try {
             // Find existing endpoint
             Endpoints existingEndpoint = endpointsRepository.findEndpointByPath(path);
@@ -138,21 +211,15 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
             }
 
             // Find the response for the specific method
-            List<Responses> responses = responsesRepository.findAll().stream()
-                    .filter(r -> r.getEndpoints().getId().equals(existingEndpoint.getId()) && 
-                                r.getMethod().equalsIgnoreCase(method))
-                    .collect(Collectors.toList());
+            List<Responses> responses = responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(existingEndpoint.getId(), method);
 
             if (responses.isEmpty()) {
                 throw new IllegalArgumentException("Mock endpoint not found for path: " + path + " and method: " + method);
             }
 
-            Responses existingResponse = responses.get(0);
+            Responses existingResponse = defaultResponse(responses);
 
             // Update endpoint fields if provided
-            if (request.getStatusCode() != null) {
-                existingEndpoint.setStatusCode(request.getStatusCode());
-            }
             if (request.getDescription() != null) {
                 existingEndpoint.setDescription(request.getDescription());
             }
@@ -162,6 +229,9 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
             }
 
             // Update response fields if provided
+            if (request.getStatusCode() != null) {
+                existingResponse.setStatusCode(request.getStatusCode());
+            }
             if (request.getContentType() != null) {
                 existingResponse.setContentType(request.getContentType());
             }
@@ -169,26 +239,23 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
                 existingResponse.setBody(request.getBody());
             }
 
+            // Replace the variants if provided
+            if (request.getVariants() != null) {
+                responsesRepository.deleteAll(responses.stream().filter(Responses::isVariant).toList());
+                createVariants(request.getVariants(), existingEndpoint, existingResponse);
+            }
+
             // Update headers if provided
             if (request.getResponseHeaders() != null) {
-                // Remove existing headers
-                List<Headers> existingHeaders = headersRepository.findAllByEndpointsId(existingEndpoint.getId());
-                headersRepository.deleteAll(existingHeaders);
-
-                // Create new headers
-                List<Headers> newHeaders = new ArrayList<>();
-                request.getResponseHeaders().forEach((key, value) -> {
-                    Headers header = new Headers(existingEndpoint, key, value);
-                    headersRepository.save(header);
-                    newHeaders.add(header);
-                });
+                replaceHeaders(existingEndpoint, request.getResponseHeaders());
             }
 
             // Save updated entities
             endpointsRepository.save(existingEndpoint);
             responsesRepository.save(existingResponse);
+            eventPublisher.publishEvent(new RouteTableChangedEvent(existingEndpoint.getPath()));
 
-            return createMockEndpointResponse(existingEndpoint);
+            return createMockEndpointResponse(existingEndpoint, method);
         } catch (Exception ex) {
             log.error("Error updating MockEndpoint: {}", ex.getMessage(), ex);
             throw new RuntimeException("Failed to update mock endpoint", ex);
@@ -206,24 +273,28 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
             }
 
             // Find the response for the specific method
-            List<Responses> responses = responsesRepository.findAll().stream()
-                    .filter(r -> r.getEndpoints().getId().equals(existingEndpoint.getId()) && 
-                                r.getMethod().equalsIgnoreCase(method))
-                    .collect(Collectors.toList());
+            List<Responses> responses = responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(existingEndpoint.getId(), method);
 
             if (responses.isEmpty()) {
                 throw new IllegalArgumentException("Mock endpoint not found for path: " + path + " and method: " + method);
             }
 
-            // Delete associated headers
-            List<Headers> headers = headersRepository.findAllByEndpointsId(existingEndpoint.getId());
-            headersRepository.deleteAll(headers);
+            // The endpoint and its headers go with its last method
+            boolean otherMethodsConfigured = responsesRepository.findAllByEndpointsId(existingEndpoint.getId()).stream()
+                    .anyMatch(response -> response.getMethod() == null || !response.getMethod().equalsIgnoreCase(method));
 
-            // Delete the response
+            // Delete the responses of the method
             responsesRepository.deleteAll(responses);
 
-            // Delete the endpoint
-            endpointsRepository.delete(existingEndpoint);
+            if (!otherMethodsConfigured) {
+                // Delete associated headers
+                List<Headers> headers = headersRepository.findAllByEndpointsId(existingEndpoint.getId());
+                headersRepository.deleteAll(headers);
+
+                // Delete the endpoint
+                endpointsRepository.delete(existingEndpoint);
+            }
+            eventPublisher.publishEvent(new RouteTableChangedEvent(existingEndpoint.getPath()));
         } catch (Exception ex) {
             log.error("Error deleting MockEndpoint: {}", ex.getMessage(), ex);
             throw new RuntimeException("Failed to delete mock endpoint", ex);
@@ -241,16 +312,13 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
             }
 
             // Find the response for the specific method
-            List<Responses> responses = responsesRepository.findAll().stream()
-                    .filter(r -> r.getEndpoints().getId().equals(existingEndpoint.getId()) && 
-                                r.getMethod().equalsIgnoreCase(method))
-                    .collect(Collectors.toList());
+            List<Responses> responses = responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(existingEndpoint.getId(), method);
 
             if (responses.isEmpty()) {
                 throw new IllegalArgumentException("Mock endpoint not found for path: " + path + " and method: " + method);
             }
 
-            return createMockEndpointResponse(existingEndpoint);
+            return createMockEndpointResponse(existingEndpoint, headersRepository.findAllByEndpointsId(existingEndpoint.getId()), responses);
         } catch (Exception ex) {
             log.error("Error retrieving MockEndpoint: {}", ex.getMessage(), ex);
             throw new RuntimeException("Failed to retrieve mock endpoint", ex);
@@ -303,33 +371,103 @@ public class MockEndpointConfigureServiceImpl implements MockEndpointConfigureSe
         return headers;
     }
 
+    private void replaceHeaders(Endpoints endpoint, Map<String, String> responseHeaders) {
+        // Remove existing headers
+        List<Headers> existingHeaders = headersRepository.findAllByEndpointsId(endpoint.getId());
+        headersRepository.deleteAll(existingHeaders);
+
+        // Create new headers
+        responseHeaders.forEach((key, value) -> headersRepository.save(new Headers(endpoint, key, value)));
+    }
+
     private Responses createResponse(MockEndpointRequest request, Endpoints endpoints) {
-        Responses responses = new Responses(endpoints, request.getMethod(), request.getContentType(), request.getBody());
+        Responses responses = new Responses(endpoints, request.getMethod(), request.getStatusCode(), request.getContentType(), request.getBody());
         responsesRepository.save(responses);
         return responses;
     }
 
-    private MockEndpointResponse createMockEndpointResponse(Endpoints endpoint) {
-        List<Headers> headers = headersRepository.findAllByEndpointsId(endpoint.getId());
-        List<Responses> endpointResponses = responsesRepository.findAll().stream()
-                .filter(r -> r.getEndpoints().getId().equals(endpoint.getId()))
-                .collect(Collectors.toList());
+    /**
+     * Stores the variants of a default response, inheriting its method and, when they have none,
+     * its content type. Their matchers are compiled when the route table is rebuilt.
+     */
+    private List<Responses> createVariants(List<ResponseVariant> variants, Endpoints endpoints, Responses defaultResponse) {
+        List<Responses> created = new ArrayList<>();
+        if (variants != null) {
+            for (ResponseVariant variant : variants) {
+                String contentType = variant.getContentType() != null ? variant.getContentType() : defaultResponse.getContentType();
+                Responses response = new Responses(endpoints, defaultResponse.getMethod(), contentType, variant.getBody());
+                response.setMatchers(RequestMatchers.toJson(variant.getMatchers()));
+                responsesRepository.save(response);
+                created.add(response);
+            }
+        }
+        return created;
+    }
 
-        LoadTestConfig loadTestConfigObj = null;
-        if (endpoint.getLoadTestConfig() != null && !endpoint.getLoadTestConfig().isEmpty()) {
+    /**
+     * The response served when no variant matches, the first stored response without matchers
+     */
+    private static Responses defaultResponse(List<Responses> responses) {
+        return responses.stream().filter(response -> !response.isVariant()).findFirst().orElse(responses.get(0));
+    }
+
+    private List<ResponseVariant> toResponseVariants(List<Responses> variants) {
+        List<ResponseVariant> converted = new ArrayList<>();
+        for (Responses variant : variants) {
             try {
-                com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                loadTestConfigObj = objectMapper.readValue(endpoint.getLoadTestConfig(), LoadTestConfig.class);
-            } catch (Exception e) {
-                log.warn("Failed to deserialize loadTestConfig for endpoint {}: {}", endpoint.getPath(), e.getMessage());
+                converted.add(new ResponseVariant(RequestMatchers.fromJson(variant.getMatchers()), variant.getBody(), variant.getContentType()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Failed to deserialize matchers of response variant {}: {}", variant.getId(), e.getMessage());
             }
         }
+        return converted;
+    }
+
+    private MockEndpointResponse createMockEndpointResponse(Endpoints endpoint) {
+        return createMockEndpointResponse(endpoint,
+                headersRepository.findAllByEndpointsId(endpoint.getId()),
+                responsesRepository.findAllByEndpointsId(endpoint.getId()));
+    }
+
+    private MockEndpointResponse createMockEndpointResponse(Endpoints endpoint, String method) {
+        return createMockEndpointResponse(endpoint,
+                headersRepository.findAllByEndpointsId(endpoint.getId()),
+                responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(endpoint.getId(), method));
+    }
+
+    private MockEndpointResponse createMockEndpointResponse(Endpoints endpoint, List<Headers> headers, List<Responses> endpointResponses) {
+        LoadTestConfig loadTestConfigObj = null;
+        try {
+            loadTestConfigObj = loadTestService.parseLoadTestConfig(endpoint.getLoadTestConfig());
+        } catch (Exception e) {
+            log.warn("Failed to deserialize loadTestConfig for endpoint {}: {}", endpoint.getPath(), e.getMessage());
+        }
 
         if (!endpointResponses.isEmpty()) {
-            return new MockEndpointResponse(endpoint, headers, endpointResponses.get(0), loadTestConfigObj);
+            Responses defaultResponse = defaultResponse(endpointResponses);
+            MockEndpointResponse response = new MockEndpointResponse(endpoint, headers, defaultResponse, loadTestConfigObj);
+            response.setVariants(toResponseVariants(endpointResponses.stream()
+                    .filter(candidate -> candidate.isVariant() && candidate.getMethod().equalsIgnoreCase(defaultResponse.getMethod()))
+                    .sorted(Comparator.comparing(Responses::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .toList()));
+            return response;
         }
         
         log.warn("No responses found for endpoint: {}", endpoint.getPath());
         return new MockEndpointResponse(endpoint, headers, null, loadTestConfigObj);
     }
+
+    /**
+     * Groups rows by the id of their endpoint without initializing the lazy endpoint association
+     */
+    private static <T> Map<Long, List<T>> groupByEndpointId(List<T> rows, Function<T, Endpoints> endpointOf) {
+        Map<Long, List<T>> grouped = new HashMap<>();
+        for (T row : rows) {
+            Endpoints endpoint = endpointOf.apply(row);
+            if (endpoint != null) {
+                grouped.computeIfAbsent(endpoint.getId(), id -> new ArrayList<>()).add(row);
+            }
+        }
+        return grouped;
+    }
 }
@@ -2,71 +2,152 @@ package com.kds.mock.service.impl;
 
 import com.kds.mock.dto.MockResponse;
 import com.kds.mock.dto.LoadTestConfig;
-import com.kds.mock.entity.Endpoints;
-import com.kds.mock.entity.Headers;
-import com.kds.mock.entity.Responses;
-import com.kds.mock.repository.EndpointsRepository;
-import com.kds.mock.repository.HeadersRepository;
-import com.kds.mock.repository.ResponsesRepository;
+import com.kds.mock.metrics.EndpointMetrics;
+import com.kds.mock.metrics.RequestMetrics;
+import com.kds.mock.metrics.RequestOutcome;
+import com.kds.mock.metrics.ServingMeters;
+import com.kds.mock.route.CompiledRoute;
+import com.kds.mock.route.RouteMethod;
+import com.kds.mock.route.RequestView;
 import com.kds.mock.service.MockService;
 import com.kds.mock.service.LoadTestService;
+import com.kds.mock.service.RouteTableService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MockServiceImpl implements MockService {
 
-    private final EndpointsRepository endpointsRepository;
-    private final HeadersRepository headersRepository;
-    private final ResponsesRepository responsesRepository;
+    private final RouteTableService routeTableService;
     private final LoadTestService loadTestService;
+    private final RequestMetrics requestMetrics;
 
     @Override
-    public MockResponse getMockResponseByPathAndMethod(String path, String method) {
-        Endpoints endpoint = endpointsRepository.findEndpointByPath(path);
-
-        if (endpoint == null) {
+    public MockResponse getMockResponseByPathAndMethod(String path, String method, RequestView request) {
+        long startNanos = System.nanoTime();
+        RouteMethod routeMethod = RouteMethod.of(method);
+        CompiledRoute route = routeTableService.getRouteTable().find(routeMethod, path);
+        if (route == null) {
+            requestMetrics.recordUnmatched(routeMethod);
             return null;
         }
 
+        EndpointMetrics metrics = requestMetrics.forEndpoint(route.path());
+        MockResponse response = planMockResponse(route, path, method, routeMethod, request, metrics, startNanos);
+        
+        if (response.getDelayMs() > 0) {
+            long delayStartNanos = System.nanoTime();
+            try {
+                Thread.sleep(response.getDelayMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Latency simulation interrupted");
+            }
+            response.getServingMeters().recordDelay(System.nanoTime() - delayStartNanos);
+        }
+        metrics.recordServiceTime(System.nanoTime() - startNanos);
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<MockResponse> getMockResponseByPathAndMethodAsync(String path, String method, RequestView request) {
+        long startNanos = System.nanoTime();
+        RouteMethod routeMethod = RouteMethod.of(method);
+        CompiledRoute route = routeTableService.getRouteTable().find(routeMethod, path);
+        if (route == null) {
+            requestMetrics.recordUnmatched(routeMethod);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        EndpointMetrics metrics = requestMetrics.forEndpoint(route.path());
+        MockResponse response = planMockResponse(route, path, method, routeMethod, request, metrics, startNanos);
+        
+        if (response.getDelayMs() <= 0) {
+            metrics.recordServiceTime(System.nanoTime() - startNanos);
+            return CompletableFuture.completedFuture(response);
+        }
+        long delayStartNanos = System.nanoTime();
+        CompletableFuture<MockResponse> delayed = loadTestService.completeAfter(response, response.getDelayMs());
+        delayed.whenComplete((completed, failure) -> {
+            long now = System.nanoTime();
+            response.getServingMeters().recordDelay(now - delayStartNanos);
+            metrics.recordServiceTime(now - startNanos);
+        });
+        return delayed;
+    }
+
+    /**
+     * Decides the response for a request, including the simulated delay that must elapse
+     * before it is sent. Nothing in here blocks, so the caller chooses how to wait.
+     * <p>
+     * Records the request's outcome and the time spent on the route lookup (since
+     * {@code startNanos}), the rate limit check and the remaining decisions, and attaches
+     * the meters so the delay and the body write can be recorded against the same outcome.
+     * The method is resolved once by the caller, which passes the name only for logging.
+     */
+    private MockResponse planMockResponse(CompiledRoute route, String path, String method, RouteMethod routeMethod,
+                                          RequestView request, EndpointMetrics metrics, long startNanos) {
+        long lookedUpNanos = System.nanoTime();
+        long rateLimitCheckedNanos = lookedUpNanos;
+        metrics.recordRequest();
+        MockResponse response;
+        RequestOutcome outcome;
         try {
-            LoadTestConfig loadTestConfig = loadTestService.parseLoadTestConfig(endpoint.getLoadTestConfig());
+            LoadTestConfig loadTestConfig = route.loadTestConfig();
             
             // Check rate limiting first
-            MockResponse rateLimitResponse = checkRateLimit(path, loadTestConfig);
-            if (rateLimitResponse != null) {
-                return rateLimitResponse;
-            }
-            
-            // Check for timeout simulation
-            MockResponse timeoutResponse = checkTimeout(loadTestConfig);
-            if (timeoutResponse != null) {
-                return timeoutResponse;
-            }
-            
-            // Simulate latency
-            simulateLatency(loadTestConfig);
-            
-            // Check for error simulation
-            MockResponse errorResponse = checkErrorSimulation(loadTestConfig);
-            if (errorResponse != null) {
-                return errorResponse;
+            response = checkRateLimit(route.path(), loadTestConfig);
+            rateLimitCheckedNanos = System.nanoTime();
+            if (response != null) {
+                metrics.recordRateLimited();
+                outcome = RequestOutcome.RATE_LIMITED;
+            } else {
+                // Every random decision for this request is drawn from the same generator
+                RandomGenerator random = loadTestService.newRequestRandom(route.path(), loadTestConfig);
+                
+                // Check for timeout simulation
+                response = checkTimeout(loadTestConfig, random);
+                if (response != null) {
+                    metrics.recordTimeout();
+                    metrics.recordInjectedLatency(response.getDelayMs());
+                    outcome = RequestOutcome.TIMEOUT;
+                } else {
+                    // Latency applies to both simulated errors and normal responses
+                    long latencyMs = loadTestService.calculateLatencyMs(loadTestConfig, random);
+                    metrics.recordInjectedLatency(latencyMs);
+                    
+                    // Check for error simulation, otherwise return the normal response
+                    response = checkErrorSimulation(loadTestConfig, random);
+                    if (response != null) {
+                        metrics.recordError();
+                        outcome = RequestOutcome.ERROR;
+                    } else {
+                        response = createNormalResponse(route, path, routeMethod, request);
+                        outcome = RequestOutcome.NORMAL;
+                    }
+                    response.setDelayMs(latencyMs);
+                    response.setThrottle(getEnabledThrottleConfig(loadTestConfig));
+                }
             }
-            
-            // Return normal response
-            return createNormalResponse(endpoint, method);
-            
         } catch (Exception e) {
             log.error("Error processing mock response for path: {} method: {}", path, method, e);
-            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal server error");
+            metrics.recordError();
+            response = createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal server error");
+            outcome = RequestOutcome.ERROR;
         }
+
+        ServingMeters meters = metrics.servingMeters(routeMethod, outcome);
+        meters.recordPlanned(lookedUpNanos - startNanos, rateLimitCheckedNanos - lookedUpNanos, System.nanoTime() - rateLimitCheckedNanos);
+        response.setServingMeters(meters);
+        return response;
     }
 
     private MockResponse checkRateLimit(String path, LoadTestConfig loadTestConfig) {
@@ -87,38 +168,24 @@ public class MockServiceImpl implements MockService {
         return null;
     }
 
-    private MockResponse checkTimeout(LoadTestConfig loadTestConfig) {
-        if (loadTestService.shouldTimeout(loadTestConfig)) {
+    private MockResponse checkTimeout(LoadTestConfig loadTestConfig, RandomGenerator random) {
+        if (loadTestService.shouldTimeout(loadTestConfig, random)) {
             LoadTestConfig.TimeoutConfig timeoutConfig = getTimeoutConfig(loadTestConfig);
             
-            // Simulate timeout by sleeping for the configured timeout duration
-            try {
-                Thread.sleep(timeoutConfig.getTimeoutMs());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.warn("Timeout simulation interrupted");
-            }
-            
-            return createErrorResponse(
+            // The timeout is simulated by holding the response back for the configured duration
+            MockResponse timeoutResponse = createErrorResponse(
                 HttpStatus.REQUEST_TIMEOUT.value(),
                 "Request timed out"
             );
+            timeoutResponse.setDelayMs(timeoutConfig.getTimeoutMs() != null ? timeoutConfig.getTimeoutMs() : 0);
+            return timeoutResponse;
         }
         return null;
     }
 
-    private void simulateLatency(LoadTestConfig loadTestConfig) {
-        try {
-            loadTestService.simulateLatency(loadTestConfig);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Latency simulation interrupted");
-        }
-    }
-
-    private MockResponse checkErrorSimulation(LoadTestConfig loadTestConfig) {
-        if (loadTestService.shouldGenerateError(loadTestConfig)) {
-            int errorStatusCode = loadTestService.getRandomErrorStatusCode(loadTestConfig);
+    private MockResponse checkErrorSimulation(LoadTestConfig loadTestConfig, RandomGenerator random) {
+        if (loadTestService.shouldGenerateError(loadTestConfig, random)) {
+            int errorStatusCode = loadTestService.getRandomErrorStatusCode(loadTestConfig, random);
             String errorMessage = loadTestService.getErrorMessage(loadTestConfig, errorStatusCode);
             
             return createErrorResponse(errorStatusCode, errorMessage);
@@ -126,28 +193,18 @@ public class MockServiceImpl implements MockService {
         return null;
     }
 
-    private MockResponse createNormalResponse(Endpoints endpoint, String method) {
-        List<Headers> headers = headersRepository.findAllByEndpointsId(endpoint.getId());
-        HttpHeaders httpHeaders = createHttpHeaders(headers);
-        Responses response = responsesRepository.findResponseByEndpointsIdAndMethod(endpoint.getId(), method);
-        
-        return new MockResponse(
-            endpoint.getStatusCode(), 
-            httpHeaders,
-            response != null ? response.getBody() : null
-        );
-    }
-
-    private HttpHeaders createHttpHeaders(List<Headers> headers) {
-        HttpHeaders httpHeaders = new HttpHeaders();
-        
-        if (headers != null && !headers.isEmpty()) {
-            headers.forEach(header -> httpHeaders.add(header.getName(), header.getValue()));
-        } else {
-            httpHeaders.add("Content-Type", "application/json");
+    private MockResponse createNormalResponse(CompiledRoute route, String path, RouteMethod method, RequestView request) {
+        CompiledRoute.RouteResponse response = route.response(method, request);
+        if (response == null) {
+            return new MockResponse(route.statusCode(), route.headers(), (byte[]) null);
         }
         
-        return httpHeaders;
+        // Headers and static bodies were prepared when the route was compiled and are shared, not copied;
+        // a templated body is rendered into a fresh array
+        MockResponse mockResponse = new MockResponse(response.statusCode(), response.headers(), response.bodyFor(path, request));
+        mockResponse.setGzipBody(response.gzipBody());
+        mockResponse.setGzipHeaders(response.gzipHeaders());
+        return mockResponse;
     }
 
     private MockResponse createErrorResponse(int statusCode, String message) {
@@ -175,4 +232,11 @@ public class MockServiceImpl implements MockService {
             loadTestConfig.getTimeoutConfig() : 
             new LoadTestConfig.TimeoutConfig();
     }
+
+    private LoadTestConfig.ThrottleConfig getEnabledThrottleConfig(LoadTestConfig loadTestConfig) {
+        return loadTestConfig != null && loadTestConfig.getThrottleConfig() != null
+            && Boolean.TRUE.equals(loadTestConfig.getThrottleConfig().getEnabled()) ?
+            loadTestConfig.getThrottleConfig() :
+            null;
+    }
 }
@@ -0,0 +1,177 @@
+package com.kds.mock.throttle;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams a response body in paced chunks to simulate a slow network.
+ * <p>
+ * The response is switched to asynchronous, non-blocking output, so no thread is held while the body
+ * drips out. Chunks are written from a shared {@link TimerWheel}, which wakes the stream when its
+ * next chunk is due. They are also written from the container's write callback once a client that
+ * stopped reading drains its socket again. The status and headers are sent at once, the first chunk
+ * after the time to first byte, and every further chunk when the bandwidth allows it. A client that
+ * reads slower than the bandwidth holds the stream back instead of having data buffered for it, and
+ * a wake-up that comes late writes every chunk due by then, so the bandwidth holds however coarse the
+ * wheel's ticks are.
+ */
+@Slf4j
+public final class ThrottledBodyWriter implements WriteListener, AsyncListener {
+
+    // Time past the expected end of the stream before the container gives up on it
+    static final long TIMEOUT_MARGIN_MS = 30_000;
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final byte[] body;
+    private final int chunkSize;
+    private final double chunkIntervalNanos;
+    private final long timeToFirstByteNanos;
+    private final TimerWheel timerWheel;
+    private final Runnable writeDue = this::writeDue;
+
+    // Guarded by this, which is only held by the thread writing to the client
+    private boolean started;
+    private boolean waitingForWrite;
+    private long firstChunkNanos;
+    private int offset;
+
+    // Set without the lock, so the container's completion and error callbacks never wait for a writer
+    private volatile boolean done;
+
+    private ThrottledBodyWriter(AsyncContext asyncContext, ServletOutputStream out, byte[] body,
+                                long bytesPerSecond, int chunkSize, long timeToFirstByteMs, TimerWheel timerWheel) {
+        this.asyncContext = asyncContext;
+        this.out = out;
+        this.body = body;
+        this.chunkSize = chunkSize;
+        this.chunkIntervalNanos = (double) chunkSize * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+        this.timeToFirstByteNanos = TimeUnit.MILLISECONDS.toNanos(timeToFirstByteMs);
+        this.timerWheel = timerWheel;
+    }
+
+    /**
+     * Starts streaming the body of a response whose status and headers are set. The calling thread
+     * returns at once and the response is completed when the last chunk has been written.
+     */
+    public static void start(HttpServletRequest request, HttpServletResponse response, byte[] body,
+                             long bytesPerSecond, int chunkSize, long timeToFirstByteMs, TimerWheel timerWheel) throws IOException {
+        if (bytesPerSecond <= 0 || chunkSize <= 0 || timeToFirstByteMs < 0) {
+            throw new IllegalArgumentException("Bandwidth and chunk size must be positive and the time to first byte non-negative");
+        }
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(timeToFirstByteMs + body.length * 1000L / bytesPerSecond + TIMEOUT_MARGIN_MS);
+        ServletOutputStream out = response.getOutputStream();
+        ThrottledBodyWriter writer = new ThrottledBodyWriter(asyncContext, out, body, bytesPerSecond, chunkSize,
+            timeToFirstByteMs, timerWheel);
+        asyncContext.addListener(writer);
+        // The container calls onWritePossible as soon as output can be written
+        out.setWriteListener(writer);
+    }
+
+    @Override
+    public synchronized void onWritePossible() throws IOException {
+        if (done) {
+            return;
+        }
+        if (!started) {
+            started = true;
+            // Sends the status and headers right away
+            out.flush();
+            firstChunkNanos = System.nanoTime() + timeToFirstByteNanos;
+            timerWheel.schedule(writeDue, timeToFirstByteNanos, TimeUnit.NANOSECONDS);
+        } else if (waitingForWrite) {
+            waitingForWrite = false;
+            writeChunks();
+        }
+    }
+
+    private synchronized void writeDue() {
+        if (done || waitingForWrite) {
+            return;
+        }
+        try {
+            writeChunks();
+        } catch (IOException | RuntimeException e) {
+            // The client went away, or the container already completed the response
+            fail(e);
+        }
+    }
+
+    // Called with the lock held while output is ready
+    private void writeChunks() throws IOException {
+        if (!out.isReady()) {
+            // The container calls onWritePossible once the client has read enough
+            waitingForWrite = true;
+            return;
+        }
+        long dueChunks = (long) ((System.nanoTime() - firstChunkNanos) / chunkIntervalNanos) + 1;
+        int end = (int) Math.min(body.length, dueChunks * chunkSize);
+        while (offset < end) {
+            int length = Math.min(chunkSize, end - offset);
+            out.write(body, offset, length);
+            offset += length;
+            if (!out.isReady()) {
+                waitingForWrite = true;
+                return;
+            }
+        }
+        out.flush();
+        if (!out.isReady()) {
+            waitingForWrite = true;
+            return;
+        }
+        if (offset == body.length) {
+            done = true;
+            asyncContext.complete();
+            return;
+        }
+        long nextChunkNanos = firstChunkNanos + (long) ((offset / chunkSize) * chunkIntervalNanos);
+        timerWheel.schedule(writeDue, nextChunkNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onError(Throwable failure) {
+        fail(failure);
+    }
+
+    private void fail(Throwable failure) {
+        if (!done) {
+            done = true;
+            log.debug("Throttled response of {} bytes stopped: {}", body.length, failure.getMessage());
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        fail(new IOException("Timed out"));
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        fail(event.getThrowable() != null ? event.getThrowable() : new IOException("Async error"));
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        done = true;
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+}
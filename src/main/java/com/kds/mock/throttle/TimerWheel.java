@@ -0,0 +1,152 @@
+package com.kds.mock.throttle;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel that runs large numbers of short tasks at coarse deadlines from a single thread.
+ * <p>
+ * Time is divided into ticks, and the wheel has a ring of buckets that are reused every revolution.
+ * Scheduling only appends to a concurrent queue, so any thread can schedule without taking a lock.
+ * Once per tick, the wheel's thread moves newly scheduled tasks into the bucket of their deadline
+ * and runs the tasks of the current bucket. A task never runs before its deadline and at most one
+ * tick after it, and tasks further away than one revolution wait out the remaining rounds in their
+ * bucket. Tasks run on the wheel's thread, so they must not block.
+ * <p>
+ * The thread is started by the first task that is scheduled, so an unused wheel costs nothing.
+ */
+@Slf4j
+public final class TimerWheel implements AutoCloseable {
+
+    private final String name;
+    private final long tickNanos;
+    private final int mask;
+    private final List<Timeout>[] buckets;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final long startNanos = System.nanoTime();
+
+    private volatile Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * @param tick        the resolution of the wheel
+     * @param bucketCount the number of ticks in one revolution, a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(String name, Duration tick, int bucketCount) {
+        if (tick.toNanos() <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (bucketCount <= 0 || Integer.bitCount(bucketCount) != 1) {
+            throw new IllegalArgumentException("Bucket count must be a power of two");
+        }
+        this.name = name;
+        this.tickNanos = tick.toNanos();
+        this.mask = bucketCount - 1;
+        this.buckets = new List[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Runs the task on the wheel's thread once the delay has elapsed
+     *
+     * @throws IllegalStateException if the wheel has been closed
+     */
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer wheel " + name + " is closed");
+        }
+        long deadlineNanos = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        scheduled.add(new Timeout(task, deadlineNanos));
+        if (worker == null) {
+            startWorker();
+        }
+    }
+
+    private synchronized void startWorker() {
+        if (worker == null && running) {
+            Thread thread = new Thread(this::run, name);
+            thread.setDaemon(true);
+            thread.start();
+            worker = thread;
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            // Tick t covers [t, t + 1) ticks since the start and is processed once it is over
+            long tickEndNanos = (tick + 1) * tickNanos;
+            long sleepNanos;
+            while (running && (sleepNanos = tickEndNanos - (System.nanoTime() - startNanos)) > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+            if (!running) {
+                break;
+            }
+            transferScheduled(tick);
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+        scheduled.clear();
+    }
+
+    private void transferScheduled(long tick) {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            // Deadlines that fall within the current tick, or that have passed, run in this tick
+            long deadlineTick = Math.max(tick, timeout.deadlineNanos / tickNanos);
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket) {
+        int size = bucket.size();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                bucket.set(kept++, timeout);
+            } else {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    log.error("Timer wheel {} task failed: {}", name, e.getMessage(), e);
+                }
+            }
+        }
+        bucket.subList(kept, size).clear();
+    }
+
+    private static final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -24,6 +24,7 @@ CREATE TABLE IF NOT EXISTS headers (
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     created_by VARCHAR(50) NOT NULL DEFAULT 'SYSTEM',
     updated_by VARCHAR(50) NOT NULL DEFAULT 'SYSTEM',
+    INDEX idx_headers_endpoint (endpoints_id),
     FOREIGN KEY (endpoints_id) REFERENCES endpoints(id)
 );
 
@@ -32,11 +33,14 @@ CREATE TABLE IF NOT EXISTS responses (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     endpoints_id BIGINT NOT NULL,
     method VARCHAR(10),
+    status_code INT,
     content_type VARCHAR(255),
     body TEXT,
+    matchers TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     created_by VARCHAR(50) NOT NULL DEFAULT 'SYSTEM',
     updated_by VARCHAR(50) NOT NULL DEFAULT 'SYSTEM',
+    INDEX idx_responses_endpoint_method (endpoints_id, method),
     FOREIGN KEY (endpoints_id) REFERENCES endpoints(id)
 );
\ No newline at end of file
@@ -8,6 +8,7 @@ import com.kds.mock.repository.EndpointsRepository;
 import com.kds.mock.repository.HeadersRepository;
 import com.kds.mock.repository.ResponsesRepository;
 import com.kds.mock.service.MockService;
+import com.kds.mock.service.RouteTableService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
@@ -21,6 +22,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -36,6 +38,9 @@ class MockServiceTests {
     @Autowired
     private MockService mockService;
 
+    @Autowired
+    private RouteTableService routeTableService;
+
     @MockBean
     private EndpointsRepository endpointsRepository;
 
@@ -64,10 +69,7 @@ class MockServiceTests {
 
     @Test
     void testMockResponseWithValidEndpoint() {
-        when(endpointsRepository.findEndpointByPath("/test/path")).thenReturn(testEndpoint);
-        when(headersRepository.findAllByEndpointsId(1L)).thenReturn(testHeaders);
-        when(responsesRepository.findResponseByEndpointsIdAndMethod(1L, HttpMethod.GET.name()))
-                .thenReturn(testResponse);
+        givenRoutes(List.of(testEndpoint), testHeaders, List.of(testResponse));
 
         MockResponse mockResponse = mockService.getMockResponseByPathAndMethod("/test/path", HttpMethod.GET.name());
 
@@ -78,13 +80,13 @@ class MockServiceTests {
             () -> assertEquals(MediaType.APPLICATION_JSON_VALUE, 
                 Objects.requireNonNull(mockResponse.getHeaders().getContentType()).toString()),
             () -> assertEquals("custom-value", mockResponse.getHeaders().getFirst("Custom-Header")),
-            () -> assertEquals("{\"name\": \"test\"}", mockResponse.getBody())
+            () -> assertEquals("{\"name\": \"test\"}", mockResponse.getBodyAsString())
         );
     }
 
     @Test
     void testMockResponseWithNonExistentEndpoint() {
-        when(endpointsRepository.findEndpointByPath("/non-existent")).thenReturn(null);
+        givenRoutes(List.of(testEndpoint), testHeaders, List.of(testResponse));
 
         MockResponse mockResponse = mockService.getMockResponseByPathAndMethod("/non-existent", HttpMethod.GET.name());
 
@@ -93,10 +95,7 @@ class MockServiceTests {
 
     @Test
     void testMockResponseWithNoHeaders() {
-        when(endpointsRepository.findEndpointByPath("/test/path")).thenReturn(testEndpoint);
-        when(headersRepository.findAllByEndpointsId(1L)).thenReturn(new ArrayList<>());
-        when(responsesRepository.findResponseByEndpointsIdAndMethod(1L, HttpMethod.GET.name()))
-                .thenReturn(testResponse);
+        givenRoutes(List.of(testEndpoint), new ArrayList<>(), List.of(testResponse));
 
         MockResponse mockResponse = mockService.getMockResponseByPathAndMethod("/test/path", HttpMethod.GET.name());
 
@@ -106,17 +105,15 @@ class MockServiceTests {
             () -> assertNotNull(mockResponse.getHeaders()),
             () -> assertEquals(MediaType.APPLICATION_JSON_VALUE,
                 Objects.requireNonNull(mockResponse.getHeaders().getContentType()).toString()),
-            () -> assertEquals("{\"name\": \"test\"}", mockResponse.getBody())
+            () -> assertEquals("{\"name\": \"test\"}", mockResponse.getBodyAsString())
         );
     }
 
     @Test
     void testMockResponseWithDifferentHttpMethod() {
-        when(endpointsRepository.findEndpointByPath("/test/path")).thenReturn(testEndpoint);
-        when(headersRepository.findAllByEndpointsId(1L)).thenReturn(testHeaders);
-        when(responsesRepository.findResponseByEndpointsIdAndMethod(1L, HttpMethod.POST.name()))
-                .thenReturn(new Responses(testEndpoint, HttpMethod.POST.name(), 
-                    MediaType.APPLICATION_JSON_VALUE, "{\"method\": \"POST\"}"));
+        givenRoutes(List.of(testEndpoint), testHeaders, List.of(testResponse,
+                new Responses(testEndpoint, HttpMethod.POST.name(), 
+                    MediaType.APPLICATION_JSON_VALUE, "{\"method\": \"POST\"}")));
 
         MockResponse mockResponse = mockService.getMockResponseByPathAndMethod("/test/path", HttpMethod.POST.name());
 
@@ -124,7 +121,7 @@ class MockServiceTests {
         assertAll(
             () -> assertEquals(200, mockResponse.getStatusCode()),
             () -> assertNotNull(mockResponse.getHeaders()),
-            () -> assertEquals("{\"method\": \"POST\"}", mockResponse.getBody())
+            () -> assertEquals("{\"method\": \"POST\"}", mockResponse.getBodyAsString())
         );
     }
 
@@ -133,11 +130,9 @@ class MockServiceTests {
         Endpoints errorEndpoint = new Endpoints("/error/path", 500, "Error endpoint");
         errorEndpoint.setId(2L);
         
-        when(endpointsRepository.findEndpointByPath("/error/path")).thenReturn(errorEndpoint);
-        when(headersRepository.findAllByEndpointsId(2L)).thenReturn(testHeaders);
-        when(responsesRepository.findResponseByEndpointsIdAndMethod(2L, HttpMethod.GET.name()))
-                .thenReturn(new Responses(errorEndpoint, HttpMethod.GET.name(), 
-                    MediaType.APPLICATION_JSON_VALUE, "{\"error\": \"Internal Server Error\"}"));
+        givenRoutes(List.of(errorEndpoint), Collections.emptyList(), List.of(
+                new Responses(errorEndpoint, HttpMethod.GET.name(), 
+                    MediaType.APPLICATION_JSON_VALUE, "{\"error\": \"Internal Server Error\"}")));
 
         MockResponse mockResponse = mockService.getMockResponseByPathAndMethod("/error/path", HttpMethod.GET.name());
 
@@ -145,7 +140,14 @@ class MockServiceTests {
         assertAll(
             () -> assertEquals(500, mockResponse.getStatusCode()),
             () -> assertNotNull(mockResponse.getHeaders()),
-            () -> assertEquals("{\"error\": \"Internal Server Error\"}", mockResponse.getBody())
+            () -> assertEquals("{\"error\": \"Internal Server Error\"}", mockResponse.getBodyAsString())
         );
     }
+
+    private void givenRoutes(List<Endpoints> endpoints, List<Headers> headers, List<Responses> responses) {
+        when(endpointsRepository.findAll()).thenReturn(endpoints);
+        when(headersRepository.findAll()).thenReturn(headers);
+        when(responsesRepository.findAll()).thenReturn(responses);
+        routeTableService.reload();
+    }
 }
@@ -0,0 +1,125 @@
+package com.kds.mock;
+
+import com.kds.mock.entity.Endpoints;
+import com.kds.mock.entity.Headers;
+import com.kds.mock.entity.Responses;
+import com.kds.mock.repository.EndpointsRepository;
+import com.kds.mock.repository.HeadersRepository;
+import com.kds.mock.repository.ResponsesRepository;
+import com.kds.mock.service.RouteTableService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Streams throttled responses through the embedded server. The server has far fewer request threads
+ * than there are slow clients, which only works because no thread is held while a body drips out.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"server.tomcat.threads.max=8", "mock.throttle.tick=5ms"}
+)
+class ThrottledResponseTests {
+
+    // 1000 bytes in 200 byte chunks at 4000 bytes per second, 50ms apart, after 200ms to first byte
+    private static final String BODY = "x".repeat(1_000);
+    private static final String THROTTLE_CONFIG =
+        "{\"throttleConfig\":{\"enabled\":true,\"bytesPerSecond\":4000,\"chunkSizeBytes\":200,\"timeToFirstByteMs\":200}}";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RouteTableService routeTableService;
+
+    @MockBean
+    private EndpointsRepository endpointsRepository;
+
+    @MockBean
+    private HeadersRepository headersRepository;
+
+    @MockBean
+    private ResponsesRepository responsesRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        Endpoints endpoint = new Endpoints("/api/slow/download", 200, "Slow download");
+        endpoint.setId(1L);
+        endpoint.setLoadTestConfig(THROTTLE_CONFIG);
+        Headers contentType = new Headers(endpoint, "Content-Type", MediaType.TEXT_PLAIN_VALUE);
+        Responses response = new Responses(endpoint, HttpMethod.GET.name(), MediaType.TEXT_PLAIN_VALUE, BODY);
+
+        when(endpointsRepository.findAll()).thenReturn(List.of(endpoint));
+        when(headersRepository.findAll()).thenReturn(List.of(contentType));
+        when(responsesRepository.findAll()).thenReturn(List.of(response));
+        routeTableService.reload();
+    }
+
+    @Test
+    void testSendsHeadersAtOnceAndPacesTheBody() throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = httpClient.send(request(), HttpResponse.BodyHandlers.ofInputStream());
+        long headersMs = elapsedMs(start);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("1000", response.headers().firstValue("Content-Length").orElse(null));
+        try (InputStream body = response.body()) {
+            int first = body.read();
+            long firstByteMs = elapsedMs(start);
+            String rest = new String(body.readAllBytes());
+            long totalMs = elapsedMs(start);
+
+            assertEquals(BODY, (char) first + rest);
+            assertTrue(headersMs < firstByteMs, "headers after " + headersMs + "ms, first byte after " + firstByteMs + "ms");
+            assertTrue(firstByteMs >= 190, "first byte after " + firstByteMs + "ms");
+            assertTrue(totalMs >= 390, "body after " + totalMs + "ms");
+        }
+    }
+
+    @Test
+    void testServesManyMoreSlowClientsThanThreads() {
+        // Holding a thread per client would take at least 200 / 8 * 400ms = 10s
+        int clients = 200;
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            responses.add(httpClient.sendAsync(request(), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            HttpResponse<String> completed = response.orTimeout(30, TimeUnit.SECONDS).join();
+            assertEquals(200, completed.statusCode());
+            assertEquals(BODY, completed.body());
+        }
+        long totalMs = elapsedMs(start);
+        assertTrue(totalMs < 5_000, clients + " clients served in " + totalMs + "ms");
+    }
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/slow/download")).GET().build();
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,26 @@
+package com.kds.mock.config;
+
+import com.kds.mock.metrics.RequestMetrics;
+import com.kds.mock.metrics.RequestOutcome;
+import com.kds.mock.route.RouteMethod;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsConfigTests {
+
+    @Test
+    void testMockEndpointTagLimit_CapsDistinctEndpoints() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MetricsConfig().mockEndpointTagLimit(2));
+        RequestMetrics requestMetrics = new RequestMetrics(registry);
+
+        for (String path : new String[] {"/api/a", "/api/b", "/api/c"}) {
+            requestMetrics.forEndpoint(path).servingMeters(RouteMethod.GET, RequestOutcome.NORMAL).recordPlanned(1, 1, 1);
+        }
+
+        assertEquals(2, registry.find("mock.requests").meters().size());
+        assertEquals(1, registry.find("mock.route.table.reload").meters().size());
+    }
+}
@@ -2,7 +2,10 @@ package com.kds.mock.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.metrics.EndpointMetrics;
+import com.kds.mock.metrics.RequestMetrics;
 import com.kds.mock.service.LoadTestService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,8 +14,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Map;
+
+import static org.hamcrest.Matchers.closeTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -30,6 +38,9 @@ class LoadTestControllerTests {
     @MockBean
     private LoadTestService loadTestService;
 
+    @MockBean
+    private RequestMetrics requestMetrics;
+
     @BeforeEach
     void setup() {
         objectMapper.findAndRegisterModules();
@@ -131,6 +142,37 @@ class LoadTestControllerTests {
                 .andExpect(jsonPath("$.minLatency").exists());
     }
 
+    @Test
+    void testGetLoadTestStats_ReportsRecordedMetrics() throws Exception {
+        EndpointMetrics users = new EndpointMetrics("/api/users", new SimpleMeterRegistry());
+        for (int i = 0; i < 4; i++) {
+            users.recordRequest();
+            users.recordInjectedLatency(100);
+            users.recordServiceTime(100_000_000L + i * 10_000_000L);
+        }
+        users.recordRateLimited();
+        users.recordError();
+        EndpointMetrics orders = new EndpointMetrics("/api/orders", new SimpleMeterRegistry());
+        orders.recordRequest();
+        orders.recordTimeout();
+        orders.recordServiceTime(5_000_000_000L);
+        when(requestMetrics.snapshot()).thenReturn(Map.of("/api/users", users.snapshot(), "/api/orders", orders.snapshot()));
+
+        mockMvc.perform(get("/load-test/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeEndpoints").value(2))
+                .andExpect(jsonPath("$.totalRequests").value(5))
+                .andExpect(jsonPath("$.rateLimitedRequests").value(1))
+                .andExpect(jsonPath("$.timeoutRequests").value(1))
+                .andExpect(jsonPath("$.errorRequests").value(1))
+                .andExpect(jsonPath("$.minLatency", closeTo(100.0, 1.0)))
+                .andExpect(jsonPath("$.maxLatency", closeTo(5000.0, 50.0)))
+                .andExpect(jsonPath("$.averageLatency", closeTo(1092.0, 11.0)))
+                .andExpect(jsonPath("$.endpoints['/api/users'].injectedLatencyMs.total.count").value(4))
+                .andExpect(jsonPath("$.endpoints['/api/users'].injectedLatencyMs.total.max", closeTo(100.0, 1.0)))
+                .andExpect(jsonPath("$.endpoints['/api/orders'].serviceTimeMs.window.count").value(1));
+    }
+
     @Test
     void testResetLoadTestState() throws Exception {
         mockMvc.perform(post("/load-test/reset"))
@@ -138,4 +180,27 @@ class LoadTestControllerTests {
                 .andExpect(jsonPath("$.message").value("Load testing state reset successfully"))
                 .andExpect(jsonPath("$.resetTimestamp").exists());
     }
+
+    @Test
+    void testResetLoadTestState_AllEndpoints() throws Exception {
+        mockMvc.perform(post("/load-test/reset"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scope").value("all"));
+
+        verify(loadTestService).resetState();
+        verify(requestMetrics).reset();
+        verify(loadTestService, never()).resetState(anyString());
+    }
+
+    @Test
+    void testResetLoadTestState_SingleEndpoint() throws Exception {
+        mockMvc.perform(post("/load-test/reset").param("path", "/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scope").value("/api/users"));
+
+        verify(loadTestService).resetState("/api/users");
+        verify(requestMetrics).reset("/api/users");
+        verify(loadTestService, never()).resetState();
+        verify(requestMetrics, never()).reset();
+    }
 } 
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.kds.mock.controllers;
 
 import com.kds.mock.dto.MockResponse;
+import com.kds.mock.route.RequestView;
 import com.kds.mock.service.MockService;
+import com.kds.mock.service.RecordingProxyService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -11,13 +14,26 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(MockRequestController.class)
@@ -26,9 +42,20 @@ class MockRequestControllerTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MockRequestController mockRequestController;
+
     @MockBean
     private MockService mockService;
 
+    @MockBean
+    private RecordingProxyService recordingProxyService;
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(mockRequestController, "asyncEnabled", false);
+    }
+
     @Test
     void testHandleMockRequestWithValidEndpoint() throws Exception {
         HttpHeaders headers = new HttpHeaders();
@@ -36,7 +63,7 @@ class MockRequestControllerTests {
         headers.add("Custom-Header", "custom-value");
 
         MockResponse mockResponse = new MockResponse(200, headers, "{\"name\": \"test\"}");
-        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString())).thenReturn(mockResponse);
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(mockResponse);
 
         mockMvc.perform(get("/api/test/path"))
                 .andExpect(status().isOk())
@@ -47,24 +74,221 @@ class MockRequestControllerTests {
 
     @Test
     void testHandleMockRequestWithNonExistentEndpoint() throws Exception {
-        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString())).thenReturn(null);
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(null);
 
         mockMvc.perform(get("/api/non-existent"))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Mock endpoint not configured."));
     }
 
+    @Test
+    void testHandleMockRequestForwardsUnmatchedRequestWhenRecording() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(null);
+        when(recordingProxyService.isRecording()).thenReturn(true);
+        when(recordingProxyService.forward(eq("POST"), eq("/api/orders"), eq("page=2"), any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(new MockResponse(201, headers, "{\"id\": 7}")));
+
+        MvcResult result = mockMvc.perform(post("/api/orders?page=2").header("X-Tenant", "acme").content("{\"qty\": 1}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(content().json("{\"id\": 7}"));
+        verify(recordingProxyService).forward(eq("POST"), eq("/api/orders"), eq("page=2"),
+            argThat(forwarded -> "acme".equals(forwarded.getFirst("X-Tenant"))),
+            argThat(body -> new String(body, StandardCharsets.UTF_8).equals("{\"qty\": 1}")));
+    }
+
+    @Test
+    void testHandleMockRequestDoesNotForwardWhenReplaying() throws Exception {
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(null);
+
+        mockMvc.perform(get("/api/non-existent"))
+                .andExpect(status().isNotFound());
+        verify(recordingProxyService, never()).forward(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testHandleMockRequestExposesRequestToMatchers() throws Exception {
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            RequestView request = invocation.getArgument(2);
+            String matched = request.header("X-Tenant") + "|" + request.queryParameter("tier") + "|"
+                + new String(request.body(), StandardCharsets.UTF_8);
+            return new MockResponse(200, new HttpHeaders(), matched);
+        });
+
+        mockMvc.perform(post("/api/orders?tier=gold+plus&tier=silver")
+                        .header("X-Tenant", "acme")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": 1}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("acme|gold plus|{\"id\": 1}"));
+    }
+
     @Test
     void testHandleMockRequestWithErrorStatusCode() throws Exception {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
 
         MockResponse mockResponse = new MockResponse(500, headers, "{\"error\": \"Internal Server Error\"}");
-        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString())).thenReturn(mockResponse);
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(mockResponse);
 
         mockMvc.perform(get("/api/error/path"))
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json("{\"error\": \"Internal Server Error\"}"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testHandleMockRequestWritesEncodedBodyAsIs() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Type", "application/json;charset=UTF-8");
+        byte[] body = "{\"name\": \"Zoë\"}".getBytes(StandardCharsets.UTF_8);
+
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any()))
+                .thenReturn(new MockResponse(201, HttpHeaders.readOnlyHttpHeaders(headers), body));
+
+        mockMvc.perform(get("/api/test/path"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Content-Type", "application/json;charset=UTF-8"))
+                .andExpect(header().longValue("Content-Length", body.length))
+                .andExpect(content().bytes(body));
+    }
+
+    @Test
+    void testHandleMockRequestAsyncWithDelayedResponse() throws Exception {
+        ReflectionTestUtils.setField(mockRequestController, "asyncEnabled", true);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        CompletableFuture<MockResponse> pending = new CompletableFuture<>();
+        when(mockService.getMockResponseByPathAndMethodAsync(anyString(), anyString(), any())).thenReturn(pending);
+
+        MvcResult result = mockMvc.perform(get("/api/test/path"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        pending.complete(new MockResponse(200, headers, "{\"name\": \"test\"}"));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"name\": \"test\"}"));
+        verify(mockService, never()).getMockResponseByPathAndMethod(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testHandleMockRequestAsyncWithImmediateResponse() throws Exception {
+        ReflectionTestUtils.setField(mockRequestController, "asyncEnabled", true);
+        when(mockService.getMockResponseByPathAndMethodAsync(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        mockMvc.perform(get("/api/non-existent"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Mock endpoint not configured."));
+    }
+
+    @Test
+    void testHandleMockRequestSendsGzipVariantWhenAccepted() throws Exception {
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(responseWithGzipVariant());
+
+        mockMvc.perform(get("/api/test/path").header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void testHandleMockRequestSendsIdentityWhenGzipNotAccepted() throws Exception {
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(responseWithGzipVariant());
+
+        mockMvc.perform(get("/api/test/path").header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(content().string("{\"name\": \"test\"}"));
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(MockRequestController.acceptsGzip("gzip"));
+        assertTrue(MockRequestController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(MockRequestController.acceptsGzip("*"));
+        assertTrue(MockRequestController.acceptsGzip("x-gzip"));
+        assertFalse(MockRequestController.acceptsGzip(null));
+        assertFalse(MockRequestController.acceptsGzip(""));
+        assertFalse(MockRequestController.acceptsGzip("br, deflate"));
+        assertFalse(MockRequestController.acceptsGzip("gzip;q=0"));
+        assertFalse(MockRequestController.acceptsGzip("*;q=1, gzip;q=0.0"));
+        assertFalse(MockRequestController.acceptsGzip("*;q=0"));
+    }
+
+    private MockResponse responseWithGzipVariant() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Type", "application/json");
+        headers.add("Vary", "Accept-Encoding");
+        HttpHeaders gzipHeaders = new HttpHeaders();
+        gzipHeaders.putAll(headers);
+        gzipHeaders.add("Content-Encoding", "gzip");
+
+        MockResponse response = new MockResponse(200, headers, "{\"name\": \"test\"}");
+        response.setGzipBody(new byte[]{1, 2, 3});
+        response.setGzipHeaders(gzipHeaders);
+        return response;
+    }
+
+    @Test
+    void testHandleMockRequestAnswersMatchingIfNoneMatchWithNotModified() throws Exception {
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(responseWithETag(200));
+
+        mockMvc.perform(get("/api/test/path").header("If-None-Match", "\"other\", \"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(header().string("Cache-Control", "max-age=60"))
+                .andExpect(header().doesNotExist("Content-Type"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void testHandleMockRequestIgnoresNonMatchingIfNoneMatch() throws Exception {
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(responseWithETag(200));
+
+        mockMvc.perform(get("/api/test/path").header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(content().string("{\"name\": \"test\"}"));
+    }
+
+    @Test
+    void testHandleMockRequestIfNoneMatchOnlyAppliesToSuccessfulSafeRequests() throws Exception {
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(responseWithETag(200));
+        mockMvc.perform(post("/api/test/path").header("If-None-Match", "\"abc123\""))
+                .andExpect(status().isOk());
+
+        when(mockService.getMockResponseByPathAndMethod(anyString(), anyString(), any())).thenReturn(responseWithETag(500));
+        mockMvc.perform(get("/api/test/path").header("If-None-Match", "\"abc123\""))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void testMatchesIfNoneMatch() {
+        assertTrue(MockRequestController.matchesIfNoneMatch("\"abc\"", "\"abc\""));
+        assertTrue(MockRequestController.matchesIfNoneMatch("W/\"abc\"", "\"abc\""));
+        assertTrue(MockRequestController.matchesIfNoneMatch(" \"x\" , \"abc\"", "\"abc\""));
+        assertTrue(MockRequestController.matchesIfNoneMatch("*", "\"abc\""));
+        assertFalse(MockRequestController.matchesIfNoneMatch("\"abc-gzip\"", "\"abc\""));
+        assertFalse(MockRequestController.matchesIfNoneMatch("\"ab\"", "\"abc\""));
+    }
+
+    private MockResponse responseWithETag(int statusCode) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Type", "application/json");
+        headers.add("Cache-Control", "max-age=60");
+        headers.setETag("\"abc123\"");
+        return new MockResponse(statusCode, headers, "{\"name\": \"test\"}");
+    }
+}
@@ -0,0 +1,86 @@
+package com.kds.mock.latency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistributionsTests {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void testLogNormalHasConfiguredMeanAndStandardDeviation() {
+        double[] values = draw(random -> Distributions.logNormal(random, 200, 100));
+
+        assertEquals(200, mean(values), 2);
+        assertEquals(100, stdDeviation(values), 3);
+        // Right-skewed: the median is below the mean
+        assertEquals(200 / Math.sqrt(1.25), percentile(values, 0.5), 2);
+        assertTrue(Arrays.stream(values).allMatch(value -> value > 0));
+    }
+
+    @Test
+    void testLogNormalWithoutPositiveMeanIsZero() {
+        assertEquals(0, Distributions.logNormal(new SplittableRandom(1), 0, 50));
+    }
+
+    @Test
+    void testParetoHasConfiguredScaleAndTail() {
+        double[] values = draw(random -> Distributions.pareto(random, 100, 3));
+
+        assertTrue(Arrays.stream(values).allMatch(value -> value >= 100));
+        // Survival function (scale / x)^shape
+        assertEquals(100 * Math.pow(2, 1 / 3.0), percentile(values, 0.5), 1);
+        assertEquals(100 * Math.pow(100, 1 / 3.0), percentile(values, 0.99), 15);
+        assertEquals(150, mean(values), 3);
+    }
+
+    @Test
+    void testExponentialHasConfiguredMean() {
+        double[] values = draw(random -> Distributions.exponential(random, 200));
+
+        assertEquals(200, mean(values), 2);
+        assertEquals(200 * Math.log(2), percentile(values, 0.5), 2);
+        assertEquals(200 * Math.log(100), percentile(values, 0.99), 15);
+    }
+
+    @Test
+    void testGammaHasMeanAndVarianceOfShapeAndScale() {
+        for (double shape : new double[] {0.5, 1, 2, 9}) {
+            double scale = 200 / shape;
+            double[] values = draw(random -> Distributions.gamma(random, shape, scale));
+
+            assertEquals(200, mean(values), 3, "shape " + shape);
+            assertEquals(Math.sqrt(shape) * scale, stdDeviation(values), 4, "shape " + shape);
+            assertTrue(Arrays.stream(values).allMatch(value -> value >= 0), "shape " + shape);
+        }
+    }
+
+    private static double[] draw(ToDoubleFunction<SplittableRandom> distribution) {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] values = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            values[i] = distribution.applyAsDouble(random);
+        }
+        return values;
+    }
+
+    private static double mean(double[] values) {
+        return Arrays.stream(values).average().orElseThrow();
+    }
+
+    private static double stdDeviation(double[] values) {
+        double mean = mean(values);
+        return Math.sqrt(Arrays.stream(values).map(value -> (value - mean) * (value - mean)).average().orElseThrow());
+    }
+
+    private static double percentile(double[] values, double quantile) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (quantile * (sorted.length - 1))];
+    }
+}
@@ -0,0 +1,147 @@
+package com.kds.mock.latency;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InverseCdfSamplerTests {
+
+    @Test
+    void testQuantilesFollowTheObservedDistribution() {
+        Histogram histogram = new Histogram(3);
+        for (int value = 1; value <= 1000; value++) {
+            histogram.recordValue(value);
+        }
+
+        InverseCdfSampler sampler = InverseCdfSampler.fromHistogram(histogram, 1);
+
+        assertEquals(1, sampler.quantileMs(0), 0.01);
+        assertEquals(500, sampler.quantileMs(0.5), 1);
+        assertEquals(990, sampler.quantileMs(0.99), 1);
+        assertEquals(1000, sampler.quantileMs(Math.nextDown(1.0)), 1);
+    }
+
+    @Test
+    void testSamplesKeepSeparateModesApart() {
+        Histogram histogram = new Histogram(3);
+        histogram.recordValueWithCount(20, 700);
+        histogram.recordValueWithCount(200, 299);
+        histogram.recordValueWithCount(3000, 1);
+        InverseCdfSampler sampler = InverseCdfSampler.fromHistogram(histogram, 1);
+        SplittableRandom random = new SplittableRandom(11);
+
+        int fast = 0;
+        int medium = 0;
+        for (int i = 0; i < 100_000; i++) {
+            long latency = sampler.sampleMs(random);
+            // Values are drawn from the middle of their histogram bucket, within 0.1% at three significant digits
+            assertTrue(latency >= 20 && latency <= 3003, "latency " + latency);
+            if (latency == 20) {
+                fast++;
+            } else if (latency == 200) {
+                medium++;
+            }
+        }
+
+        // Only draws that land between two table entries of different modes fall in between
+        assertEquals(0.70, fast / 100_000.0, 0.01);
+        assertEquals(0.30, medium / 100_000.0, 0.01);
+    }
+
+    @Test
+    void testFromEncodedHistogramConvertsUnits() {
+        Histogram histogram = new Histogram(2);
+        histogram.recordValueWithCount(TimeUnit.MILLISECONDS.toMicros(40), 10);
+
+        InverseCdfSampler sampler = InverseCdfSampler.fromEncodedHistogram(encode(histogram), TimeUnit.MICROSECONDS);
+
+        assertEquals(40, sampler.sampleMs(new SplittableRandom(1)));
+    }
+
+    @Test
+    void testFromEncodedHistogramRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromEncodedHistogram(null, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromEncodedHistogram("bm90IGEgaGlzdG9ncmFt", TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromEncodedHistogram("%%%", TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class,
+            () -> InverseCdfSampler.fromEncodedHistogram(encode(new Histogram(2)), TimeUnit.MILLISECONDS));
+        for (TimeUnit coarse : List.of(TimeUnit.SECONDS, TimeUnit.MINUTES, TimeUnit.HOURS, TimeUnit.DAYS)) {
+            assertThrows(IllegalArgumentException.class,
+                () -> InverseCdfSampler.fromEncodedHistogram("HISTFAAAACZ4nJNpmSzMwMDAyQABTFCaEUr9t/8AYYl38LluYfzNLAIAcV4GOw==", coarse));
+        }
+    }
+
+    @Test
+    void testFromCsvReadsValuesCountsHeaderAndComments() {
+        InverseCdfSampler sampler = InverseCdfSampler.fromCsv("""
+            latency_ms,count
+            # warm cache
+            2.5,3
+
+            100
+            """);
+
+        assertEquals(2.5, sampler.quantileMs(0), 0.01);
+        assertEquals(2.5, sampler.quantileMs(0.7), 0.01);
+        assertEquals(100, sampler.quantileMs(0.9), 0.1);
+    }
+
+    @Test
+    void testFromCsvRejectsInvalidLines() {
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromCsv(""));
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromCsv("latency_ms\n"));
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromCsv("10\nslow"));
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromCsv("10,1,2"));
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromCsv("-3"));
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromCsv("NaN"));
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromCsv("10,-1"));
+        assertThrows(IllegalArgumentException.class, () -> InverseCdfSampler.fromCsv("10,0"));
+    }
+
+    @Test
+    void testFromPointsInterpolatesLinearly() {
+        InverseCdfSampler sampler = InverseCdfSampler.fromPoints(new double[] {0, 0.5, 1}, new double[] {0, 100, 300}, false);
+
+        assertEquals(0, sampler.quantileMs(0), 1e-9);
+        assertEquals(50, sampler.quantileMs(0.25), 1e-9);
+        assertEquals(100, sampler.quantileMs(0.5), 1e-9);
+        assertEquals(200, sampler.quantileMs(0.75), 1e-9);
+    }
+
+    @Test
+    void testFromPointsInterpolatesLogarithmically() {
+        InverseCdfSampler sampler = InverseCdfSampler.fromPoints(new double[] {0, 0.5, 1}, new double[] {0, 99, 9999}, true);
+
+        assertEquals(0, sampler.quantileMs(0), 1e-6);
+        assertEquals(99, sampler.quantileMs(0.5), 1e-6);
+        // Halfway along a segment is the geometric mean of its ends, offset by one so it can start at 0
+        assertEquals(999, sampler.quantileMs(0.75), 0.5);
+        assertEquals(9, sampler.quantileMs(0.25), 0.1);
+    }
+
+    @Test
+    void testFromPointsRequiresTheWholeProbabilityRange() {
+        assertThrows(IllegalArgumentException.class,
+            () -> InverseCdfSampler.fromPoints(new double[] {0.5, 1}, new double[] {10, 20}, false));
+        assertThrows(IllegalArgumentException.class,
+            () -> InverseCdfSampler.fromPoints(new double[] {0, 0.5}, new double[] {10, 20}, false));
+        assertThrows(IllegalArgumentException.class,
+            () -> InverseCdfSampler.fromPoints(new double[] {0, 1}, new double[] {10}, false));
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,115 @@
+package com.kds.mock.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testSnapshot_EmptyHistogram() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.window().count());
+        assertEquals(0, snapshot.total().count());
+        assertEquals(0, snapshot.total().p999());
+    }
+
+    @Test
+    void testSnapshot_PercentilesWithinOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofMinutes(1), 6, 0);
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value, 0);
+        }
+
+        LatencyHistogram.Summary summary = histogram.snapshot(0).total();
+
+        assertEquals(100_000, summary.count());
+        assertEquals(50_000, summary.mean(), 500);
+        assertEquals(1, summary.min());
+        assertEquals(100_000, summary.max(), 1_000);
+        assertEquals(50_000, summary.p50(), 500);
+        assertEquals(90_000, summary.p90(), 900);
+        assertEquals(99_000, summary.p99(), 990);
+        assertEquals(99_900, summary.p999(), 999);
+    }
+
+    @Test
+    void testSnapshot_WindowDropsExpiredSlots() {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofSeconds(60), 6, 0);
+        for (int i = 0; i < 100; i++) {
+            histogram.record(5_000_000, 0);
+        }
+        histogram.record(1_000, 30 * SECOND);
+
+        LatencyHistogram.Snapshot withinWindow = histogram.snapshot(30 * SECOND);
+        LatencyHistogram.Snapshot afterWindow = histogram.snapshot(65 * SECOND);
+
+        assertEquals(101, withinWindow.window().count());
+        assertEquals(1, afterWindow.window().count());
+        assertEquals(1_000, afterWindow.window().max(), 10);
+        assertEquals(101, afterWindow.total().count());
+        assertEquals(5_000_000, afterWindow.total().max(), 50_000);
+    }
+
+    @Test
+    void testSnapshot_IdleLongerThanWindowClearsEverySlot() {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofSeconds(60), 6, 0);
+        for (int second = 0; second < 60; second += 10) {
+            histogram.record(1_000, second * SECOND);
+        }
+
+        assertEquals(6, histogram.snapshot(59 * SECOND).window().count());
+        assertEquals(0, histogram.snapshot(10 * 60 * SECOND).window().count());
+        assertEquals(6, histogram.snapshot(10 * 60 * SECOND).total().count());
+    }
+
+    @Test
+    void testRecord_ClampsOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram.Summary summary = histogram.snapshot().total();
+        assertEquals(0, summary.min());
+        assertTrue(summary.max() <= LatencyHistogram.HIGHEST_TRACKABLE_MICROS * 1.01);
+    }
+
+    @Test
+    void testRecord_ConcurrentWritersLoseNothing() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 1; i <= 10_000; i++) {
+                        histogram.record(i);
+                        if (i % 1_000 == 0) {
+                            histogram.snapshot();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        LatencyHistogram.Summary summary = histogram.snapshot().total();
+        assertEquals(80_000, summary.count());
+        assertEquals(1, summary.min());
+        assertEquals(10_000, summary.max(), 100);
+    }
+}
@@ -0,0 +1,160 @@
+package com.kds.mock.metrics;
+
+import com.kds.mock.route.RouteMethod;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMetricsTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestMetrics requestMetrics = new RequestMetrics(meterRegistry);
+
+    @Test
+    void testForEndpoint_ReturnsSameMetricsPerPath() {
+        assertSame(requestMetrics.forEndpoint("/api/users"), requestMetrics.forEndpoint("/api/users"));
+        assertNotSame(requestMetrics.forEndpoint("/api/users"), requestMetrics.forEndpoint("/api/orders"));
+    }
+
+    @Test
+    void testSnapshot_SortedByPathWithRecordedValues() {
+        EndpointMetrics users = requestMetrics.forEndpoint("/api/users");
+        users.recordRequest();
+        users.recordRequest();
+        users.recordRateLimited();
+        users.recordInjectedLatency(250);
+        users.recordServiceTime(300_000_000L);
+        requestMetrics.forEndpoint("/api/orders").recordRequest();
+
+        Map<String, EndpointMetrics.Snapshot> snapshot = requestMetrics.snapshot();
+
+        assertEquals(List.of("/api/orders", "/api/users"), List.copyOf(snapshot.keySet()));
+        EndpointMetrics.Snapshot usersSnapshot = snapshot.get("/api/users");
+        assertEquals(2, usersSnapshot.totalRequests());
+        assertEquals(1, usersSnapshot.rateLimitedRequests());
+        assertEquals(0, usersSnapshot.timeoutRequests());
+        assertEquals(250_000, usersSnapshot.injectedLatency().total().max(), 2_500);
+        assertEquals(300_000, usersSnapshot.serviceTime().total().max(), 3_000);
+    }
+
+    @Test
+    void testEndpointMetrics_IdleEndpointsAllocateNoHistograms() {
+        new EndpointMetrics("/warm-up", meterRegistry).snapshot();
+        int endpoints = 1_000;
+        EndpointMetrics[] metrics = new EndpointMetrics[endpoints];
+
+        long before = allocatedBytes();
+        for (int i = 0; i < endpoints; i++) {
+            metrics[i] = new EndpointMetrics("/api/items/" + i, meterRegistry);
+        }
+        long perEndpoint = (allocatedBytes() - before) / endpoints;
+
+        assertTrue(perEndpoint < 2_048, "idle endpoint allocated " + perEndpoint + " bytes");
+        assertEquals(0, metrics[endpoints - 1].estimatedFootprintInBytes());
+    }
+
+    @Test
+    void testEndpointMetrics_ActiveEndpointFootprintIsBounded() {
+        EndpointMetrics metrics = new EndpointMetrics("/api/users", meterRegistry);
+        assertEquals(0, metrics.estimatedFootprintInBytes());
+
+        for (int i = 0; i < 10_000; i++) {
+            metrics.recordInjectedLatency(i % 60_000);
+            metrics.recordServiceTime(i * 13_000L);
+        }
+        metrics.snapshot();
+
+        // Two histograms of one full-size recorder array each, plus the packed window and total
+        long footprint = metrics.estimatedFootprintInBytes();
+        assertTrue(footprint > 0);
+        assertTrue(footprint < 64_000, "active endpoint keeps " + footprint + " bytes");
+    }
+
+    @Test
+    void testReset_DiscardsAllEndpoints() {
+        EndpointMetrics before = requestMetrics.forEndpoint("/api/users");
+        before.recordRequest();
+
+        requestMetrics.reset();
+
+        assertTrue(requestMetrics.snapshot().isEmpty());
+        assertNotSame(before, requestMetrics.forEndpoint("/api/users"));
+    }
+
+    @Test
+    void testReset_SingleEndpoint() {
+        requestMetrics.forEndpoint("/api/users").recordRequest();
+        requestMetrics.forEndpoint("/api/orders").recordRequest();
+
+        requestMetrics.reset("/api/users");
+
+        assertEquals(Set.of("/api/orders"), requestMetrics.snapshot().keySet());
+    }
+
+    @Test
+    void testRetainEndpoints_EvictsUnlistedPaths() {
+        requestMetrics.forEndpoint("/api/users").recordRequest();
+        requestMetrics.forEndpoint("/api/deleted").recordRequest();
+
+        requestMetrics.retainEndpoints(Set.of("/api/users", "/api/unused"));
+
+        assertEquals(Set.of("/api/users"), requestMetrics.snapshot().keySet());
+    }
+
+    @Test
+    void testRetainEndpoints_RemovesPublishedMetersOfDeletedEndpoints() {
+        requestMetrics.forEndpoint("/api/users").servingMeters(RouteMethod.GET, RequestOutcome.NORMAL).recordPlanned(1, 1, 1);
+        requestMetrics.forEndpoint("/api/deleted").servingMeters(RouteMethod.GET, RequestOutcome.NORMAL).recordPlanned(1, 1, 1);
+        requestMetrics.recordUnmatched(RouteMethod.GET);
+
+        requestMetrics.retainEndpoints(Set.of("/api/users"));
+
+        assertTrue(meterRegistry.find(ServingMeters.REQUESTS).tag("endpoint", "/api/deleted").meters().isEmpty());
+        assertTrue(meterRegistry.find(ServingMeters.STAGE).tag("endpoint", "/api/deleted").meters().isEmpty());
+        assertEquals(1, meterRegistry.find(ServingMeters.REQUESTS).tag("endpoint", "/api/users").meters().size());
+        assertEquals(1, meterRegistry.find(ServingMeters.REQUESTS).tag("endpoint", RequestMetrics.UNMATCHED).meters().size());
+    }
+
+    @Test
+    void testServingMeters_ReusedPerMethodAndOutcome() {
+        EndpointMetrics users = requestMetrics.forEndpoint("/api/users");
+
+        assertSame(users.servingMeters(RouteMethod.GET, RequestOutcome.NORMAL), users.servingMeters(RouteMethod.GET, RequestOutcome.NORMAL));
+        assertNotSame(users.servingMeters(RouteMethod.GET, RequestOutcome.NORMAL), users.servingMeters(RouteMethod.GET, RequestOutcome.ERROR));
+        assertNotSame(users.servingMeters(RouteMethod.GET, RequestOutcome.NORMAL), users.servingMeters(RouteMethod.POST, RequestOutcome.NORMAL));
+        assertSame(users.servingMeters(RouteMethod.of("FOO"), RequestOutcome.NORMAL), users.servingMeters(RouteMethod.of("BAR"), RequestOutcome.NORMAL));
+    }
+
+    @Test
+    void testServingMeters_TaggedWithResolvedMethod() {
+        EndpointMetrics users = requestMetrics.forEndpoint("/api/users");
+
+        users.servingMeters(RouteMethod.OPTIONS, RequestOutcome.TIMEOUT).recordPlanned(1, 1, 1);
+        users.servingMeters(null, RequestOutcome.NORMAL).recordPlanned(1, 1, 1);
+        requestMetrics.recordUnmatched(null);
+
+        assertEquals(1, meterRegistry.get(ServingMeters.REQUESTS)
+            .tags("endpoint", "/api/users", "method", "OPTIONS", "outcome", "timeout").counter().count());
+        assertEquals(1, meterRegistry.get(ServingMeters.REQUESTS)
+            .tags("endpoint", "/api/users", "method", "OTHER", "outcome", "normal").counter().count());
+        assertEquals(1, meterRegistry.get(ServingMeters.REQUESTS)
+            .tags("endpoint", RequestMetrics.UNMATCHED, "method", "OTHER").counter().count());
+    }
+
+    @Test
+    void testRecordRouteTableReload() {
+        requestMetrics.recordRouteTableReload(1_000_000);
+
+        assertEquals(1, meterRegistry.get(RequestMetrics.ROUTE_TABLE_RELOAD).timer().count());
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,158 @@
+package com.kds.mock.route;
+
+import com.kds.mock.dto.RequestMatcher;
+import com.kds.mock.dto.ResponseVariant;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMatchersTests {
+
+    @Test
+    void testHeaderEqualityAndRegex() {
+        RequestPredicate equal = RequestMatchers.compile(List.of(new RequestMatcher("HEADER", "X-Tenant", "acme", null)));
+        RequestPredicate regex = RequestMatchers.compile(List.of(new RequestMatcher("HEADER", "X-Tenant", null, "ac.*")));
+
+        assertTrue(equal.test(context(Map.of("X-Tenant", "acme"), Map.of(), null)));
+        assertFalse(equal.test(context(Map.of("X-Tenant", "acme-eu"), Map.of(), null)));
+        assertFalse(equal.test(context(Map.of(), Map.of(), null)));
+        assertTrue(regex.test(context(Map.of("X-Tenant", "acme-eu"), Map.of(), null)));
+        assertFalse(regex.test(context(Map.of("X-Tenant", "the-acme"), Map.of(), null)));
+    }
+
+    @Test
+    void testQueryParameterMatch() {
+        RequestPredicate predicate = RequestMatchers.compile(List.of(new RequestMatcher("QUERY", "page", null, "\\d+")));
+
+        assertTrue(predicate.test(context(Map.of(), Map.of("page", "12"), null)));
+        assertFalse(predicate.test(context(Map.of(), Map.of("page", "last"), null)));
+        assertFalse(predicate.test(context(Map.of(), Map.of(), null)));
+    }
+
+    @Test
+    void testBodyJsonPathMatch() {
+        String body = """
+            {"customer": {"tier": "gold", "first name": "Ada"}, "items": [{"sku": "A-1", "qty": 2}], "express": true}
+            """;
+        assertTrue(bodyMatches("$.customer.tier", "gold", null, body));
+        assertTrue(bodyMatches("$.customer['first name']", "Ada", null, body));
+        assertTrue(bodyMatches("$.items[0].sku", null, "A-\\d", body));
+        assertTrue(bodyMatches("$.items[0].qty", "2", null, body));
+        assertTrue(bodyMatches("$.express", "true", null, body));
+        assertTrue(bodyMatches("$.items[0]", "{\"sku\":\"A-1\",\"qty\":2}", null, body));
+        assertFalse(bodyMatches("$.items[1].sku", "A-1", null, body));
+        assertFalse(bodyMatches("$.customer.tier", "gold", null, "not json"));
+        assertFalse(bodyMatches("$.customer.tier", "gold", null, null));
+    }
+
+    @Test
+    void testAllMatchersMustMatch() {
+        RequestPredicate predicate = RequestMatchers.compile(List.of(
+            new RequestMatcher("HEADER", "X-Tenant", "acme", null),
+            new RequestMatcher("QUERY", "region", "eu", null)));
+
+        assertTrue(predicate.test(context(Map.of("X-Tenant", "acme"), Map.of("region", "eu"), null)));
+        assertFalse(predicate.test(context(Map.of("X-Tenant", "acme"), Map.of("region", "us"), null)));
+        assertFalse(predicate.test(context(Map.of(), Map.of("region", "eu"), null)));
+    }
+
+    @Test
+    void testBodyIsNotReadWhenCheaperMatcherFails() {
+        // The body matcher is listed first but evaluated after the header matcher
+        RequestPredicate predicate = RequestMatchers.compile(List.of(
+            new RequestMatcher("BODY", "$.tier", "gold", null),
+            new RequestMatcher("HEADER", "X-Tenant", "acme", null)));
+        AtomicInteger bodyReads = new AtomicInteger();
+        RequestView request = view(Map.of("X-Tenant", "other"), Map.of(), "{\"tier\": \"gold\"}", bodyReads);
+
+        assertFalse(predicate.test(new MatchContext(request)));
+        assertEquals(0, bodyReads.get());
+    }
+
+    @Test
+    void testBodyIsParsedOncePerRequest() {
+        RequestPredicate first = RequestMatchers.compile(List.of(new RequestMatcher("BODY", "$.tier", "silver", null)));
+        RequestPredicate second = RequestMatchers.compile(List.of(new RequestMatcher("BODY", "$.tier", "gold", null)));
+        AtomicInteger bodyReads = new AtomicInteger();
+        MatchContext context = new MatchContext(view(Map.of(), Map.of(), "{\"tier\": \"gold\"}", bodyReads));
+
+        assertFalse(first.test(context));
+        assertTrue(second.test(context));
+        assertEquals(1, bodyReads.get());
+    }
+
+    @Test
+    void testInvalidMatchersRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RequestMatchers.compile(List.of()));
+        assertThrows(IllegalArgumentException.class,
+            () -> RequestMatchers.compile(List.of(new RequestMatcher("COOKIE", "session", "1", null))));
+        assertThrows(IllegalArgumentException.class,
+            () -> RequestMatchers.compile(List.of(new RequestMatcher("HEADER", "X-Tenant", "acme", "acme"))));
+        assertThrows(IllegalArgumentException.class,
+            () -> RequestMatchers.compile(List.of(new RequestMatcher("HEADER", "X-Tenant", null, "acme("))));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> RequestMatchers.requireValid(List.of(
+            new ResponseVariant(List.of(new RequestMatcher("HEADER", "X-Tenant", "acme", null)), "{}", null),
+            new ResponseVariant(List.of(new RequestMatcher("BODY", "$.items[*].sku", "A-1", null)), "{}", null))));
+        assertTrue(ex.getMessage().startsWith("Invalid response variant 2"));
+    }
+
+    @Test
+    void testUnsupportedJsonPathsRejected() {
+        for (String path : List.of("tier", "$..tier", "$.items[*]", "$.items[?(@.qty > 1)]", "$['tier", "$.a[1")) {
+            assertThrows(IllegalArgumentException.class, () -> RequestMatchers.compileJsonPath(path), path);
+        }
+        assertEquals("/a~1b/0/c", RequestMatchers.compileJsonPath("$['a/b'][0].c").toString());
+        assertEquals("", RequestMatchers.compileJsonPath("$").toString());
+    }
+
+    @Test
+    void testJsonRoundTrip() {
+        List<RequestMatcher> matchers = List.of(
+            new RequestMatcher("HEADER", "X-Tenant", "acme", null),
+            new RequestMatcher("BODY", "$.tier", null, "gold|platinum"));
+
+        List<RequestMatcher> parsed = RequestMatchers.fromJson(RequestMatchers.toJson(matchers));
+
+        assertEquals(2, parsed.size());
+        assertEquals("BODY", parsed.get(1).getSource());
+        assertEquals("gold|platinum", parsed.get(1).getMatches());
+        assertNull(parsed.get(1).getEqualTo());
+        assertThrows(IllegalArgumentException.class, () -> RequestMatchers.fromJson("{\"source\": \"HEADER\"}"));
+    }
+
+    private static boolean bodyMatches(String path, String equalTo, String matches, String body) {
+        RequestPredicate predicate = RequestMatchers.compile(List.of(new RequestMatcher("BODY", path, equalTo, matches)));
+        return predicate.test(context(Map.of(), Map.of(), body));
+    }
+
+    private static MatchContext context(Map<String, String> headers, Map<String, String> queryParameters, String body) {
+        return new MatchContext(view(headers, queryParameters, body, new AtomicInteger()));
+    }
+
+    private static RequestView view(Map<String, String> headers, Map<String, String> queryParameters, String body,
+                                    AtomicInteger bodyReads) {
+        return new RequestView() {
+            @Override
+            public String header(String name) {
+                return headers.get(name);
+            }
+
+            @Override
+            public String queryParameter(String name) {
+                return queryParameters.get(name);
+            }
+
+            @Override
+            public byte[] body() {
+                bodyReads.incrementAndGet();
+                return body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            }
+        };
+    }
+}
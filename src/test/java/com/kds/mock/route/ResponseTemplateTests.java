@@ -0,0 +1,104 @@
+package com.kds.mock.route;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseTemplateTests {
+
+    @Test
+    void testStaticBodyIsNotCompiled() {
+        assertNull(ResponseTemplate.compile(null, null, false));
+        assertNull(ResponseTemplate.compile("{\"a\": {\"b\": 1}}", null, true));
+        assertNull(ResponseTemplate.compile("{{unknown}} and {{path.id}} without a path template", null, false));
+    }
+
+    @Test
+    void testRendersPathVariablesAndQueryParameters() {
+        ResponseTemplate template = ResponseTemplate.compile("user {{ path.id }} of {{path.org}}, page {{query.page}}{{query.size}}",
+            PathTemplate.parse("/orgs/{org}/users/{id}"), false);
+
+        assertEquals(4, template.slotCount());
+        assertEquals("user 42 of acme, page 3", render(template, "/orgs/acme/users/42", Map.of(), Map.of("page", "3")));
+    }
+
+    @Test
+    void testUnknownPlaceholdersAreKeptAsText() {
+        ResponseTemplate template = ResponseTemplate.compile("{{{uuid}}} {{path.missing}} {{query.}} {{",
+            PathTemplate.parse("/users/{id}"), false);
+
+        String rendered = render(template, "/users/1", Map.of(), Map.of());
+
+        assertEquals(1, template.slotCount());
+        assertTrue(rendered.startsWith("{"));
+        assertTrue(rendered.endsWith("} {{path.missing}} {{query.}} {{"));
+        UUID uuid = UUID.fromString(rendered.substring(1, 37));
+        assertEquals(4, uuid.version());
+    }
+
+    @Test
+    void testRequestIdFromHeaderOrGenerated() {
+        ResponseTemplate template = ResponseTemplate.compile("{{request.id}}", null, false);
+
+        assertEquals("req-7", render(template, "/", Map.of("X-Request-Id", "req-7"), Map.of()));
+        assertEquals(4, UUID.fromString(render(template, "/", Map.of(), Map.of())).version());
+    }
+
+    @Test
+    void testTimestampsAgreeWithinOneRender() {
+        ResponseTemplate template = ResponseTemplate.compile("{{timestamp}}|{{timestamp.millis}}", null, false);
+
+        String[] parts = render(template, "/", Map.of(), Map.of()).split("\\|");
+
+        assertEquals(Instant.parse(parts[0]).toEpochMilli(), Long.parseLong(parts[1]));
+    }
+
+    @Test
+    void testRequestValuesEscapedForJson() {
+        ResponseTemplate json = ResponseTemplate.compile("{\"q\": \"{{query.q}}\"}", null, true);
+        ResponseTemplate text = ResponseTemplate.compile("{{query.q}}", null, false);
+
+        assertEquals("{\"q\": \"say \\\"hi\\\"\\n\\\\\"}", render(json, "/", Map.of(), Map.of("q", "say \"hi\"\n\\")));
+        assertEquals("say \"hi\"", render(text, "/", Map.of(), Map.of("q", "say \"hi\"")));
+    }
+
+    @Test
+    void testMultiByteCharactersKeepTheirEncoding() {
+        ResponseTemplate template = ResponseTemplate.compile("héllo {{path.name}} ✓", PathTemplate.parse("/greet/{name}"), false);
+
+        assertEquals("héllo wörld ✓", render(template, "/greet/wörld", Map.of(), Map.of()));
+    }
+
+    @Test
+    void testSegment() {
+        assertEquals("a", ResponseTemplate.segment("/a/b/c", 0));
+        assertEquals("c", ResponseTemplate.segment("/a/b/c", 2));
+        assertEquals("", ResponseTemplate.segment("/a/", 1));
+        assertNull(ResponseTemplate.segment("/a", 1));
+    }
+
+    private static String render(ResponseTemplate template, String path, Map<String, String> headers, Map<String, String> queryParameters) {
+        byte[] rendered = template.render(path, new RequestView() {
+            @Override
+            public String header(String name) {
+                return headers.get(name);
+            }
+
+            @Override
+            public String queryParameter(String name) {
+                return queryParameters.get(name);
+            }
+
+            @Override
+            public byte[] body() {
+                return new byte[0];
+            }
+        });
+        return new String(rendered, StandardCharsets.UTF_8);
+    }
+}
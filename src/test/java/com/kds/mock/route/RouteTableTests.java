@@ -0,0 +1,280 @@
+package com.kds.mock.route;
+
+import com.kds.mock.entity.Endpoints;
+import com.kds.mock.entity.Responses;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTableTests {
+
+    private long nextId = 1;
+
+    private Endpoints endpoint(String path) {
+        Endpoints endpoint = new Endpoints(path, 200, "Endpoint " + path);
+        endpoint.setId(nextId++);
+        return endpoint;
+    }
+
+    private RouteTable table(Endpoints... endpoints) {
+        List<Responses> responses = new ArrayList<>();
+        for (Endpoints endpoint : endpoints) {
+            responses.add(new Responses(endpoint, "GET", "application/json", "{\"path\": \"" + endpoint.getPath() + "\"}"));
+        }
+        return RouteTable.build(List.of(endpoints), List.of(), responses, json -> null);
+    }
+
+    private String matchedPath(RouteTable table, String path) {
+        CompiledRoute route = table.find(path);
+        return route != null ? route.path() : null;
+    }
+
+    @Test
+    void testFind_ExactPath() {
+        RouteTable table = table(endpoint("/api/users"));
+
+        assertEquals("/api/users", matchedPath(table, "/api/users"));
+        assertNull(table.find("/api/users/1"));
+        assertNull(table.find("/api/users/"));
+        assertNull(table.find(null));
+    }
+
+    @Test
+    void testMatch_PathVariables() {
+        RouteTable table = table(endpoint("/api/users/{userId}/orders/{orderId}"));
+
+        RouteMatch match = table.match("/api/users/42/orders/7");
+
+        assertNotNull(match);
+        assertEquals("/api/users/{userId}/orders/{orderId}", match.route().path());
+        assertEquals(Map.of("userId", "42", "orderId", "7"), match.pathVariables());
+        assertEquals(List.of("userId", "orderId"), List.copyOf(match.pathVariables().keySet()));
+        assertNull(table.match("/api/users/42/orders"));
+        assertNull(table.match("/api/users/42/orders/7/items"));
+    }
+
+    @Test
+    void testMatch_ExactPathHasNoVariables() {
+        RouteMatch match = table(endpoint("/api/users")).match("/api/users");
+
+        assertEquals("/api/users", match.route().path());
+        assertTrue(match.pathVariables().isEmpty());
+    }
+
+    @Test
+    void testBuild_CompilesVariantsInIdOrderAndSkipsInvalidOnes() {
+        Endpoints endpoint = endpoint("/api/users");
+        Responses defaultResponse = new Responses(endpoint, "GET", "application/json", "{}");
+        Responses later = variant(endpoint, 3L, "[{\"source\":\"HEADER\",\"name\":\"X-Tenant\",\"matches\":\".*\"}]", "{\"later\":true}");
+        Responses earlier = variant(endpoint, 2L, "[{\"source\":\"HEADER\",\"name\":\"X-Tenant\",\"equalTo\":\"acme\"}]", "{\"earlier\":true}");
+        Responses invalid = variant(endpoint, 1L, "[{\"source\":\"HEADER\",\"name\":\"X-Tenant\",\"matches\":\"(\"}]", "{\"invalid\":true}");
+
+        CompiledRoute route = RouteTable.build(List.of(endpoint), List.of(), List.of(later, defaultResponse, earlier, invalid), json -> null)
+            .find("/api/users");
+
+        assertEquals(2, route.conditionalResponses("GET").size());
+        assertEquals("{}", new String(route.response("GET").body()));
+        assertEquals("{\"earlier\":true}", new String(route.response("GET", header("X-Tenant", "acme")).body()));
+        assertEquals("{\"later\":true}", new String(route.response("GET", header("X-Tenant", "other")).body()));
+        assertEquals("{}", new String(route.response("GET", RequestView.NONE).body()));
+        assertTrue(route.conditionalResponses("POST").isEmpty());
+    }
+
+    private static Responses variant(Endpoints endpoint, Long id, String matchers, String body) {
+        Responses variant = new Responses(endpoint, "GET", "application/json", body);
+        variant.setId(id);
+        variant.setMatchers(matchers);
+        return variant;
+    }
+
+    private static RequestView header(String name, String value) {
+        return new RequestView() {
+            @Override
+            public String header(String header) {
+                return header.equals(name) ? value : null;
+            }
+
+            @Override
+            public String queryParameter(String parameter) {
+                return null;
+            }
+
+            @Override
+            public byte[] body() {
+                return new byte[0];
+            }
+        };
+    }
+
+    @Test
+    void testFind_CatchAllMatchesRestOfPath() {
+        RouteTable table = table(endpoint("/api/files/**"));
+
+        assertEquals("/api/files/**", matchedPath(table, "/api/files"));
+        assertEquals("/api/files/**", matchedPath(table, "/api/files/report.pdf"));
+        assertEquals("/api/files/**", matchedPath(table, "/api/files/2024/01/report.pdf"));
+        assertNull(table.find("/api/filesystem"));
+    }
+
+    @Test
+    void testFind_ExactPathTakesPrecedenceOverTemplates() {
+        RouteTable table = table(endpoint("/api/users/{id}"), endpoint("/api/users/me"), endpoint("/api/**"));
+
+        assertEquals("/api/users/me", matchedPath(table, "/api/users/me"));
+        assertEquals("/api/users/{id}", matchedPath(table, "/api/users/42"));
+        assertEquals("/api/**", matchedPath(table, "/api/users/42/avatar"));
+    }
+
+    @Test
+    void testFind_LiteralSegmentBeatsVariableBeatsCatchAll() {
+        RouteTable table = table(
+            endpoint("/api/**"),
+            endpoint("/api/{resource}/latest"),
+            endpoint("/api/orders/{id}"));
+
+        assertEquals("/api/orders/{id}", matchedPath(table, "/api/orders/latest"));
+        assertEquals("/api/{resource}/latest", matchedPath(table, "/api/users/latest"));
+        assertEquals("/api/**", matchedPath(table, "/api/users/42"));
+    }
+
+    @Test
+    void testFind_BacktracksWhenLiteralBranchDoesNotMatch() {
+        RouteTable table = table(endpoint("/api/users/me/settings"), endpoint("/api/users/{id}/posts"));
+
+        assertEquals("/api/users/{id}/posts", matchedPath(table, "/api/users/me/posts"));
+        assertEquals("/api/users/me/settings", matchedPath(table, "/api/users/me/settings"));
+    }
+
+    @Test
+    void testFind_EquivalentTemplatesServeOldestEndpoint() {
+        Endpoints older = endpoint("/api/items/{id}");
+        Endpoints newer = endpoint("/api/items/{itemId}");
+
+        RouteTable table = table(newer, older);
+
+        assertEquals("/api/items/{id}", matchedPath(table, "/api/items/1"));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testFind_ByMethodServesEachMethodWithItsOwnStatus() {
+        Endpoints endpoint = endpoint("/api/users");
+        RouteTable table = RouteTable.build(List.of(endpoint), List.of(), List.of(
+            new Responses(endpoint, "GET", 200, "application/json", "{\"users\": []}"),
+            new Responses(endpoint, "post", 201, "application/json", "{\"created\": true}"),
+            new Responses(endpoint, "DELETE", "application/json", null)), json -> null);
+
+        CompiledRoute get = table.find(RouteMethod.GET, "/api/users");
+        CompiledRoute post = table.find("POST", "/api/users");
+
+        assertSame(get, post);
+        assertEquals(200, get.response(RouteMethod.GET).statusCode());
+        assertEquals(201, post.response(RouteMethod.POST).statusCode());
+        // A response stored without a status code falls back to the endpoint's
+        assertEquals(200, table.find("DELETE", "/api/users").response("DELETE").statusCode());
+        assertEquals(Set.of(RouteMethod.GET, RouteMethod.POST, RouteMethod.DELETE), get.methods());
+        assertNull(table.find(RouteMethod.PUT, "/api/users"));
+        assertNull(table.find("get", "/api/users"));
+        assertNull(table.find("PROPFIND", "/api/users"));
+    }
+
+    @Test
+    void testFind_ByMethodFallsThroughToTemplateServingTheMethod() {
+        Endpoints literal = endpoint("/api/users/me");
+        Endpoints template = endpoint("/api/users/{id}");
+        RouteTable table = RouteTable.build(List.of(literal, template), List.of(), List.of(
+            new Responses(literal, "GET", "application/json", "{\"me\": true}"),
+            new Responses(template, "GET", "application/json", "{}"),
+            new Responses(template, "PUT", "application/json", "{}")), json -> null);
+
+        assertEquals("/api/users/me", table.find(RouteMethod.GET, "/api/users/me").path());
+        assertEquals("/api/users/{id}", table.find(RouteMethod.PUT, "/api/users/me").path());
+        assertEquals(Map.of("id", "me"), table.match(RouteMethod.PUT, "/api/users/me").pathVariables());
+        assertEquals("/api/users/me", table.find("/api/users/me").path());
+    }
+
+    @Test
+    void testFind_EquivalentTemplatesServeDifferentMethods() {
+        Endpoints reads = endpoint("/api/items/{id}");
+        Endpoints writes = endpoint("/api/items/{itemId}");
+        RouteTable table = RouteTable.build(List.of(reads, writes), List.of(), List.of(
+            new Responses(reads, "GET", "application/json", "{}"),
+            new Responses(writes, "PUT", "application/json", "{}")), json -> null);
+
+        assertEquals("/api/items/{id}", table.find(RouteMethod.GET, "/api/items/1").path());
+        assertEquals("/api/items/{itemId}", table.find(RouteMethod.PUT, "/api/items/1").path());
+    }
+
+    @Test
+    void testFind_HeadServedByGetResponse() {
+        Endpoints endpoint = endpoint("/api/users");
+        RouteTable table = RouteTable.build(List.of(endpoint), List.of(), List.of(
+            new Responses(endpoint, "GET", 203, "application/json", "{\"users\": []}")), json -> null);
+
+        CompiledRoute route = table.find(RouteMethod.HEAD, "/api/users");
+
+        assertNotNull(route);
+        assertNull(route.response(RouteMethod.HEAD));
+        assertEquals(203, route.response(RouteMethod.HEAD, RequestView.NONE).statusCode());
+    }
+
+    @Test
+    void testRouteMethod_ResolvesExactNames() {
+        for (RouteMethod method : RouteMethod.values()) {
+            assertSame(method, RouteMethod.of(method.name()));
+        }
+        assertNull(RouteMethod.of("Get"));
+        assertNull(RouteMethod.of("TRACE"));
+        assertNull(RouteMethod.of(""));
+        assertNull(RouteMethod.of(null));
+    }
+
+    @Test
+    void testBuild_InvalidStoredTemplateServedAsPlainPath() {
+        RouteTable table = table(endpoint("/api/{a}/{a}"));
+
+        assertEquals("/api/{a}/{a}", matchedPath(table, "/api/{a}/{a}"));
+        assertNull(table.find("/api/x/y"));
+    }
+
+    @Test
+    void testPaths_IncludesTemplates() {
+        RouteTable table = table(endpoint("/api/users"), endpoint("/api/users/{id}"));
+
+        assertEquals(Set.of("/api/users", "/api/users/{id}"), table.paths());
+    }
+
+    @Test
+    void testFind_ManyTemplates() {
+        int count = 100_000;
+        Endpoints[] endpoints = new Endpoints[count];
+        for (int i = 0; i < count; i++) {
+            endpoints[i] = endpoint("/api/service-" + (i % 1000) + "/resource-" + (i / 1000) + "/{id}");
+        }
+        RouteTable table = RouteTable.build(List.of(endpoints), List.of(), List.of(), json -> null);
+
+        RouteMatch match = table.match("/api/service-123/resource-45/abc");
+
+        assertEquals("/api/service-123/resource-45/{id}", match.route().path());
+        assertEquals(Map.of("id", "abc"), match.pathVariables());
+        assertNull(table.find("/api/service-123/resource-100/abc"));
+    }
+
+    @Test
+    void testParse_RejectsMisusedTemplateSyntax() {
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> PathTemplate.parse("/api/**/latest")),
+            () -> assertThrows(IllegalArgumentException.class, () -> PathTemplate.parse("/api/files/**.txt")),
+            () -> assertThrows(IllegalArgumentException.class, () -> PathTemplate.parse("/api/user-{id}")),
+            () -> assertThrows(IllegalArgumentException.class, () -> PathTemplate.parse("/api/{1d}")),
+            () -> assertThrows(IllegalArgumentException.class, () -> PathTemplate.parse("/api/{id}/{id}")),
+            () -> assertDoesNotThrow(() -> PathTemplate.requireValid("/api/users")),
+            () -> assertDoesNotThrow(() -> PathTemplate.requireValid("/api/users/{id}/files/**"))
+        );
+    }
+}
@@ -0,0 +1,129 @@
+package com.kds.mock.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GcraRateLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testTryAcquire_AdmitsExactlyBurstAtOnce() {
+        GcraRateLimiter limiter = new GcraRateLimiter(0);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(100, 10, 0), "request " + i + " should be admitted");
+        }
+        assertFalse(limiter.tryAcquire(100, 10, 0));
+    }
+
+    @Test
+    void testTryAcquire_RefillsOneRequestPerInterval() {
+        GcraRateLimiter limiter = new GcraRateLimiter(0);
+        long interval = SECOND / 100;
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(100, 10, 0);
+        }
+
+        assertFalse(limiter.tryAcquire(100, 10, interval - 1));
+        assertTrue(limiter.tryAcquire(100, 10, interval));
+        assertFalse(limiter.tryAcquire(100, 10, interval));
+    }
+
+    @Test
+    void testTryAcquire_EnforcesRequestsPerSecond() {
+        GcraRateLimiter limiter = new GcraRateLimiter(0);
+        int admitted = 0;
+
+        // Offer a request every 100 microseconds for two seconds
+        for (long now = 0; now < 2 * SECOND; now += TimeUnit.MICROSECONDS.toNanos(100)) {
+            if (limiter.tryAcquire(50, 5, now)) {
+                admitted++;
+            }
+        }
+
+        // Initial burst plus one request per 20ms interval
+        assertEquals(5 + 99, admitted);
+    }
+
+    @Test
+    void testTryAcquire_BurstSizeOfOne() {
+        GcraRateLimiter limiter = new GcraRateLimiter(0);
+
+        assertTrue(limiter.tryAcquire(1, 1, 0));
+        assertFalse(limiter.tryAcquire(1, 1, SECOND - 1));
+        assertTrue(limiter.tryAcquire(1, 1, SECOND));
+    }
+
+    @Test
+    void testTryAcquire_IdleTimeDoesNotExceedBurst() {
+        GcraRateLimiter limiter = new GcraRateLimiter(0);
+        long now = 60 * SECOND;
+        int admitted = 0;
+
+        for (int i = 0; i < 100; i++) {
+            if (limiter.tryAcquire(100, 10, now)) {
+                admitted++;
+            }
+        }
+
+        assertEquals(10, admitted);
+    }
+
+    @Test
+    void testTryAcquire_ExactUnderContention() throws Exception {
+        GcraRateLimiter limiter = new GcraRateLimiter(0);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        if (limiter.tryAcquire(1000, 250, 0)) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(250, admitted.get());
+    }
+
+    @Test
+    void testTryAcquire_RoundsIntervalUp() {
+        GcraRateLimiter limiter = new GcraRateLimiter(0);
+        int admitted = 0;
+
+        // 3 rps does not divide a second evenly; a truncated interval would admit a fourth request
+        for (long now = 0; now < SECOND; now += 1000) {
+            if (limiter.tryAcquire(3, 1, now)) {
+                admitted++;
+            }
+        }
+
+        assertEquals(3, admitted);
+    }
+}
@@ -10,6 +10,12 @@ import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -290,6 +296,29 @@ class LoadTestServiceTests {
         assertFalse(exceeded);
     }
 
+    @Test
+    void testIsRateLimitExceeded_EnforcesBurstSize() {
+        // Given
+        LoadTestConfig config = new LoadTestConfig();
+        RateLimitConfig rateLimitConfig = new RateLimitConfig();
+        setField(rateLimitConfig, "enabled", true);
+        setField(rateLimitConfig, "requestsPerSecond", 1);
+        setField(rateLimitConfig, "burstSize", 3);
+        setField(config, "rateLimitConfig", rateLimitConfig);
+
+        // When
+        int admitted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (!loadTestService.isRateLimitExceeded("test-path", config)) {
+                admitted++;
+            }
+        }
+
+        // Then
+        assertEquals(3, admitted);
+        assertFalse(loadTestService.isRateLimitExceeded("other-path", config));
+    }
+
     @Test
     void testParseLoadTestConfig_ValidJson() {
         // Given
@@ -359,7 +388,7 @@ class LoadTestServiceTests {
         setField(config, "fixedLatencyMs", 200L);
 
         // When
-        long latency = (Long) invokePrivateMethod(loadTestService, "calculateLatency", config);
+        long latency = loadTestService.calculateLatencyMs(configWith(config));
 
         // Then
         assertEquals(200L, latency);
@@ -374,7 +403,7 @@ class LoadTestServiceTests {
         setField(config, "maxLatencyMs", 300L);
 
         // When
-        long latency = (Long) invokePrivateMethod(loadTestService, "calculateLatency", config);
+        long latency = loadTestService.calculateLatencyMs(configWith(config));
 
         // Then
         assertTrue(latency >= 100L && latency <= 300L);
@@ -389,7 +418,7 @@ class LoadTestServiceTests {
         setField(config, "stdDeviationMs", 50.0);
 
         // When
-        long latency = (Long) invokePrivateMethod(loadTestService, "calculateLatency", config);
+        long latency = loadTestService.calculateLatencyMs(configWith(config));
 
         // Then
         assertTrue(latency > 0L);
@@ -405,12 +434,262 @@ class LoadTestServiceTests {
         setField(config, "p99", 300L);
 
         // When
-        long latency = (Long) invokePrivateMethod(loadTestService, "calculateLatency", config);
+        long latency = loadTestService.calculateLatencyMs(configWith(config));
 
         // Then
         assertTrue(latency > 0L);
     }
 
+    @Test
+    void testCalculateLatency_HistogramTypeReproducesObservedModes() {
+        // Given
+        LatencyConfig config = new LatencyConfig();
+        config.setType("HISTOGRAM");
+        config.setHistogramCsv("latency_ms,count\n10,900\n500,100");
+        RandomGenerator random = new java.util.SplittableRandom(7);
+
+        // When
+        int slow = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long latency = loadTestService.calculateLatencyMs(configWith(config), random);
+            assertTrue(latency == 10L || latency == 500L || latency > 10L && latency < 500L);
+            if (latency >= 500L) {
+                slow++;
+            }
+        }
+
+        // Then
+        assertTrue(slow > 900 && slow < 1100, "slow requests: " + slow);
+    }
+
+    @Test
+    void testParseLoadTestConfig_PrecomputesHistogramOnce() {
+        // Given
+        String json = "{\"latencyConfig\":{\"type\":\"HISTOGRAM\",\"histogramUnit\":\"MILLISECONDS\"," +
+                      "\"histogram\":\"HISTFAAAACZ4nJNpmSzMwMDAyQABTFCaEUr9t/8AYYl38LluYfzNLAIAcV4GOw==\"}}";
+
+        // When
+        LoadTestConfig config = loadTestService.parseLoadTestConfig(json);
+
+        // Then
+        assertNotNull(config.getLatencyConfig().sampler());
+        assertSame(config.getLatencyConfig().sampler(), config.getLatencyConfig().sampler());
+        assertEquals(12L, loadTestService.calculateLatencyMs(config, new FixedRandom(0.5)));
+        // Within the 1% precision of a histogram with two significant digits
+        assertEquals(350L, loadTestService.calculateLatencyMs(config, new FixedRandom(0.999)), 3.5);
+        assertFalse(loadTestService.toJson(config).contains("sampler"));
+    }
+
+    @Test
+    void testParseLoadTestConfig_InvalidHistogram() {
+        String json = "{\"latencyConfig\":{\"type\":\"HISTOGRAM\",\"histogram\":\"not a histogram\"}}";
+
+        assertThrows(IllegalArgumentException.class, () -> loadTestService.parseLoadTestConfig(json));
+    }
+
+    @Test
+    void testCalculateLatency_HeavyTailedTypesAreRightSkewed() {
+        for (String type : List.of("LOG_NORMAL", "PARETO", "EXPONENTIAL", "GAMMA")) {
+            // Given
+            LatencyConfig config = new LatencyConfig();
+            config.setType(type);
+            config.setMeanLatencyMs(200.0);
+            config.setStdDeviationMs(200.0);
+            config.setMinLatencyMs(100L);
+            config.setShape(2.0);
+            RandomGenerator random = new java.util.SplittableRandom(3);
+
+            // When
+            long[] latencies = new long[20_000];
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = loadTestService.calculateLatencyMs(configWith(config), random);
+            }
+
+            // Then, every distribution has a mean of 200ms and a median below it
+            Arrays.sort(latencies);
+            double mean = Arrays.stream(latencies).average().orElseThrow();
+            assertTrue(Math.abs(mean - 200) < 20, type + " mean " + mean);
+            assertTrue(latencies[latencies.length / 2] < 190, type + " median " + latencies[latencies.length / 2]);
+            assertTrue(latencies[0] >= 0, type);
+        }
+    }
+
+    @Test
+    void testCalculateLatency_HeavyTailedTypesAreCapped() {
+        // Given, a Pareto tail so heavy that its mean is infinite
+        LatencyConfig config = new LatencyConfig();
+        config.setType("PARETO");
+        config.setMinLatencyMs(100L);
+        config.setShape(0.5);
+        config.setMaxLatencyMs(5_000L);
+        RandomGenerator random = new java.util.SplittableRandom(5);
+
+        // When
+        long max = 0;
+        for (int i = 0; i < 10_000; i++) {
+            max = Math.max(max, loadTestService.calculateLatencyMs(configWith(config), random));
+        }
+
+        // Then
+        assertEquals(5_000L, max);
+
+        config.setMaxLatencyMs(null);
+        assertEquals(LoadTestService.DEFAULT_LATENCY_CAP_MS,
+            loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(Math.nextDown(1.0))));
+    }
+
+    @Test
+    void testValidate_HeavyTailedLatency() {
+        LatencyConfig latency = new LatencyConfig();
+        latency.setType("PARETO");
+        latency.setShape(0.0);
+        latency.setMinLatencyMs(0L);
+
+        assertEquals(List.of("Shape must be positive", "Pareto latency requires a positive min latency as its scale"),
+            LoadTestConfigValidator.validate(configWith(latency)));
+    }
+
+    @Test
+    void testCalculateLatency_InterpolatedPercentilesHaveNoSteps() {
+        // Given
+        LatencyConfig config = new LatencyConfig();
+        config.setType("PERCENTILE");
+        config.setPercentileInterpolation("LINEAR");
+        config.setMinLatencyMs(20L);
+        config.setP50(100L);
+        config.setP95(500L);
+        config.setP99(1000L);
+
+        // Then, the configured percentiles are passed through and the latency moves smoothly between them
+        assertEquals(20L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0)));
+        assertEquals(60L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.25)));
+        assertEquals(100L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.5)));
+        assertEquals(300L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.725)));
+        assertEquals(1000L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.995)));
+
+        RandomGenerator random = new java.util.SplittableRandom(9);
+        Set<Long> between = new java.util.HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            long latency = loadTestService.calculateLatencyMs(configWith(config), random);
+            if (latency > 100 && latency < 500) {
+                between.add(latency);
+            }
+        }
+        assertTrue(between.size() > 100, "distinct latencies between p50 and p95: " + between.size());
+    }
+
+    @Test
+    void testCalculateLatency_LogLinearPercentilesGrowGeometrically() {
+        // Given
+        LatencyConfig config = new LatencyConfig();
+        config.setType("PERCENTILE");
+        config.setPercentileInterpolation("LOG_LINEAR");
+        config.setP50(99L);
+        config.setP95(9_999L);
+
+        // Then, halfway between p50 and p95 is their geometric mean rather than their average
+        assertEquals(999L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.725)), 1);
+        assertEquals(9_999L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.99)));
+    }
+
+    @Test
+    void testCalculateLatency_InterpolationFollowsConfigChanges() {
+        LatencyConfig config = new LatencyConfig();
+        config.setType("PERCENTILE");
+        config.setP50(100L);
+        config.setP95(500L);
+        config.setPercentileInterpolation("LINEAR");
+        assertEquals(300L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.725)));
+
+        config.setP95(900L);
+        assertEquals(500L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.725)));
+
+        config.setPercentileInterpolation("STEP");
+        assertEquals(900L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.725)));
+    }
+
+    @Test
+    void testValidate_InterpolatedPercentileBounds() {
+        LatencyConfig latency = new LatencyConfig();
+        latency.setType("PERCENTILE");
+        latency.setP50(100L);
+        latency.setP99(800L);
+        latency.setMinLatencyMs(150L);
+        latency.setMaxLatencyMs(700L);
+        assertTrue(LoadTestConfigValidator.validate(configWith(latency)).isEmpty());
+
+        latency.setPercentileInterpolation("LOG_LINEAR");
+        assertEquals(List.of(
+                "Min latency (150) must not exceed the lowest percentile latency (100)",
+                "Max latency (700) must not be below the highest percentile latency (800)"),
+            LoadTestConfigValidator.validate(configWith(latency)));
+    }
+
+    @Test
+    void testValidate_HistogramLatency() {
+        LatencyConfig latency = new LatencyConfig();
+        latency.setType("HISTOGRAM");
+        assertEquals(List.of("Histogram latency requires a histogram or histogramCsv"),
+            LoadTestConfigValidator.validate(configWith(latency)));
+
+        latency.setHistogramCsv("10\n-5");
+        assertEquals(1, LoadTestConfigValidator.validate(configWith(latency)).size());
+
+        latency.setHistogramCsv("10\n20");
+        assertTrue(LoadTestConfigValidator.validate(configWith(latency)).isEmpty());
+
+        latency.setHistogram("HISTFAAAACZ4nJNpmSzMwMDAyQABTFCaEUr9t/8AYYl38LluYfzNLAIAcV4GOw==");
+        assertEquals(List.of("Histogram latency takes either a histogram or histogramCsv, not both"),
+            LoadTestConfigValidator.validate(configWith(latency)));
+    }
+
+    @Test
+    void testValidate_HistogramLatencyRejectsUnsupportedUnit() {
+        LatencyConfig latency = new LatencyConfig();
+        latency.setType("HISTOGRAM");
+        latency.setHistogram("HISTFAAAACZ4nJNpmSzMwMDAyQABTFCaEUr9t/8AYYl38LluYfzNLAIAcV4GOw==");
+        latency.setHistogramUnit("SECONDS");
+
+        assertEquals(List.of("Invalid histogram unit: SECONDS, must be one of [NANOSECONDS, MICROSECONDS, MILLISECONDS]"),
+            LoadTestConfigValidator.validate(configWith(latency)));
+
+        latency.setHistogramUnit("MICROSECONDS");
+        assertTrue(LoadTestConfigValidator.validate(configWith(latency)).isEmpty());
+    }
+
+    @Test
+    void testCalculateLatency_HistogramTypeIsCappedAtMaxLatency() {
+        LatencyConfig config = new LatencyConfig();
+        config.setType("HISTOGRAM");
+        config.setHistogramCsv("10,900\n500,100");
+        config.setMaxLatencyMs(100L);
+
+        assertEquals(10L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.5)));
+        assertEquals(100L, loadTestService.calculateLatencyMs(configWith(config), new FixedRandom(0.999)));
+    }
+
+    private static LoadTestConfig configWith(LatencyConfig latencyConfig) {
+        LoadTestConfig config = new LoadTestConfig();
+        config.setLatencyConfig(latencyConfig);
+        return config;
+    }
+
+    /**
+     * A generator whose doubles are always the same value, to sample a distribution at a given probability
+     */
+    private record FixedRandom(double value) implements RandomGenerator {
+
+        @Override
+        public long nextLong() {
+            return 0;
+        }
+
+        @Override
+        public double nextDouble() {
+            return value;
+        }
+    }
+
     @Test
     void testCalculateLatency_UnknownType() {
         // Given
@@ -418,9 +697,157 @@ class LoadTestServiceTests {
         setField(config, "type", "UNKNOWN");
 
         // When
-        long latency = (Long) invokePrivateMethod(loadTestService, "calculateLatency", config);
+        long latency = loadTestService.calculateLatencyMs(configWith(config));
 
         // Then
         assertEquals(0L, latency);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testCompleteAfter_CompletesAfterDelay() throws Exception {
+        // When
+        long start = System.nanoTime();
+        CompletableFuture<String> future = loadTestService.completeAfter("done", 50);
+
+        // Then
+        assertFalse(future.isDone());
+        assertEquals("done", future.get(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+    }
+
+    @Test
+    void testCompleteAfter_NoDelayCompletesImmediately() {
+        // When
+        CompletableFuture<String> future = loadTestService.completeAfter("done", 0);
+
+        // Then
+        assertTrue(future.isDone());
+        assertEquals("done", future.join());
+    }
+
+    @Test
+    void testNewRequestRandom_WithoutSeedUsesThreadLocalRandom() {
+        // When
+        RandomGenerator random = loadTestService.newRequestRandom("test-path", new LoadTestConfig());
+
+        // Then
+        assertSame(ThreadLocalRandom.current(), random);
+    }
+
+    @Test
+    void testNewRequestRandom_SameSeedReproducesDecisions() {
+        // Given
+        LoadTestConfig config = seededConfig(42L);
+        LoadTestService otherRun = new LoadTestService();
+
+        // When
+        long[] firstRun = drawLatencies(loadTestService, config, 50);
+        long[] secondRun = drawLatencies(otherRun, config, 50);
+
+        // Then
+        assertArrayEquals(firstRun, secondRun);
+        assertTrue(Arrays.stream(firstRun).distinct().count() > 1);
+    }
+
+    @Test
+    void testNewRequestRandom_DifferentSeedsDiffer() {
+        // When
+        long[] first = drawLatencies(loadTestService, seededConfig(1L), 50);
+        long[] second = drawLatencies(new LoadTestService(), seededConfig(2L), 50);
+
+        // Then
+        assertFalse(Arrays.equals(first, second));
+    }
+
+    @Test
+    void testNewRequestRandom_ChangedSeedRestartsSequence() {
+        // Given
+        long[] expected = drawLatencies(new LoadTestService(), seededConfig(7L), 10);
+        drawLatencies(loadTestService, seededConfig(3L), 5);
+
+        // When
+        long[] actual = drawLatencies(loadTestService, seededConfig(7L), 10);
+
+        // Then
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void testResetState_RestoresBurstAndSeededSequence() {
+        // Given
+        LoadTestConfig config = rateLimitedConfig();
+        long[] expected = drawLatencies(new LoadTestService(), seededConfig(7L), 5);
+        drawLatencies(loadTestService, seededConfig(7L), 5);
+        for (int i = 0; i < 3; i++) {
+            loadTestService.isRateLimitExceeded("test-path", config);
+        }
+        assertTrue(loadTestService.isRateLimitExceeded("test-path", config));
+
+        // When
+        loadTestService.resetState();
+
+        // Then
+        assertFalse(loadTestService.isRateLimitExceeded("test-path", config));
+        assertArrayEquals(expected, drawLatencies(loadTestService, seededConfig(7L), 5));
+    }
+
+    @Test
+    void testResetState_SingleEndpoint() {
+        // Given
+        LoadTestConfig config = rateLimitedConfig();
+        for (int i = 0; i < 3; i++) {
+            loadTestService.isRateLimitExceeded("test-path", config);
+            loadTestService.isRateLimitExceeded("other-path", config);
+        }
+
+        // When
+        loadTestService.resetState("test-path");
+
+        // Then
+        assertFalse(loadTestService.isRateLimitExceeded("test-path", config));
+        assertTrue(loadTestService.isRateLimitExceeded("other-path", config));
+    }
+
+    @Test
+    void testRetainEndpoints_EvictsUnlistedPaths() {
+        // Given
+        LoadTestConfig config = rateLimitedConfig();
+        loadTestService.isRateLimitExceeded("kept-path", config);
+        loadTestService.isRateLimitExceeded("deleted-path", config);
+
+        // When
+        loadTestService.retainEndpoints(Set.of("kept-path"));
+
+        // Then
+        assertEquals(1, loadTestService.getRateLimiterCount());
+    }
+
+    private LoadTestConfig rateLimitedConfig() {
+        LoadTestConfig config = new LoadTestConfig();
+        RateLimitConfig rateLimitConfig = new RateLimitConfig();
+        setField(rateLimitConfig, "enabled", true);
+        setField(rateLimitConfig, "requestsPerSecond", 1);
+        setField(rateLimitConfig, "burstSize", 3);
+        setField(config, "rateLimitConfig", rateLimitConfig);
+        return config;
+    }
+
+    private LoadTestConfig seededConfig(long seed) {
+        LoadTestConfig config = new LoadTestConfig();
+        LatencyConfig latencyConfig = new LatencyConfig();
+        setField(latencyConfig, "type", "RANDOM");
+        setField(latencyConfig, "minLatencyMs", 0L);
+        setField(latencyConfig, "maxLatencyMs", 1000L);
+        setField(config, "latencyConfig", latencyConfig);
+        setField(config, "seed", seed);
+        return config;
+    }
+
+    private long[] drawLatencies(LoadTestService service, LoadTestConfig config, int requests) {
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            latencies[i] = service.calculateLatencyMs(config, service.newRequestRandom("test-path", config));
+        }
+        return latencies;
+    }
+}
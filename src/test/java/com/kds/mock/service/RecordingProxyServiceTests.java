@@ -0,0 +1,131 @@
+package com.kds.mock.service;
+
+import com.kds.mock.dto.MockResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecordingProxyServiceTests {
+
+    private final RecordingWriter recordingWriter = mock(RecordingWriter.class);
+    private final AtomicReference<String> receivedRequest = new AtomicReference<>();
+
+    private HttpServer upstream;
+    private RecordingProxyService recordingProxyService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            receivedRequest.set(exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                + " tenant=" + exchange.getRequestHeaders().getFirst("X-Tenant")
+                + " encoding=" + exchange.getRequestHeaders().getFirst("Accept-Encoding")
+                + " body=" + new String(requestBody, StandardCharsets.UTF_8));
+            byte[] body = "{\"id\": 7}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("X-Upstream", "yes");
+            exchange.sendResponseHeaders(201, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        upstream.createContext("/binary", exchange -> {
+            byte[] body = {(byte) 0x89, 'P', 'N', 'G', (byte) 0xFF};
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        upstream.start();
+        recordingProxyService = new RecordingProxyService(recordingWriter, RecordingProxyService.Mode.RECORD,
+            "http://127.0.0.1:" + upstream.getAddress().getPort() + "/", Duration.ofSeconds(2), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void testForward_ReturnsAndRecordsUpstreamResponse() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Tenant", "acme");
+        headers.add(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        headers.add(HttpHeaders.CONNECTION, "keep-alive");
+        headers.add(HttpHeaders.HOST, "mock.local");
+
+        MockResponse response = recordingProxyService.forward("POST", "/api/orders", "page=2", headers,
+            "{\"qty\": 1}".getBytes(StandardCharsets.UTF_8)).join();
+
+        assertEquals("POST /api/orders?page=2 tenant=acme encoding=null body={\"qty\": 1}", receivedRequest.get());
+        assertEquals(201, response.getStatusCode());
+        assertEquals("{\"id\": 7}", response.getBodyAsString());
+        assertEquals("yes", response.getHeaders().getFirst("X-Upstream"));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_LENGTH));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.DATE));
+
+        ArgumentCaptor<RecordingWriter.Recording> recording = ArgumentCaptor.forClass(RecordingWriter.Recording.class);
+        verify(recordingWriter).record(recording.capture());
+        assertEquals("POST", recording.getValue().method());
+        assertEquals("/api/orders", recording.getValue().path());
+        assertEquals(201, recording.getValue().statusCode());
+        assertEquals("application/json", recording.getValue().contentType());
+        assertEquals("{\"id\": 7}", recording.getValue().body());
+        assertTrue(recording.getValue().latencyMs() >= 0);
+    }
+
+    @Test
+    void testForward_DoesNotRecordMethodsEndpointsCannotServe() {
+        MockResponse response = recordingProxyService.forward("TRACE", "/api/orders", null, new HttpHeaders(), new byte[0]).join();
+
+        assertEquals(201, response.getStatusCode());
+        verifyNoInteractions(recordingWriter);
+    }
+
+    @Test
+    void testForward_DoesNotRecordBinaryBodies() {
+        MockResponse response = recordingProxyService.forward("GET", "/binary/logo.png", null, new HttpHeaders(), new byte[0]).join();
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(5, response.getBody().length);
+        verifyNoInteractions(recordingWriter);
+    }
+
+    @Test
+    void testForward_UnreachableUpstreamIsBadGateway() {
+        upstream.stop(0);
+
+        MockResponse response = recordingProxyService.forward("GET", "/api/orders", null, new HttpHeaders(), new byte[0]).join();
+
+        assertEquals(502, response.getStatusCode());
+        assertTrue(response.getBodyAsString().contains("Bad Gateway"));
+        verifyNoInteractions(recordingWriter);
+    }
+
+    @Test
+    void testReplayModeDoesNotForward() {
+        RecordingProxyService replaying = new RecordingProxyService(recordingWriter, RecordingProxyService.Mode.REPLAY,
+            "", Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        assertFalse(replaying.isRecording());
+        assertThrows(IllegalStateException.class,
+            () -> replaying.forward("GET", "/api/orders", null, new HttpHeaders(), new byte[0]));
+    }
+
+    @Test
+    void testRecordModeRequiresUpstream() {
+        assertThrows(IllegalStateException.class, () -> new RecordingProxyService(recordingWriter,
+            RecordingProxyService.Mode.RECORD, " ", Duration.ofSeconds(2), Duration.ofSeconds(5)));
+    }
+}
@@ -0,0 +1,220 @@
+package com.kds.mock.service;
+
+import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.entity.Endpoints;
+import com.kds.mock.entity.Headers;
+import com.kds.mock.entity.Responses;
+import com.kds.mock.repository.EndpointsRepository;
+import com.kds.mock.repository.HeadersRepository;
+import com.kds.mock.repository.ResponsesRepository;
+import com.kds.mock.route.RouteTableChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecordingWriterTests {
+
+    @Mock
+    private EndpointsRepository endpointsRepository;
+    @Mock
+    private HeadersRepository headersRepository;
+    @Mock
+    private ResponsesRepository responsesRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final LoadTestService loadTestService = new LoadTestService();
+
+    private RecordingWriter recordingWriter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        recordingWriter = newWriter(100, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recordingWriter.shutdown();
+    }
+
+    private RecordingWriter newWriter(int batchSize, boolean recordLatency) {
+        // A long flush interval so that only explicit flushes write in these tests
+        return new RecordingWriter(endpointsRepository, headersRepository, responsesRepository, loadTestService,
+            eventPublisher, new TransactionTemplate(transactionManager), batchSize, 100, Duration.ofHours(1), recordLatency);
+    }
+
+    @Test
+    void testFlush_StoresEndpointsHeadersAndResponsesOfABatchTogether() {
+        recordingWriter.record(recording("GET", "/api/users", 200, "{\"users\": []}", 40));
+        recordingWriter.record(recording("POST", "/api/users", 201, "{\"id\": 1}", 60));
+        recordingWriter.record(recording("GET", "/api/orders", 200, "[]", 20));
+
+        assertEquals(3, recordingWriter.flush());
+
+        List<Endpoints> endpoints = captureAll(endpointsRepository);
+        assertEquals(List.of("/api/users", "/api/orders"), endpoints.stream().map(Endpoints::getPath).toList());
+        assertEquals(RecordingWriter.DESCRIPTION, endpoints.get(0).getDescription());
+        assertNull(endpoints.get(0).getLoadTestConfig());
+
+        List<Responses> responses = captureAll(responsesRepository);
+        assertEquals(3, responses.size());
+        assertEquals("POST", responses.get(1).getMethod());
+        assertEquals(201, responses.get(1).getStatusCode());
+        assertEquals("{\"id\": 1}", responses.get(1).getBody());
+        assertSame(endpoints.get(0), responses.get(1).getEndpoints());
+
+        List<Headers> headers = captureAll(headersRepository);
+        assertEquals(2, headers.size());
+        assertEquals("Content-Type", headers.get(0).getName());
+
+        // One rebuild of the route table for the whole batch
+        verify(eventPublisher, times(1)).publishEvent(any(RouteTableChangedEvent.class));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void testRecord_KeepsOnlyTheFirstExchangePerMethodAndPath() {
+        assertTrue(recordingWriter.record(recording("GET", "/api/users", 200, "first", 10)));
+        assertFalse(recordingWriter.record(recording("GET", "/api/users", 500, "second", 10)));
+
+        assertEquals(1, recordingWriter.flush());
+        assertEquals("first", captureAll(responsesRepository).get(0).getBody());
+
+        // Once written, a new exchange can be queued again and is checked against the stored endpoints
+        assertTrue(recordingWriter.record(recording("GET", "/api/users", 200, "third", 10)));
+    }
+
+    @Test
+    void testFlush_AddsMissingMethodToExistingEndpointOnly() {
+        Endpoints existing = new Endpoints("/api/users", 200, "Configured by hand");
+        existing.setId(7L);
+        when(endpointsRepository.findEndpointByPath("/api/users")).thenReturn(existing);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(7L, "GET"))
+            .thenReturn(List.of(new Responses(existing, "GET", "application/json", "{}")));
+
+        recordingWriter.record(recording("GET", "/api/users", 200, "recorded", 10));
+        recordingWriter.record(recording("DELETE", "/api/users", 204, null, 10));
+
+        assertEquals(1, recordingWriter.flush());
+
+        assertTrue(captureAll(endpointsRepository).isEmpty());
+        assertTrue(captureAll(headersRepository).isEmpty());
+        List<Responses> responses = captureAll(responsesRepository);
+        assertEquals("DELETE", responses.get(0).getMethod());
+        assertSame(existing, responses.get(0).getEndpoints());
+    }
+
+    @Test
+    void testFlush_NothingNewDoesNotRebuild() {
+        Endpoints existing = new Endpoints("/api/users", 200, "Configured by hand");
+        existing.setId(7L);
+        when(endpointsRepository.findEndpointByPath("/api/users")).thenReturn(existing);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(7L, "GET"))
+            .thenReturn(List.of(new Responses(existing, "GET", "application/json", "{}")));
+
+        recordingWriter.record(recording("GET", "/api/users", 200, "recorded", 10));
+
+        assertEquals(0, recordingWriter.flush());
+        verify(responsesRepository, never()).saveAll(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_WritesInBatchesOfConfiguredSize() {
+        recordingWriter.shutdown();
+        recordingWriter = newWriter(2, false);
+        for (int i = 0; i < 5; i++) {
+            recordingWriter.record(recording("GET", "/api/items/" + i, 200, "{}", 10));
+        }
+
+        // Full batches may already have been written by the background flush
+        recordingWriter.flush();
+
+        assertEquals(5, captureAll(responsesRepository).size());
+        ArgumentCaptor<Iterable<Responses>> batches = ArgumentCaptor.forClass(Iterable.class);
+        verify(responsesRepository, atLeast(3)).saveAll(batches.capture());
+        batches.getAllValues().forEach(batch -> assertTrue(((List<Responses>) batch).size() <= 2));
+    }
+
+    @Test
+    void testFlush_StoresRecordedLatencyWhenEnabled() {
+        recordingWriter.shutdown();
+        recordingWriter = newWriter(100, true);
+        recordingWriter.record(recording("GET", "/api/slow", 200, "{}", 350));
+
+        recordingWriter.flush();
+
+        LoadTestConfig config = loadTestService.parseLoadTestConfig(captureAll(endpointsRepository).get(0).getLoadTestConfig());
+        assertEquals("FIXED", config.getLatencyConfig().getType());
+        assertEquals(350L, config.getLatencyConfig().getFixedLatencyMs());
+    }
+
+    @Test
+    void testRecord_RejectsPathsTooLongToStore() {
+        String path = "/api/" + "a".repeat(RecordingWriter.MAX_PATH_LENGTH);
+
+        assertFalse(recordingWriter.record(recording("GET", path, 200, "{}", 10)));
+        assertEquals(0, recordingWriter.flush());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> captureAll(org.springframework.data.jpa.repository.JpaRepository<T, Long> repository) {
+        ArgumentCaptor<Iterable<T>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository, atLeast(0)).saveAll(captor.capture());
+        List<T> saved = new ArrayList<>();
+        captor.getAllValues().forEach(batch -> batch.forEach(saved::add));
+        return saved;
+    }
+
+    @Test
+    void testRecord_RejectsPathsThatLookLikeTemplates() {
+        assertFalse(recordingWriter.record(recording("GET", "/api/files/**", 200, "{}", 10)));
+        assertFalse(recordingWriter.record(recording("GET", "/api/**/files", 200, "{}", 10)));
+        assertFalse(recordingWriter.record(recording("GET", "/api/users/{id}", 200, "{}", 10)));
+        assertTrue(recordingWriter.record(recording("GET", "/api/files/a*b", 200, "{}", 10)));
+
+        assertEquals(1, recordingWriter.flush());
+        assertEquals(List.of("/api/files/a*b"), captureAll(endpointsRepository).stream().map(Endpoints::getPath).toList());
+    }
+
+    @Test
+    void testFlusher_StartsWithTheFirstRecording() {
+        RecordingWriter writer = new RecordingWriter(endpointsRepository, headersRepository, responsesRepository,
+            loadTestService, eventPublisher, new TransactionTemplate(transactionManager), 100, 100, Duration.ofMillis(10), false);
+        try {
+            assertFalse(writer.isStarted());
+
+            writer.record(recording("GET", "/api/users", 200, "{}", 10));
+
+            assertTrue(writer.isStarted());
+            verify(responsesRepository, timeout(2_000)).saveAll(anyList());
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    private static RecordingWriter.Recording recording(String method, String path, int statusCode, String body, long latencyMs) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
+        return new RecordingWriter.Recording(method, path, statusCode, headers, "application/json", body, latencyMs);
+    }
+}
@@ -0,0 +1,254 @@
+package com.kds.mock.service;
+
+import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.entity.Endpoints;
+import com.kds.mock.entity.Headers;
+import com.kds.mock.entity.Responses;
+import com.kds.mock.metrics.RequestMetrics;
+import com.kds.mock.repository.EndpointsRepository;
+import com.kds.mock.repository.HeadersRepository;
+import com.kds.mock.repository.ResponsesRepository;
+import com.kds.mock.route.CompiledRoute;
+import com.kds.mock.route.RouteTable;
+import com.kds.mock.route.RouteTableChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RouteTableServiceTests {
+
+    @Mock
+    private EndpointsRepository endpointsRepository;
+    @Mock
+    private HeadersRepository headersRepository;
+    @Mock
+    private ResponsesRepository responsesRepository;
+
+    private final LoadTestService loadTestService = new LoadTestService();
+    private final RequestMetrics requestMetrics = new RequestMetrics();
+
+    private RouteTableService routeTableService;
+
+    private Endpoints endpoint;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        routeTableService = new RouteTableService(endpointsRepository, headersRepository, responsesRepository, loadTestService, requestMetrics);
+
+        endpoint = new Endpoints("/api/users", 201, "Users endpoint");
+        endpoint.setId(1L);
+        when(endpointsRepository.findAll()).thenReturn(List.of(endpoint));
+        when(headersRepository.findAll()).thenReturn(List.of(new Headers(endpoint, "X-Test", "value")));
+        when(responsesRepository.findAll()).thenReturn(List.of(
+            new Responses(endpoint, "get", "application/json", "{\"users\": []}"),
+            new Responses(endpoint, "POST", "application/json", "{\"created\": true}")
+        ));
+    }
+
+    @Test
+    void testGetRouteTable_LoadsLazilyOnce() {
+        RouteTable first = routeTableService.getRouteTable();
+        RouteTable second = routeTableService.getRouteTable();
+
+        assertSame(first, second);
+        verify(endpointsRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testReload_CompilesEndpointsHeadersAndResponses() {
+        CompiledRoute route = routeTableService.reload().find("/api/users");
+
+        assertNotNull(route);
+        assertAll(
+            () -> assertEquals(201, route.statusCode()),
+            () -> assertEquals(1, route.headers().size()),
+            () -> assertEquals("value", route.headers().getFirst("X-Test")),
+            () -> assertEquals("{\"users\": []}", route.response("GET").bodyAsString()),
+            () -> assertEquals("{\"created\": true}", route.response("POST").bodyAsString()),
+            () -> assertNull(route.response("DELETE"))
+        );
+    }
+
+    @Test
+    void testReload_ParsesLoadTestConfigOnce() {
+        endpoint.setLoadTestConfig("{\"latencyConfig\":{\"type\":\"FIXED\",\"fixedLatencyMs\":100}}");
+
+        CompiledRoute route = routeTableService.reload().find("/api/users");
+
+        assertNotNull(route.loadTestConfig());
+        assertEquals(100L, route.loadTestConfig().getLatencyConfig().getFixedLatencyMs());
+        assertSame(route.loadTestConfig(), routeTableService.getRouteTable().find("/api/users").loadTestConfig());
+    }
+
+    @Test
+    void testReload_InvalidStoredLoadTestConfigIsIgnored() {
+        endpoint.setLoadTestConfig("not json");
+
+        CompiledRoute route = routeTableService.reload().find("/api/users");
+
+        assertNotNull(route);
+        assertNull(route.loadTestConfig());
+    }
+
+    @Test
+    void testReload_SwapsSnapshot() {
+        RouteTable before = routeTableService.getRouteTable();
+        when(endpointsRepository.findAll()).thenReturn(List.of());
+
+        routeTableService.onRouteTableChanged(new RouteTableChangedEvent("/api/users"));
+
+        RouteTable after = routeTableService.getRouteTable();
+        assertNotSame(before, after);
+        assertNotNull(before.find("/api/users"));
+        assertNull(after.find("/api/users"));
+    }
+
+    @Test
+    void testLoadOnStartup_DatabaseUnavailable() {
+        when(endpointsRepository.findAll()).thenThrow(new RuntimeException("Connection refused"));
+
+        assertDoesNotThrow(() -> routeTableService.loadOnStartup());
+        assertThrows(RuntimeException.class, () -> routeTableService.getRouteTable());
+    }
+
+    @Test
+    void testBuild_IgnoresOrphanedRows() {
+        Endpoints orphan = new Endpoints("/api/orphan", 200, "Orphan endpoint");
+        orphan.setId(2L);
+
+        RouteTable table = RouteTable.build(
+            List.of(endpoint),
+            List.of(new Headers(orphan, "X-Orphan", "value")),
+            List.of(new Responses(orphan, "GET", "application/json", "{}")),
+            loadTestService::parseLoadTestConfig
+        );
+
+        assertEquals(1, table.size());
+        assertNull(table.find("/api/orphan"));
+        assertNull(table.find("/api/users").headers().getFirst("X-Orphan"));
+    }
+
+    @Test
+    void testReload_DefaultsContentTypeWithoutHeaders() {
+        when(headersRepository.findAll()).thenReturn(List.of());
+
+        CompiledRoute route = routeTableService.reload().find("/api/users");
+
+        assertEquals("application/json", route.headers().getFirst("Content-Type"));
+    }
+
+    @Test
+    void testReload_PrecompilesReadOnlyHeadersAndEncodedBody() {
+        when(responsesRepository.findAll()).thenReturn(List.of(
+            new Responses(endpoint, "GET", "application/json", "{\"name\": \"Zoë\"}")
+        ));
+
+        CompiledRoute route = routeTableService.reload().find("/api/users");
+
+        assertArrayEquals("{\"name\": \"Zoë\"}".getBytes(StandardCharsets.UTF_8), route.response("GET").body());
+        assertThrows(UnsupportedOperationException.class, () -> route.headers().add("X-Other", "value"));
+    }
+
+    @Test
+    void testReload_CompressesLargeBodiesOnce() throws Exception {
+        String largeBody = "{\"items\": [" + "{\"name\": \"item\"},".repeat(500) + "{}]}";
+        when(responsesRepository.findAll()).thenReturn(List.of(
+            new Responses(endpoint, "GET", "application/json", largeBody),
+            new Responses(endpoint, "POST", "application/json", "{\"created\": true}")
+        ));
+
+        CompiledRoute route = routeTableService.reload().find("/api/users");
+
+        CompiledRoute.RouteResponse get = route.response("GET");
+        assertTrue(get.hasGzipVariant());
+        assertTrue(get.gzipBody().length < get.body().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(get.gzipBody()))) {
+            assertEquals(largeBody, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals("gzip", get.gzipHeaders().getFirst("Content-Encoding"));
+        assertEquals("Accept-Encoding", get.gzipHeaders().getFirst("Vary"));
+        assertEquals("Accept-Encoding", get.headers().getFirst("Vary"));
+        assertNull(get.headers().getFirst("Content-Encoding"));
+        assertEquals("value", get.gzipHeaders().getFirst("X-Test"));
+        assertFalse(route.response("POST").hasGzipVariant());
+    }
+
+    @Test
+    void testReload_ReusesCompressedVariantForUnchangedBody() {
+        String largeBody = "x".repeat(10_000);
+        when(responsesRepository.findAll()).thenReturn(List.of(new Responses(endpoint, "GET", "text/plain", largeBody)));
+        byte[] compressed = routeTableService.reload().find("/api/users").response("GET").gzipBody();
+
+        byte[] afterUnchangedReload = routeTableService.reload().find("/api/users").response("GET").gzipBody();
+        when(responsesRepository.findAll()).thenReturn(List.of(new Responses(endpoint, "GET", "text/plain", largeBody + "y")));
+        byte[] afterChangedReload = routeTableService.reload().find("/api/users").response("GET").gzipBody();
+
+        assertSame(compressed, afterUnchangedReload);
+        assertNotSame(compressed, afterChangedReload);
+    }
+
+    @Test
+    void testReload_TagsResponsesWithStrongETag() {
+        CompiledRoute.RouteResponse get = routeTableService.reload().find("/api/users").response("GET");
+        CompiledRoute.RouteResponse post = routeTableService.getRouteTable().find("/api/users").response("POST");
+
+        String entityTag = get.headers().getETag();
+        assertNotNull(entityTag);
+        assertTrue(entityTag.startsWith("\"") && entityTag.endsWith("\""));
+        assertNotEquals(entityTag, post.headers().getETag());
+
+        // A rebuilt table yields the same tag for an unchanged body
+        RouteTable rebuilt = RouteTable.build(List.of(endpoint), List.of(), List.of(
+            new Responses(endpoint, "GET", "application/json", "{\"users\": []}")), loadTestService::parseLoadTestConfig);
+        assertEquals(entityTag, rebuilt.find("/api/users").response("GET").headers().getETag());
+    }
+
+    @Test
+    void testReload_GzipVariantHasOwnETag() {
+        when(responsesRepository.findAll()).thenReturn(List.of(new Responses(endpoint, "GET", "text/plain", "x".repeat(10_000))));
+
+        CompiledRoute.RouteResponse get = routeTableService.reload().find("/api/users").response("GET");
+
+        assertNotNull(get.headers().getETag());
+        assertNotNull(get.gzipHeaders().getETag());
+        assertNotEquals(get.headers().getETag(), get.gzipHeaders().getETag());
+    }
+
+    @Test
+    void testReload_KeepsConfiguredETag() {
+        when(headersRepository.findAll()).thenReturn(List.of(new Headers(endpoint, "ETag", "\"v1\"")));
+
+        CompiledRoute.RouteResponse get = routeTableService.reload().find("/api/users").response("GET");
+
+        assertEquals(List.of("\"v1\""), get.headers().get("ETag"));
+    }
+
+    @Test
+    void testReload_EvictsStateOfDeletedEndpoints() {
+        LoadTestConfig config = new LoadTestConfig();
+        LoadTestConfig.RateLimitConfig rateLimitConfig = new LoadTestConfig.RateLimitConfig();
+        rateLimitConfig.setEnabled(true);
+        config.setRateLimitConfig(rateLimitConfig);
+        routeTableService.reload();
+        loadTestService.isRateLimitExceeded("/api/users", config);
+        loadTestService.isRateLimitExceeded("/api/deleted", config);
+        requestMetrics.forEndpoint("/api/users").recordRequest();
+        requestMetrics.forEndpoint("/api/deleted").recordRequest();
+
+        routeTableService.onRouteTableChanged(new RouteTableChangedEvent("/api/deleted"));
+
+        assertEquals(1, loadTestService.getRateLimiterCount());
+        assertEquals(Set.of("/api/users"), requestMetrics.snapshot().keySet());
+    }
+}
@@ -3,17 +3,24 @@ package com.kds.mock.service.impl;
 import com.kds.mock.dto.MockEndpointRequest;
 import com.kds.mock.dto.MockEndpointResponse;
 import com.kds.mock.dto.LoadTestConfig;
+import com.kds.mock.dto.RequestMatcher;
+import com.kds.mock.dto.ResponseVariant;
+import com.kds.mock.dto.UpdateMockEndpointRequest;
 import com.kds.mock.entity.Endpoints;
 import com.kds.mock.entity.Headers;
 import com.kds.mock.entity.Responses;
 import com.kds.mock.repository.EndpointsRepository;
 import com.kds.mock.repository.HeadersRepository;
 import com.kds.mock.repository.ResponsesRepository;
+import com.kds.mock.route.RequestMatchers;
+import com.kds.mock.route.RouteTableChangedEvent;
 import com.kds.mock.service.LoadTestService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.lang.reflect.Field;
 import java.util.*;
@@ -32,6 +39,8 @@ class MockEndpointConfigureServiceImplTests {
     private ResponsesRepository responsesRepository;
     @Mock
     private LoadTestService loadTestService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private MockEndpointConfigureServiceImpl mockEndpointConfigureService;
 
@@ -42,10 +51,10 @@ class MockEndpointConfigureServiceImplTests {
             java.lang.reflect.Constructor<MockEndpointConfigureServiceImpl> constructor = 
                 MockEndpointConfigureServiceImpl.class.getDeclaredConstructor(
                     EndpointsRepository.class, HeadersRepository.class, 
-                    ResponsesRepository.class, LoadTestService.class);
+                    ResponsesRepository.class, LoadTestService.class, ApplicationEventPublisher.class);
             constructor.setAccessible(true);
             mockEndpointConfigureService = constructor.newInstance(
-                endpointsRepository, headersRepository, responsesRepository, loadTestService);
+                endpointsRepository, headersRepository, responsesRepository, loadTestService, eventPublisher);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -96,6 +105,7 @@ class MockEndpointConfigureServiceImplTests {
         verify(endpointsRepository).save(any(Endpoints.class));
         verify(headersRepository, times(2)).save(any(Headers.class));
         verify(responsesRepository).save(any(Responses.class));
+        verify(eventPublisher).publishEvent(any(RouteTableChangedEvent.class));
     }
 
     @Test
@@ -136,6 +146,123 @@ class MockEndpointConfigureServiceImplTests {
         // When & Then
         assertThrows(RuntimeException.class, () -> mockEndpointConfigureService.saveMockEndpoint(request));
         verify(endpointsRepository, never()).save(any(Endpoints.class));
+        verify(eventPublisher, never()).publishEvent(any(RouteTableChangedEvent.class));
+    }
+
+    @Test
+    void testSaveMockEndpoint_InvalidLoadTestConfigRejected() {
+        // Given
+        MockEndpointRequest request = createMockEndpointRequest();
+        LoadTestConfig.ErrorConfig errorConfig = new LoadTestConfig.ErrorConfig();
+        errorConfig.setEnabled(true);
+        errorConfig.setErrorRate(1.5);
+        request.getLoadTestConfig().setErrorConfig(errorConfig);
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> mockEndpointConfigureService.saveMockEndpoint(request));
+        assertTrue(ex.getMessage().contains("Error rate (1.5) must be between 0 and 1"));
+        verify(endpointsRepository, never()).save(any(Endpoints.class));
+        verify(eventPublisher, never()).publishEvent(any(RouteTableChangedEvent.class));
+    }
+
+    @Test
+    void testSaveMockEndpoint_InvalidPathTemplateRejected() {
+        // Given
+        MockEndpointRequest request = createMockEndpointRequest();
+        request.setPath("/api/files/**/latest");
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> mockEndpointConfigureService.saveMockEndpoint(request));
+        assertTrue(ex.getMessage().contains("only allowed as the last path segment"));
+        verify(endpointsRepository, never()).save(any(Endpoints.class));
+        verify(eventPublisher, never()).publishEvent(any(RouteTableChangedEvent.class));
+    }
+
+    @Test
+    void testSaveMockEndpoint_StoresVariantsWithMatchers() {
+        // Given
+        MockEndpointRequest request = createMockEndpointRequest();
+        ResponseVariant variant = new ResponseVariant(
+            List.of(new RequestMatcher("HEADER", "X-Tenant", "acme", null)), "{\"tenant\":\"acme\"}", null);
+        request.setVariants(List.of(variant));
+        when(loadTestService.toJson(any(LoadTestConfig.class))).thenReturn("{}");
+
+        // When
+        MockEndpointResponse response = mockEndpointConfigureService.saveMockEndpoint(request);
+
+        // Then
+        ArgumentCaptor<Responses> saved = ArgumentCaptor.forClass(Responses.class);
+        verify(responsesRepository, times(2)).save(saved.capture());
+        Responses defaultResponse = saved.getAllValues().get(0);
+        Responses storedVariant = saved.getAllValues().get(1);
+        assertFalse(defaultResponse.isVariant());
+        assertTrue(storedVariant.isVariant());
+        assertEquals("GET", storedVariant.getMethod());
+        assertEquals("application/json", storedVariant.getContentType());
+        assertEquals("{\"tenant\":\"acme\"}", storedVariant.getBody());
+        assertEquals("X-Tenant", RequestMatchers.fromJson(storedVariant.getMatchers()).get(0).getName());
+        assertSame(defaultResponse, response.getResponses());
+        assertEquals(1, response.getVariants().size());
+    }
+
+    @Test
+    void testSaveMockEndpoint_InvalidVariantRejected() {
+        // Given
+        MockEndpointRequest request = createMockEndpointRequest();
+        request.setVariants(List.of(new ResponseVariant(
+            List.of(new RequestMatcher("QUERY", "tier", null, "gold(")), "{}", null)));
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> mockEndpointConfigureService.saveMockEndpoint(request));
+        assertTrue(ex.getMessage().startsWith("Invalid response variant 1"));
+        verify(endpointsRepository, never()).save(any(Endpoints.class));
+    }
+
+    @Test
+    void testUpdateMockEndpoint_ReplacesVariantsAndKeepsDefault() {
+        // Given
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        Responses oldVariant = new Responses(endpoint, "GET", "application/json", "{\"old\":true}");
+        oldVariant.setMatchers("[{\"source\":\"HEADER\",\"name\":\"X-Old\",\"equalTo\":\"1\"}]");
+        Responses defaultResponse = new Responses(endpoint, "GET", "application/json", "{}");
+        when(endpointsRepository.findEndpointByPath("/test")).thenReturn(endpoint);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(1L, "GET")).thenReturn(List.of(oldVariant, defaultResponse));
+        when(responsesRepository.findAllByEndpointsId(1L)).thenReturn(List.of(defaultResponse));
+
+        UpdateMockEndpointRequest request = new UpdateMockEndpointRequest();
+        request.setBody("{\"updated\":true}");
+        request.setVariants(List.of(new ResponseVariant(
+            List.of(new RequestMatcher("BODY", "$.tier", "gold", null)), "{\"gold\":true}", "application/json")));
+
+        // When
+        mockEndpointConfigureService.updateMockEndpoint("/test", "GET", request);
+
+        // Then
+        assertEquals("{\"updated\":true}", defaultResponse.getBody());
+        assertEquals("{\"old\":true}", oldVariant.getBody());
+        verify(responsesRepository).deleteAll(List.of(oldVariant));
+        verify(responsesRepository).save(argThat(response -> response.isVariant() && "{\"gold\":true}".equals(response.getBody())));
+        verify(responsesRepository).save(defaultResponse);
+    }
+
+    @Test
+    void testUpdateMockEndpoint_InvalidLoadTestConfigRejected() {
+        // Given
+        MockEndpointRequest request = createMockEndpointRequest();
+        LoadTestConfig.LatencyConfig latencyConfig = new LoadTestConfig.LatencyConfig();
+        latencyConfig.setType("PERCENTILE");
+        latencyConfig.setP50(500L);
+        latencyConfig.setP95(100L);
+        request.getLoadTestConfig().setLatencyConfig(latencyConfig);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+            () -> mockEndpointConfigureService.updateMockEndpoint("/test", "GET", request));
+        verify(endpointsRepository, never()).findEndpointByPath(anyString());
     }
 
     @Test
@@ -156,7 +283,7 @@ class MockEndpointConfigureServiceImplTests {
             new Endpoints("/test2", 404, "desc2")
         );
         when(endpointsRepository.findAll()).thenReturn(endpoints);
-        when(headersRepository.findAllByEndpointsId(anyLong())).thenReturn(new ArrayList<>());
+        when(headersRepository.findAll()).thenReturn(new ArrayList<>());
         when(responsesRepository.findAll()).thenReturn(new ArrayList<>());
 
         // When
@@ -181,7 +308,7 @@ class MockEndpointConfigureServiceImplTests {
         List<Responses> allResponses = Arrays.asList(response);
         
         when(endpointsRepository.findAll()).thenReturn(endpoints);
-        when(headersRepository.findAllByEndpointsId(anyLong())).thenReturn(new ArrayList<>());
+        when(headersRepository.findAll()).thenReturn(new ArrayList<>());
         when(responsesRepository.findAll()).thenReturn(allResponses);
 
         // When
@@ -193,6 +320,112 @@ class MockEndpointConfigureServiceImplTests {
         assertNotNull(getField(responses.get(0), "responses"));
     }
 
+    @Test
+    void testGetAllMockEndpoints_OneEntryPerMethod() {
+        // Given
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        Responses get = new Responses(endpoint, "GET", 200, "application/json", "{}");
+        Responses post = new Responses(endpoint, "POST", 201, "application/json", "{\"created\":true}");
+        when(endpointsRepository.findAll()).thenReturn(List.of(endpoint));
+        when(headersRepository.findAll()).thenReturn(new ArrayList<>());
+        when(responsesRepository.findAll()).thenReturn(List.of(get, post));
+
+        // When
+        List<MockEndpointResponse> responses = mockEndpointConfigureService.getAllMockEndpoints();
+
+        // Then
+        assertEquals(2, responses.size());
+        assertSame(get, responses.get(0).getResponses());
+        assertSame(post, responses.get(1).getResponses());
+    }
+
+    @Test
+    void testSaveMockEndpoint_AddsMethodToExistingPath() {
+        // Given
+        Endpoints existing = new Endpoints("/test", 200, "desc");
+        setField(existing, "id", 1L);
+        MockEndpointRequest request = createMockEndpointRequest();
+        request.setMethod("POST");
+        request.setStatusCode(201);
+        request.setResponseHeaders(null);
+        request.setLoadTestConfig(null);
+        when(endpointsRepository.findEndpointByPath("/test")).thenReturn(existing);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(1L, "POST")).thenReturn(List.of());
+
+        // When
+        MockEndpointResponse response = mockEndpointConfigureService.saveMockEndpoint(request);
+
+        // Then
+        ArgumentCaptor<Responses> saved = ArgumentCaptor.forClass(Responses.class);
+        verify(responsesRepository).save(saved.capture());
+        assertSame(existing, saved.getValue().getEndpoints());
+        assertEquals("POST", saved.getValue().getMethod());
+        assertEquals(201, saved.getValue().getStatusCode());
+        assertEquals(200, existing.getStatusCode());
+        assertSame(saved.getValue(), response.getResponses());
+        verify(endpointsRepository).save(existing);
+        verify(headersRepository, never()).deleteAll(any());
+        verify(eventPublisher).publishEvent(any(RouteTableChangedEvent.class));
+    }
+
+    @Test
+    void testSaveMockEndpoint_ExistingMethodRejected() {
+        // Given
+        Endpoints existing = new Endpoints("/test", 200, "desc");
+        setField(existing, "id", 1L);
+        when(endpointsRepository.findEndpointByPath("/test")).thenReturn(existing);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(1L, "GET"))
+            .thenReturn(List.of(new Responses(existing, "GET", "application/json", "{}")));
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> mockEndpointConfigureService.saveMockEndpoint(createMockEndpointRequest()));
+        assertEquals("Mock endpoint already exists for path: /test and method: GET", ex.getMessage());
+        verify(responsesRepository, never()).save(any(Responses.class));
+    }
+
+    @Test
+    void testUpdateMockEndpoint_StatusCodeAppliesToMethodOnly() {
+        // Given
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        Responses post = new Responses(endpoint, "POST", 201, "application/json", "{}");
+        when(endpointsRepository.findEndpointByPath("/test")).thenReturn(endpoint);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(1L, "POST")).thenReturn(List.of(post));
+
+        UpdateMockEndpointRequest request = new UpdateMockEndpointRequest();
+        request.setStatusCode(202);
+
+        // When
+        mockEndpointConfigureService.updateMockEndpoint("/test", "POST", request);
+
+        // Then
+        assertEquals(202, post.getStatusCode());
+        assertEquals(200, endpoint.getStatusCode());
+    }
+
+    @Test
+    void testDeleteMockEndpoint_KeepsEndpointWithOtherMethods() {
+        // Given
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        Responses get = new Responses(endpoint, "GET", "application/json", "{}");
+        Responses post = new Responses(endpoint, "POST", "application/json", "{}");
+        when(endpointsRepository.findEndpointByPath("/test")).thenReturn(endpoint);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(1L, "POST")).thenReturn(List.of(post));
+        when(responsesRepository.findAllByEndpointsId(1L)).thenReturn(List.of(get, post));
+
+        // When
+        mockEndpointConfigureService.deleteMockEndpoint("/test", "POST");
+
+        // Then
+        verify(responsesRepository).deleteAll(List.of(post));
+        verify(endpointsRepository, never()).delete(any(Endpoints.class));
+        verify(headersRepository, never()).deleteAll(any());
+        verify(eventPublisher).publishEvent(any(RouteTableChangedEvent.class));
+    }
+
     @Test
     void testGetAllMockEndpoints_NoResponses() {
         // Given
@@ -201,7 +434,7 @@ class MockEndpointConfigureServiceImplTests {
         
         List<Endpoints> endpoints = Arrays.asList(endpoint);
         when(endpointsRepository.findAll()).thenReturn(endpoints);
-        when(headersRepository.findAllByEndpointsId(anyLong())).thenReturn(new ArrayList<>());
+        when(headersRepository.findAll()).thenReturn(new ArrayList<>());
         when(responsesRepository.findAll()).thenReturn(new ArrayList<>());
 
         // When
@@ -226,6 +459,88 @@ class MockEndpointConfigureServiceImplTests {
         assertTrue(responses.isEmpty());
     }
 
+    @Test
+    void testGetAllMockEndpoints_UsesBoundedQueries() {
+        // Given
+        List<Endpoints> endpoints = new ArrayList<>();
+        List<Headers> headers = new ArrayList<>();
+        List<Responses> responses = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            Endpoints endpoint = new Endpoints("/test" + id, 200, "desc");
+            setField(endpoint, "id", id);
+            endpoints.add(endpoint);
+            headers.add(new Headers(endpoint, "X-Id", String.valueOf(id)));
+            responses.add(new Responses(endpoint, "GET", "application/json", "{\"id\": " + id + "}"));
+        }
+        when(endpointsRepository.findAll()).thenReturn(endpoints);
+        when(headersRepository.findAll()).thenReturn(headers);
+        when(responsesRepository.findAll()).thenReturn(responses);
+
+        // When
+        List<MockEndpointResponse> result = mockEndpointConfigureService.getAllMockEndpoints();
+
+        // Then
+        assertEquals(100, result.size());
+        MockEndpointResponse last = result.get(99);
+        assertEquals("{\"id\": 100}", ((Responses) getField(last, "responses")).getBody());
+        assertEquals(List.of(headers.get(99)), getField(last, "headers"));
+        verify(headersRepository, times(1)).findAll();
+        verify(responsesRepository, times(1)).findAll();
+        verify(headersRepository, never()).findAllByEndpointsId(anyLong());
+        verify(responsesRepository, never()).findAllByEndpointsId(anyLong());
+    }
+
+    @Test
+    void testGetMockEndpoint_QueriesByEndpointAndMethod() {
+        // Given
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        Responses response = new Responses(endpoint, "GET", "application/json", "{}");
+        when(endpointsRepository.findEndpointByPath("/test")).thenReturn(endpoint);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(1L, "get")).thenReturn(List.of(response));
+        when(responsesRepository.findAllByEndpointsId(1L)).thenReturn(List.of(response));
+        when(headersRepository.findAllByEndpointsId(1L)).thenReturn(new ArrayList<>());
+
+        // When
+        MockEndpointResponse result = mockEndpointConfigureService.getMockEndpoint("/test", "get");
+
+        // Then
+        assertSame(response, getField(result, "responses"));
+        verify(responsesRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetMockEndpoint_MethodNotConfigured() {
+        // Given
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        when(endpointsRepository.findEndpointByPath("/test")).thenReturn(endpoint);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(1L, "POST")).thenReturn(List.of());
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> mockEndpointConfigureService.getMockEndpoint("/test", "POST"));
+        verify(responsesRepository, never()).findAll();
+    }
+
+    @Test
+    void testDeleteMockEndpoint_DeletesOnlyMatchingResponses() {
+        // Given
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        List<Responses> matching = List.of(new Responses(endpoint, "DELETE", "application/json", "{}"));
+        when(endpointsRepository.findEndpointByPath("/test")).thenReturn(endpoint);
+        when(responsesRepository.findAllByEndpointsIdAndMethodIgnoreCase(1L, "DELETE")).thenReturn(matching);
+        when(headersRepository.findAllByEndpointsId(1L)).thenReturn(new ArrayList<>());
+
+        // When
+        mockEndpointConfigureService.deleteMockEndpoint("/test", "DELETE");
+
+        // Then
+        verify(responsesRepository).deleteAll(matching);
+        verify(endpointsRepository).delete(endpoint);
+        verify(responsesRepository, never()).findAll();
+    }
+
     private MockEndpointRequest createMockEndpointRequest() {
         MockEndpointRequest request = new MockEndpointRequest();
         setField(request, "path", "/test");
@@ -5,21 +5,35 @@ import com.kds.mock.dto.LoadTestConfig;
 import com.kds.mock.entity.Endpoints;
 import com.kds.mock.entity.Headers;
 import com.kds.mock.entity.Responses;
-import com.kds.mock.repository.EndpointsRepository;
-import com.kds.mock.repository.HeadersRepository;
-import com.kds.mock.repository.ResponsesRepository;
+import com.kds.mock.metrics.EndpointMetrics;
+import com.kds.mock.metrics.RequestMetrics;
+import com.kds.mock.metrics.ServingMeters;
+import com.kds.mock.route.CompiledRoute;
+import com.kds.mock.route.RequestView;
+import com.kds.mock.route.RouteTable;
 import com.kds.mock.service.LoadTestService;
+import com.kds.mock.service.RouteTableService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,27 +42,39 @@ import static org.mockito.Mockito.*;
 class MockServiceImplTests {
 
     @Mock
-    private EndpointsRepository endpointsRepository;
-    @Mock
-    private HeadersRepository headersRepository;
-    @Mock
-    private ResponsesRepository responsesRepository;
+    private RouteTableService routeTableService;
     @Mock
     private LoadTestService loadTestService;
 
+    private SimpleMeterRegistry meterRegistry;
+    private RequestMetrics requestMetrics;
+
     @InjectMocks
     private MockServiceImpl mockService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        requestMetrics = new RequestMetrics(meterRegistry);
         try {
-            java.lang.reflect.Constructor<MockServiceImpl> constructor = MockServiceImpl.class.getDeclaredConstructor(EndpointsRepository.class, HeadersRepository.class, ResponsesRepository.class, LoadTestService.class);
+            java.lang.reflect.Constructor<MockServiceImpl> constructor = MockServiceImpl.class.getDeclaredConstructor(
+                RouteTableService.class, LoadTestService.class, RequestMetrics.class);
             constructor.setAccessible(true);
-            mockService = constructor.newInstance(endpointsRepository, headersRepository, responsesRepository, loadTestService);
+            mockService = constructor.newInstance(routeTableService, loadTestService, requestMetrics);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        when(routeTableService.getRouteTable()).thenReturn(RouteTable.EMPTY);
+    }
+
+    private void givenRoutes(Endpoints endpoint, List<Headers> headers, List<Responses> responses) {
+        when(routeTableService.getRouteTable()).thenReturn(
+            RouteTable.build(List.of(endpoint), headers, responses, json -> json != null ? new LoadTestConfig() : null));
+    }
+
+    private void givenRoute(Endpoints endpoint) {
+        givenRoutes(endpoint, List.of(), List.of());
     }
 
     private void setField(Object obj, String fieldName, Object value) {
@@ -87,18 +113,11 @@ class MockServiceImplTests {
     }
 
     private String getBody(MockResponse response) {
-        try {
-            Field field = MockResponse.class.getDeclaredField("body");
-            field.setAccessible(true);
-            return (String) field.get(response);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return response.getBodyAsString();
     }
 
     @Test
     void testGetMockResponseByPathAndMethod_ReturnsNullIfEndpointNotFound() {
-        when(endpointsRepository.findEndpointByPath(anyString())).thenReturn(null);
         MockResponse response = mockService.getMockResponseByPathAndMethod("/notfound", "GET");
         assertNull(response);
     }
@@ -107,8 +126,7 @@ class MockServiceImplTests {
     void testGetMockResponseByPathAndMethod_RateLimitExceeded() {
         Endpoints endpoint = new Endpoints("/test", 200, "desc");
         setField(endpoint, "loadTestConfig", "{}");
-        when(endpointsRepository.findEndpointByPath(anyString())).thenReturn(endpoint);
-        when(loadTestService.parseLoadTestConfig(anyString())).thenReturn(new LoadTestConfig());
+        givenRoute(endpoint);
         when(loadTestService.isRateLimitExceeded(anyString(), any())).thenReturn(true);
         MockResponse response = mockService.getMockResponseByPathAndMethod("/test", "GET");
         assertNotNull(response);
@@ -120,10 +138,9 @@ class MockServiceImplTests {
     void testGetMockResponseByPathAndMethod_Timeout() {
         Endpoints endpoint = new Endpoints("/test", 200, "desc");
         setField(endpoint, "loadTestConfig", "{}");
-        when(endpointsRepository.findEndpointByPath(anyString())).thenReturn(endpoint);
-        when(loadTestService.parseLoadTestConfig(anyString())).thenReturn(new LoadTestConfig());
+        givenRoute(endpoint);
         when(loadTestService.isRateLimitExceeded(anyString(), any())).thenReturn(false);
-        when(loadTestService.shouldTimeout(any())).thenReturn(true);
+        when(loadTestService.shouldTimeout(any(), any())).thenReturn(true);
         MockResponse response = mockService.getMockResponseByPathAndMethod("/test", "GET");
         assertNotNull(response);
         assertEquals(HttpStatus.REQUEST_TIMEOUT.value(), getStatusCode(response));
@@ -134,12 +151,11 @@ class MockServiceImplTests {
     void testGetMockResponseByPathAndMethod_ErrorSimulation() {
         Endpoints endpoint = new Endpoints("/test", 200, "desc");
         setField(endpoint, "loadTestConfig", "{}");
-        when(endpointsRepository.findEndpointByPath(anyString())).thenReturn(endpoint);
-        when(loadTestService.parseLoadTestConfig(anyString())).thenReturn(new LoadTestConfig());
+        givenRoute(endpoint);
         when(loadTestService.isRateLimitExceeded(anyString(), any())).thenReturn(false);
-        when(loadTestService.shouldTimeout(any())).thenReturn(false);
-        when(loadTestService.shouldGenerateError(any())).thenReturn(true);
-        when(loadTestService.getRandomErrorStatusCode(any())).thenReturn(500);
+        when(loadTestService.shouldTimeout(any(), any())).thenReturn(false);
+        when(loadTestService.shouldGenerateError(any(), any())).thenReturn(true);
+        when(loadTestService.getRandomErrorStatusCode(any(), any())).thenReturn(500);
         when(loadTestService.getErrorMessage(any(), eq(500))).thenReturn("Simulated error");
         MockResponse response = mockService.getMockResponseByPathAndMethod("/test", "GET");
         assertNotNull(response);
@@ -153,31 +169,99 @@ class MockServiceImplTests {
             Endpoints endpoint = new Endpoints("/test", 200, "desc");
             setField(endpoint, "id", 1L);
             setField(endpoint, "loadTestConfig", "{}");
-            when(endpointsRepository.findEndpointByPath(anyString())).thenReturn(endpoint);
-            when(loadTestService.parseLoadTestConfig(anyString())).thenReturn(new LoadTestConfig());
-            when(loadTestService.isRateLimitExceeded(anyString(), any())).thenReturn(false);
-            when(loadTestService.shouldTimeout(any())).thenReturn(false);
-            when(loadTestService.shouldGenerateError(any())).thenReturn(false);
-            doAnswer(invocation -> null).when(loadTestService).simulateLatency(any());
             List<Headers> headers = Collections.singletonList(new Headers(endpoint, "X-Test", "value"));
-            when(headersRepository.findAllByEndpointsId(anyLong())).thenReturn(headers);
             Responses responseEntity = new Responses(endpoint, "GET", "application/json", "{\"result\":\"ok\"}");
-            when(responsesRepository.findResponseByEndpointsIdAndMethod(anyLong(), anyString())).thenReturn(responseEntity);
+            givenRoutes(endpoint, headers, List.of(responseEntity));
+            when(loadTestService.isRateLimitExceeded(anyString(), any())).thenReturn(false);
+            when(loadTestService.shouldTimeout(any(), any())).thenReturn(false);
+            when(loadTestService.shouldGenerateError(any(), any())).thenReturn(false);
+            doAnswer(invocation -> null).when(loadTestService).simulateLatency(any());
             MockResponse response = mockService.getMockResponseByPathAndMethod("/test", "GET");
             assertNotNull(response);
             assertEquals(200, getStatusCode(response));
             assertTrue(getBody(response).contains("ok"));
+            assertEquals("value", response.getHeaders().getFirst("X-Test"));
         } catch (InterruptedException e) {
             fail("InterruptedException should not be thrown");
         }
     }
 
+    @Test
+    void testGetMockResponseByPathAndMethod_ServesStatusCodeOfMethod() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        givenRoutes(endpoint, List.of(), List.of(
+            new Responses(endpoint, "GET", 200, "application/json", "{\"read\":true}"),
+            new Responses(endpoint, "POST", 201, "application/json", "{\"created\":true}")));
+
+        MockResponse post = mockService.getMockResponseByPathAndMethod("/test", "POST");
+
+        assertEquals(201, getStatusCode(post));
+        assertEquals("{\"created\":true}", getBody(post));
+        assertEquals(200, getStatusCode(mockService.getMockResponseByPathAndMethod("/test", "GET")));
+        assertNull(mockService.getMockResponseByPathAndMethod("/test", "PUT"));
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethod_ServesFirstMatchingVariant() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        Responses defaultResponse = new Responses(endpoint, "GET", "application/json", "{\"tier\":\"default\"}");
+        Responses acmeVariant = new Responses(endpoint, "GET", "application/json", "{\"tier\":\"acme\"}");
+        acmeVariant.setMatchers("[{\"source\":\"HEADER\",\"name\":\"X-Tenant\",\"equalTo\":\"acme\"}]");
+        Responses goldVariant = new Responses(endpoint, "GET", "application/json", "{\"tier\":\"gold\"}");
+        goldVariant.setMatchers("[{\"source\":\"QUERY\",\"name\":\"tier\",\"matches\":\"gold|platinum\"}]");
+        givenRoutes(endpoint, List.of(), List.of(acmeVariant, defaultResponse, goldVariant));
+
+        RequestView acmeGold = requestView(Map.of("X-Tenant", "acme"), Map.of("tier", "gold"));
+        RequestView gold = requestView(Map.of(), Map.of("tier", "gold"));
+
+        assertEquals("{\"tier\":\"acme\"}", getBody(mockService.getMockResponseByPathAndMethod("/test", "GET", acmeGold)));
+        assertEquals("{\"tier\":\"gold\"}", getBody(mockService.getMockResponseByPathAndMethod("/test", "GET", gold)));
+        assertEquals("{\"tier\":\"default\"}", getBody(mockService.getMockResponseByPathAndMethod("/test", "GET", RequestView.NONE)));
+        assertEquals("{\"tier\":\"default\"}", getBody(mockService.getMockResponseByPathAndMethod("/test", "GET")));
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethod_RendersTemplatedBody() {
+        Endpoints endpoint = new Endpoints("/api/users/{id}", 200, "desc");
+        setField(endpoint, "id", 1L);
+        givenRoutes(endpoint, List.of(), List.of(new Responses(endpoint, "GET", "application/json",
+            "{\"id\":\"{{path.id}}\",\"page\":\"{{query.page}}\",\"requestId\":\"{{request.id}}\"}")));
+
+        MockResponse response = mockService.getMockResponseByPathAndMethod("/api/users/42", "GET",
+            requestView(Map.of("X-Request-Id", "req-1"), Map.of("page", "3")));
+
+        assertEquals("{\"id\":\"42\",\"page\":\"3\",\"requestId\":\"req-1\"}", getBody(response));
+        assertNull(response.getHeaders().getETag());
+        assertNull(response.getGzipBody());
+    }
+
+    private static RequestView requestView(Map<String, String> headers, Map<String, String> queryParameters) {
+        return new RequestView() {
+            @Override
+            public String header(String name) {
+                return headers.get(name);
+            }
+
+            @Override
+            public String queryParameter(String name) {
+                return queryParameters.get(name);
+            }
+
+            @Override
+            public byte[] body() {
+                return new byte[0];
+            }
+        };
+    }
+
     @Test
     void testGetMockResponseByPathAndMethod_ExceptionHandling() {
         Endpoints endpoint = new Endpoints("/test", 200, "desc");
         setField(endpoint, "loadTestConfig", "{}");
-        when(endpointsRepository.findEndpointByPath(anyString())).thenReturn(endpoint);
-        when(loadTestService.parseLoadTestConfig(anyString())).thenThrow(new RuntimeException("Parse error"));
+        givenRoute(endpoint);
+        when(loadTestService.isRateLimitExceeded(anyString(), any())).thenThrow(new RuntimeException("Limiter error"));
         MockResponse response = mockService.getMockResponseByPathAndMethod("/test", "GET");
         assertNotNull(response);
         assertEquals(500, getStatusCode(response));
@@ -185,27 +269,244 @@ class MockServiceImplTests {
     }
 
     @Test
-    void testCreateHttpHeadersWithHeaders() {
+    void testGetMockResponseByPathAndMethod_UsesPreParsedLoadTestConfig() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "loadTestConfig", "{}");
+        givenRoute(endpoint);
+        mockService.getMockResponseByPathAndMethod("/test", "GET");
+        mockService.getMockResponseByPathAndMethod("/test", "GET");
+        verify(loadTestService, never()).parseLoadTestConfig(any());
+        verify(loadTestService, times(2)).isRateLimitExceeded(eq("/test"), notNull());
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethod_MethodWithoutResponse() {
         Endpoints endpoint = new Endpoints("/test", 200, "desc");
-        List<Headers> headers = Collections.singletonList(new Headers(endpoint, "X-Test", "value"));
-        HttpHeaders httpHeaders = invokeCreateHttpHeaders(headers);
-        assertTrue(httpHeaders.containsKey("X-Test"));
+        setField(endpoint, "id", 1L);
+        givenRoutes(endpoint, List.of(), List.of(new Responses(endpoint, "GET", "application/json", "{}")));
+        // A path configured for other methods does not serve this one
+        assertNull(mockService.getMockResponseByPathAndMethod("/test", "POST"));
     }
 
     @Test
-    void testCreateHttpHeadersWithNoHeaders() {
-        HttpHeaders httpHeaders = invokeCreateHttpHeaders(Collections.emptyList());
-        assertTrue(httpHeaders.containsKey("Content-Type"));
+    void testGetMockResponseByPathAndMethod_EndpointWithoutResponsesServesAnyMethod() {
+        Endpoints endpoint = new Endpoints("/test", 204, "desc");
+        setField(endpoint, "id", 1L);
+        givenRoute(endpoint);
+        MockResponse response = mockService.getMockResponseByPathAndMethod("/test", "POST");
+        assertNotNull(response);
+        assertEquals(204, getStatusCode(response));
+        assertNull(getBody(response));
     }
 
-    // Helper to access private method for test coverage
-    private HttpHeaders invokeCreateHttpHeaders(List<Headers> headers) {
-        try {
-            java.lang.reflect.Method m = MockServiceImpl.class.getDeclaredMethod("createHttpHeaders", List.class);
-            m.setAccessible(true);
-            return (HttpHeaders) m.invoke(mockService, headers);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    @Test
+    void testGetMockResponseByPathAndMethod_SharesCompiledHeadersAndBody() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "id", 1L);
+        givenRoutes(endpoint, List.of(new Headers(endpoint, "X-Test", "value")),
+            List.of(new Responses(endpoint, "GET", "application/json", "{\"result\":\"ok\"}")));
+        CompiledRoute route = routeTableService.getRouteTable().find("/test");
+
+        MockResponse first = mockService.getMockResponseByPathAndMethod("/test", "GET");
+        MockResponse second = mockService.getMockResponseByPathAndMethod("/test", "GET");
+
+        assertSame(route.response("GET").headers(), first.getHeaders());
+        assertSame(route.response("GET").body(), first.getBody());
+        assertSame(first.getBody(), second.getBody());
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethod_DrawsAllDecisionsFromRequestRandom() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "loadTestConfig", "{}");
+        givenRoute(endpoint);
+        RandomGenerator random = new SplittableRandom(1);
+        when(loadTestService.newRequestRandom(eq("/test"), any())).thenReturn(random);
+        when(loadTestService.shouldGenerateError(any(), same(random))).thenReturn(true);
+        when(loadTestService.getRandomErrorStatusCode(any(), same(random))).thenReturn(503);
+        when(loadTestService.getErrorMessage(any(), eq(503))).thenReturn("Simulated error");
+
+        MockResponse response = mockService.getMockResponseByPathAndMethod("/test", "GET");
+
+        assertEquals(503, getStatusCode(response));
+        verify(loadTestService).shouldTimeout(any(), same(random));
+        verify(loadTestService).calculateLatencyMs(any(), same(random));
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethodAsync_DelaysWithoutBlocking() throws InterruptedException {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "loadTestConfig", "{}");
+        givenRoute(endpoint);
+        when(loadTestService.calculateLatencyMs(any(), any())).thenReturn(250L);
+        CompletableFuture<MockResponse> pending = new CompletableFuture<>();
+        when(loadTestService.completeAfter(any(MockResponse.class), eq(250L))).thenReturn(pending);
+
+        CompletableFuture<MockResponse> future = mockService.getMockResponseByPathAndMethodAsync("/test", "GET");
+
+        assertSame(pending, future);
+        verify(loadTestService, never()).simulateLatency(any());
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethodAsync_TimeoutDelaysByTimeout() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "loadTestConfig", "{}");
+        givenRoute(endpoint);
+        LoadTestConfig config = new LoadTestConfig();
+        LoadTestConfig.TimeoutConfig timeoutConfig = new LoadTestConfig.TimeoutConfig();
+        timeoutConfig.setTimeoutMs(5000L);
+        config.setTimeoutConfig(timeoutConfig);
+        when(routeTableService.getRouteTable()).thenReturn(
+            RouteTable.build(List.of(endpoint), List.of(), List.of(), json -> config));
+        when(loadTestService.shouldTimeout(any(), any())).thenReturn(true);
+        when(loadTestService.completeAfter(any(MockResponse.class), anyLong()))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+        MockResponse response = mockService.getMockResponseByPathAndMethodAsync("/test", "GET").join();
+
+        assertEquals(HttpStatus.REQUEST_TIMEOUT.value(), getStatusCode(response));
+        assertEquals(5000L, response.getDelayMs());
+        verify(loadTestService).completeAfter(response, 5000L);
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethodAsync_NoDelayCompletesImmediately() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        givenRoute(endpoint);
+
+        CompletableFuture<MockResponse> future = mockService.getMockResponseByPathAndMethodAsync("/test", "GET");
+
+        assertTrue(future.isDone());
+        assertEquals(200, getStatusCode(future.join()));
+        verify(loadTestService, never()).completeAfter(any(), anyLong());
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethodAsync_ReturnsNullIfEndpointNotFound() {
+        assertNull(mockService.getMockResponseByPathAndMethodAsync("/notfound", "GET").join());
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethod_LatencyParksVirtualThreads() throws Exception {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "loadTestConfig", "{}");
+        LoadTestConfig config = new LoadTestConfig();
+        LoadTestConfig.LatencyConfig latencyConfig = new LoadTestConfig.LatencyConfig();
+        latencyConfig.setType("FIXED");
+        latencyConfig.setFixedLatencyMs(200L);
+        config.setLatencyConfig(latencyConfig);
+        when(routeTableService.getRouteTable()).thenReturn(
+            RouteTable.build(List.of(endpoint), List.of(), List.of(), json -> config));
+        LoadTestService realLoadTestService = new LoadTestService();
+        MockServiceImpl service = new MockServiceImpl(routeTableService, realLoadTestService, new RequestMetrics());
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<MockResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(() -> service.getMockResponseByPathAndMethod("/test", "GET")));
+            }
+            for (Future<MockResponse> future : futures) {
+                assertEquals(200, getStatusCode(future.get()));
+            }
+        } finally {
+            realLoadTestService.shutdown();
         }
+
+        // 100 requests of 200ms each would take 20s if the sleeps held their carrier threads
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethod_RecordsOutcomeMetrics() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "loadTestConfig", "{}");
+        givenRoute(endpoint);
+        when(loadTestService.calculateLatencyMs(any(), any())).thenReturn(0L);
+        when(loadTestService.getRandomErrorStatusCode(any(), any())).thenReturn(503);
+
+        when(loadTestService.isRateLimitExceeded(anyString(), any())).thenReturn(true);
+        mockService.getMockResponseByPathAndMethod("/test", "GET");
+        when(loadTestService.isRateLimitExceeded(anyString(), any())).thenReturn(false);
+        when(loadTestService.shouldTimeout(any(), any())).thenReturn(true);
+        mockService.getMockResponseByPathAndMethod("/test", "GET");
+        when(loadTestService.shouldTimeout(any(), any())).thenReturn(false);
+        when(loadTestService.shouldGenerateError(any(), any())).thenReturn(true);
+        mockService.getMockResponseByPathAndMethod("/test", "GET");
+        when(loadTestService.shouldGenerateError(any(), any())).thenReturn(false);
+        mockService.getMockResponseByPathAndMethod("/test", "GET");
+
+        EndpointMetrics.Snapshot snapshot = requestMetrics.snapshot().get("/test");
+        assertEquals(4, snapshot.totalRequests());
+        assertEquals(1, snapshot.rateLimitedRequests());
+        assertEquals(1, snapshot.timeoutRequests());
+        assertEquals(1, snapshot.errorRequests());
+        assertEquals(3, snapshot.injectedLatency().total().count());
+        assertEquals(4, snapshot.serviceTime().total().count());
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethod_UnconfiguredPathRecordsNothing() {
+        mockService.getMockResponseByPathAndMethod("/notfound", "GET");
+
+        assertTrue(requestMetrics.snapshot().isEmpty());
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethodAsync_RecordsServiceTimeOnCompletion() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "loadTestConfig", "{}");
+        givenRoute(endpoint);
+        when(loadTestService.calculateLatencyMs(any(), any())).thenReturn(250L);
+        CompletableFuture<MockResponse> pending = new CompletableFuture<>();
+        when(loadTestService.completeAfter(any(MockResponse.class), eq(250L))).thenReturn(pending);
+
+        MockResponse planned = mockService.getMockResponseByPathAndMethodAsync("/test", "GET").getNow(null);
+
+        assertNull(planned);
+        assertEquals(0, requestMetrics.snapshot().get("/test").serviceTime().total().count());
+        assertEquals(250_000, requestMetrics.snapshot().get("/test").injectedLatency().total().max(), 2_500);
+        pending.complete(new MockResponse(200, null, "{}"));
+        assertEquals(1, requestMetrics.snapshot().get("/test").serviceTime().total().count());
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethod_PublishesStageTimersByOutcome() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        setField(endpoint, "loadTestConfig", "{}");
+        givenRoute(endpoint);
+        when(loadTestService.calculateLatencyMs(any(), any())).thenReturn(20L);
+
+        MockResponse response = mockService.getMockResponseByPathAndMethod("/test", "GET");
+        when(loadTestService.isRateLimitExceeded(anyString(), any())).thenReturn(true);
+        mockService.getMockResponseByPathAndMethod("/test", "GET");
+
+        assertNotNull(response.getServingMeters());
+        assertEquals(1.0, meterRegistry.get(ServingMeters.REQUESTS)
+            .tags("endpoint", "/test", "method", "GET", "outcome", "normal").counter().count());
+        assertEquals(1.0, meterRegistry.get(ServingMeters.REQUESTS)
+            .tags("endpoint", "/test", "method", "GET", "outcome", "rate_limited").counter().count());
+        for (String stage : List.of("lookup", "rate_limit", "plan", "delay")) {
+            assertEquals(1, meterRegistry.get(ServingMeters.STAGE)
+                .tags("endpoint", "/test", "outcome", "normal", "stage", stage).timer().count(), stage);
+        }
+        Timer delay = meterRegistry.get(ServingMeters.STAGE).tags("outcome", "normal", "stage", "delay").timer();
+        assertTrue(delay.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertEquals(0, meterRegistry.get(ServingMeters.STAGE).tags("outcome", "rate_limited", "stage", "delay").timer().count());
+    }
+
+    @Test
+    void testGetMockResponseByPathAndMethod_BoundsTagValues() {
+        Endpoints endpoint = new Endpoints("/test", 200, "desc");
+        givenRoute(endpoint);
+
+        mockService.getMockResponseByPathAndMethod("/test", "BREW");
+        mockService.getMockResponseByPathAndMethod("/test/123", "GET");
+        mockService.getMockResponseByPathAndMethod("/test/456", "GET");
+
+        assertEquals(1.0, meterRegistry.get(ServingMeters.REQUESTS).tags("endpoint", "/test", "method", "OTHER").counter().count());
+        assertEquals(2.0, meterRegistry.get(ServingMeters.REQUESTS)
+            .tags("endpoint", RequestMetrics.UNMATCHED, "outcome", "not_found").counter().count());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,172 @@
+package com.kds.mock.throttle;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ThrottledBodyWriterTests {
+
+    private final TimerWheel timerWheel = new TimerWheel("test-throttle", Duration.ofMillis(1), 64);
+    private final FakeOutputStream out = new FakeOutputStream();
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+    private final AsyncContext asyncContext = mock(AsyncContext.class);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(request.startAsync(request, response)).thenReturn(asyncContext);
+        when(response.getOutputStream()).thenReturn(out);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timerWheel.close();
+    }
+
+    @Test
+    void testStreamsChunksAtConfiguredBandwidthAfterTimeToFirstByte() throws IOException {
+        byte[] body = body(500);
+        long start = System.nanoTime();
+
+        // 100 byte chunks at 10000 bytes per second are 10ms apart
+        ThrottledBodyWriter.start(request, response, body, 10_000, 100, 50, timerWheel);
+
+        verify(asyncContext, timeout(2_000)).complete();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertArrayEquals(body, out.written());
+        // The headers were flushed before the body
+        assertTrue(out.flushesBeforeFirstWrite >= 1);
+        assertTrue(out.writeTimesNanos.get(0) - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(elapsedMs >= 90, "streamed in " + elapsedMs + "ms");
+        assertTrue(out.writeTimesNanos.size() <= 5);
+    }
+
+    @Test
+    void testAsyncTimeoutCoversTheWholeStream() throws IOException {
+        ThrottledBodyWriter.start(request, response, body(4_000), 1_000, 100, 500, timerWheel);
+
+        verify(asyncContext).setTimeout(500 + 4_000 + ThrottledBodyWriter.TIMEOUT_MARGIN_MS);
+        verify(asyncContext).addListener(any(ThrottledBodyWriter.class));
+    }
+
+    @Test
+    void testWaitsForSlowClientBeforeWritingMore() throws Exception {
+        byte[] body = body(300);
+        ThrottledBodyWriter.start(request, response, body, 100_000, 100, 20, timerWheel);
+
+        // The client stops reading before the first chunk is due
+        out.ready = false;
+        Thread.sleep(100);
+        assertEquals(0, out.written().length);
+        verify(asyncContext, never()).complete();
+
+        out.ready = true;
+        out.listener.onWritePossible();
+
+        verify(asyncContext, timeout(2_000)).complete();
+        assertArrayEquals(body, out.written());
+    }
+
+    @Test
+    void testStopsWhenTheClientGoesAway() throws Exception {
+        ThrottledBodyWriter.start(request, response, body(1_000), 1_000, 100, 20, timerWheel);
+
+        out.listener.onError(new IOException("Connection reset"));
+        Thread.sleep(100);
+
+        assertEquals(0, out.written().length);
+        verify(asyncContext, times(1)).complete();
+    }
+
+    @Test
+    void testRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+            () -> ThrottledBodyWriter.start(request, response, body(10), 0, 100, 0, timerWheel));
+        assertThrows(IllegalArgumentException.class,
+            () -> ThrottledBodyWriter.start(request, response, body(10), 100, 0, 0, timerWheel));
+        verifyNoInteractions(asyncContext);
+    }
+
+    @Test
+    void testListenerIsRegisteredOnTheResponseStream() throws IOException {
+        ThrottledBodyWriter.start(request, response, body(10), 100, 10, 0, timerWheel);
+
+        ArgumentCaptor<ThrottledBodyWriter> listener = ArgumentCaptor.forClass(ThrottledBodyWriter.class);
+        verify(asyncContext).addListener(listener.capture());
+        assertSame(listener.getValue(), out.listener);
+    }
+
+    private static byte[] body(int length) {
+        byte[] body = new byte[length];
+        for (int i = 0; i < length; i++) {
+            body[i] = (byte) ('a' + i % 26);
+        }
+        return body;
+    }
+
+    /**
+     * Non-blocking output stream that is ready unless told otherwise and records when bytes were written
+     */
+    private static final class FakeOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final List<Long> writeTimesNanos = new CopyOnWriteArrayList<>();
+        private volatile boolean ready = true;
+        private volatile int flushesBeforeFirstWrite;
+        private volatile WriteListener listener;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            writeTimesNanos.add(System.nanoTime());
+            bytes.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            if (writeTimesNanos.isEmpty()) {
+                flushesBeforeFirstWrite++;
+            }
+        }
+
+        synchronized byte[] written() {
+            return bytes.toByteArray();
+        }
+    }
+}
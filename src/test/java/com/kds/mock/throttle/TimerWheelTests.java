@@ -0,0 +1,116 @@
+package com.kds.mock.throttle;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTests {
+
+    private final TimerWheel timerWheel = new TimerWheel("test-timer", Duration.ofMillis(1), 8);
+
+    @AfterEach
+    void tearDown() {
+        timerWheel.close();
+    }
+
+    @Test
+    void testRunsTaskNotBeforeItsDeadline() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicLong elapsedNanos = new AtomicLong();
+        long start = System.nanoTime();
+
+        timerWheel.schedule(() -> {
+            elapsedNanos.set(System.nanoTime() - start);
+            ran.countDown();
+        }, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(ran.await(2, TimeUnit.SECONDS));
+        assertTrue(elapsedNanos.get() >= TimeUnit.MILLISECONDS.toNanos(30), "ran after " + elapsedNanos.get() + "ns");
+    }
+
+    @Test
+    void testRunsTasksFurtherAwayThanOneRevolution() throws InterruptedException {
+        // 8 buckets of 1ms, so 45ms is more than five revolutions away
+        CountDownLatch ran = new CountDownLatch(2);
+        AtomicLong elapsedNanos = new AtomicLong();
+        long start = System.nanoTime();
+
+        timerWheel.schedule(ran::countDown, 3, TimeUnit.MILLISECONDS);
+        timerWheel.schedule(() -> {
+            elapsedNanos.set(System.nanoTime() - start);
+            ran.countDown();
+        }, 45, TimeUnit.MILLISECONDS);
+
+        assertTrue(ran.await(2, TimeUnit.SECONDS));
+        assertTrue(elapsedNanos.get() >= TimeUnit.MILLISECONDS.toNanos(45), "ran after " + elapsedNanos.get() + "ns");
+    }
+
+    @Test
+    void testRunsManyTasksFromOneThread() throws InterruptedException {
+        int tasks = 10_000;
+        CountDownLatch ran = new CountDownLatch(tasks);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        for (int i = 0; i < tasks; i++) {
+            timerWheel.schedule(() -> {
+                threads.add(Thread.currentThread());
+                ran.countDown();
+            }, ThreadLocalRandom.current().nextInt(50), TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(1, threads.size());
+        assertEquals("test-timer", threads.iterator().next().getName());
+    }
+
+    @Test
+    void testTasksCanRescheduleThemselves() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(5);
+        Runnable[] task = new Runnable[1];
+        task[0] = () -> {
+            ran.countDown();
+            if (ran.getCount() > 0) {
+                timerWheel.schedule(task[0], 2, TimeUnit.MILLISECONDS);
+            }
+        };
+
+        timerWheel.schedule(task[0], 0, TimeUnit.MILLISECONDS);
+
+        assertTrue(ran.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailingTaskDoesNotStopTheWheel() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+
+        timerWheel.schedule(() -> {
+            throw new IllegalStateException("expected");
+        }, 1, TimeUnit.MILLISECONDS);
+        timerWheel.schedule(ran::countDown, 5, TimeUnit.MILLISECONDS);
+
+        assertTrue(ran.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testClosedWheelRejectsTasks() {
+        timerWheel.close();
+
+        assertThrows(IllegalStateException.class, () -> timerWheel.schedule(() -> { }, 1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRequiresPositiveTickAndPowerOfTwoBuckets() {
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel("t", Duration.ZERO, 8));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel("t", Duration.ofMillis(1), 12));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel("t", Duration.ofMillis(1), 0));
+    }
+}